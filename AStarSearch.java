@@ -0,0 +1,346 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* search of a single pair query on a frozen {@link CompactGraph} of words
+ *
+ * Every edge of a word ladder is one replacement, insertion or deletion (see
+ * {@link WordProcessor#isAdjacent(String, String)}), so any distance between words which changes by at most one per
+ * edit is a lower bound of the number of steps to the target which changes by at most one per step: a consistent
+ * heuristic. Two are offered, see {@link Heuristic}. The search expands vertices in order of f = g + h, with one
+ * bucket per value of f since both are small ints, and only labels the vertices which can lie on a path no longer
+ * than the shortest one: between words of similar length far apart, far fewer than a breadth first search. When a
+ * step may be several edits, see {@link #setMaxEdits(int)}, the distance is divided by the edits of a step, rounded
+ * up, which still changes by at most one per step.
+ *
+ * The path is the same as the one of {@link ShortestPathTree}: walking back from the target, every vertex is
+ * preceded by its lowest id neighbour one step closer to the source. Once the target is reached at distance D the
+ * search still expands every vertex of f at most D, which are all the vertices of all the shortest paths, so their
+ * distances from the source are known for the walk back.
+ *
+ * Given a {@link LandmarkIndex} of the graph, the heuristic is the larger of the word distance and the landmark lower
+ * bound, still consistent as the larger of two consistent heuristics, and no vertex is labelled beyond the length of
+ * the shortest path through a landmark, which the shortest path can not exceed.
+ *
+ * Scratch arrays are reused between queries and reset by bumping a stamp. Not safe for concurrent use.
+ */
+public class AStarSearch {
+
+    /**
+     * Lower bounds of the number of steps from a word to the target
+     */
+    public enum Heuristic {
+        /**
+         * edit distance to the target, the tightest bound, computed by a {@link BoundedEditDistance} in a few word
+         * operations per char of the labelled word
+         */
+        EDIT,
+        /**
+         * bag distance to the target: the larger of the number of letters of the word missing from the target and
+         * of the letters of the target missing from the word, counted with repetitions. At least the difference of
+         * lengths and at most the edit distance, in O(length) per labelled word.
+         */
+        BAG
+    }
+
+    /**
+     * Heuristic of the search
+     */
+    private Heuristic heuristic;
+
+    /**
+     * Largest number of edits of a step
+     */
+    private int maxEdits;
+
+    /**
+     * Landmarks of the graph, null if there are none
+     */
+    private LandmarkIndex landmarks;
+
+    /**
+     * Distances from every landmark to the target of the current query
+     */
+    private int[] targetDistances;
+
+    /**
+     * Stamp of the current query in {@link #stamps} and {@link #closedStamps}
+     */
+    private int stamp;
+
+    /**
+     * Query stamp of the labelled vertices
+     */
+    private int[] stamps;
+
+    /**
+     * Query stamp of the expanded vertices
+     */
+    private int[] closedStamps;
+
+    /**
+     * Number of edges of the shortest path found so far from the source, valid if the stamp is current
+     */
+    private int[] distances;
+
+    /**
+     * Heuristic of every labelled vertex, valid if the stamp is current
+     */
+    private int[] estimates;
+
+    /**
+     * Vertices to expand, by f; a vertex can be in several buckets, only the one of its current f counts
+     */
+    private final List<IntList> buckets;
+
+    /**
+     * Number of times every char occurs in the target, for {@link Heuristic#BAG}
+     */
+    private final int[] charCounts;
+
+    /**
+     * Edit distance to the target, for {@link Heuristic#EDIT}
+     */
+    private final BoundedEditDistance kernel;
+
+    /**
+     * Number of vertices labelled by the last query
+     */
+    private int visitedCount;
+
+    /**
+     * Constructs a search with no scratch space yet
+     *
+     * @param heuristic heuristic of the search
+     */
+    public AStarSearch(Heuristic heuristic) {
+        this.heuristic = heuristic;
+        this.buckets = new ArrayList<>();
+        this.charCounts = new int[Character.MAX_VALUE + 1];
+        this.kernel = new BoundedEditDistance();
+        this.maxEdits = 1;
+        this.stamp = 0;
+    }
+
+    /**
+     * Sets the heuristic of the next queries
+     *
+     * @param heuristic the heuristic
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Gets the heuristic of the search
+     *
+     * @return the heuristic
+     */
+    public Heuristic getHeuristic() {
+        return this.heuristic;
+    }
+
+    /**
+     * Sets the largest number of edits of a step, which must be the one the graph was built with
+     *
+     * @param maxEdits number of edits, 1 by default
+     */
+    public void setMaxEdits(int maxEdits) {
+        this.maxEdits = Math.max(maxEdits, 1);
+    }
+
+    /**
+     * Sets the landmarks which tighten the heuristic and bound the search, ignored by queries on a graph with more
+     * ids than the landmarks were built for
+     *
+     * @param landmarks landmarks of the graph, null for none
+     */
+    public void setLandmarks(LandmarkIndex landmarks) {
+        this.landmarks = landmarks;
+        if (landmarks != null && (this.targetDistances == null
+                || this.targetDistances.length < landmarks.landmarkCount()))
+            this.targetDistances = new int[landmarks.landmarkCount()];
+    }
+
+    /**
+     * Gets the landmarks of the search
+     *
+     * @return the landmarks, null if there are none
+     */
+    public LandmarkIndex getLandmarks() {
+        return this.landmarks;
+    }
+
+    /**
+     * Finds the shortest path between two vertices
+     *
+     * @param graph the graph, frozen by this call
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return ids of the vertices of the path, starting with source and ending with target, null if there is no path
+     */
+    public int[] findPath(CompactGraph<String> graph, int source, int target) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int idCount = offsets.length - 1;
+        ensureCapacity(idCount);
+        if (++this.stamp == Integer.MAX_VALUE)
+            resetStamps();
+        this.visitedCount = 0;
+        String goal = graph.vertexAt(target);
+        if (this.heuristic == Heuristic.BAG) {
+            for (int i = 0; i < goal.length(); i++)
+                this.charCounts[goal.charAt(i)]++;
+        } else {
+            this.kernel.setPattern(goal);
+        }
+        LandmarkIndex landmarks = this.landmarks != null && this.landmarks.idCount() == idCount ? this.landmarks
+                : null;
+        // no vertex of f above the length of a known path can lie on a shortest path
+        int bound = Integer.MAX_VALUE;
+        if (landmarks != null) {
+            landmarks.readDistances(target, this.targetDistances);
+            int upperBound = landmarks.upperBound(source, target);
+            if (upperBound != LandmarkIndex.UNREACHABLE)
+                bound = upperBound;
+        }
+
+        int distance = -1;
+        int lastBucket = label(source, 0, estimate(landmarks, source, graph.vertexAt(source), goal));
+        for (int f = lastBucket; f < this.buckets.size() && (distance < 0 || f <= distance); f++) {
+            IntList bucket = this.buckets.get(f);
+            // vertices pushed to this bucket while it is expanded are expanded too
+            for (int i = 0; i < bucket.size(); i++) {
+                int vertex = bucket.get(i);
+                if (this.closedStamps[vertex] == this.stamp || this.distances[vertex] + this.estimates[vertex] != f)
+                    continue;
+                this.closedStamps[vertex] = this.stamp;
+                if (vertex == target) {
+                    distance = this.distances[vertex];
+                    continue;
+                }
+                int next = this.distances[vertex] + 1;
+                for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                    int neighbor = targets[j];
+                    if (this.stamps[neighbor] != this.stamp) {
+                        int estimate = estimate(landmarks, neighbor, graph.vertexAt(neighbor), goal);
+                        if (next + estimate <= bound)
+                            lastBucket = Math.max(lastBucket, label(neighbor, next, estimate));
+                    } else if (next < this.distances[neighbor])
+                        lastBucket = Math.max(lastBucket, label(neighbor, next, this.estimates[neighbor]));
+                }
+            }
+        }
+        for (int f = 0; f <= lastBucket && f < this.buckets.size(); f++)
+            this.buckets.get(f).clear();
+        if (this.heuristic == Heuristic.BAG) {
+            for (int i = 0; i < goal.length(); i++)
+                this.charCounts[goal.charAt(i)] = 0;
+        }
+        if (distance < 0)
+            return null;
+
+        // walk back from the target through the lowest id neighbour one step closer to the source: a labelled
+        // neighbour at distance i - 1 can not be any closer, and every vertex of a shortest path was expanded
+        int[] path = new int[distance + 1];
+        path[distance] = target;
+        for (int i = distance; i > 0; i--) {
+            int vertex = path[i];
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                int neighbor = targets[j];
+                if (this.stamps[neighbor] == this.stamp && this.distances[neighbor] == i - 1) {
+                    path[i - 1] = neighbor;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Gets the number of vertices labelled during the last query
+     *
+     * @return number of visited vertices
+     */
+    public int visitedCount() {
+        return this.visitedCount;
+    }
+
+    /**
+     * Labels a vertex with a distance from the source and pushes it to the bucket of its f
+     *
+     * @return the bucket
+     */
+    private int label(int vertex, int distance, int estimate) {
+        if (this.stamps[vertex] != this.stamp) {
+            this.stamps[vertex] = this.stamp;
+            this.visitedCount++;
+        }
+        this.distances[vertex] = distance;
+        this.estimates[vertex] = estimate;
+        int f = distance + estimate;
+        while (this.buckets.size() <= f)
+            this.buckets.add(new IntList());
+        this.buckets.get(f).add(vertex);
+        return f;
+    }
+
+    /**
+     * Computes the heuristic of a vertex
+     *
+     * @param landmarks landmarks of the graph, null if there are none
+     * @param vertex id of the vertex
+     * @param word word of the vertex
+     * @param goal the target word
+     * @return lower bound of the number of steps from word to goal
+     */
+    private int estimate(LandmarkIndex landmarks, int vertex, String word, String goal) {
+        int estimate = estimate(word, goal);
+        return landmarks == null ? estimate : Math.max(estimate, landmarks.lowerBound(vertex, this.targetDistances));
+    }
+
+    /**
+     * Computes the word distance of a word to the target, in steps
+     */
+    private int estimate(String word, String goal) {
+        int edits;
+        if (this.heuristic == Heuristic.BAG) {
+            int common = 0;
+            for (int i = 0; i < word.length(); i++) {
+                if (this.charCounts[word.charAt(i)]-- > 0)
+                    common++;
+            }
+            for (int i = 0; i < word.length(); i++)
+                this.charCounts[word.charAt(i)]++;
+            edits = Math.max(word.length(), goal.length()) - common;
+        } else {
+            edits = this.kernel.distance(word, Integer.MAX_VALUE);
+        }
+        return (edits + this.maxEdits - 1) / this.maxEdits;
+    }
+
+    /**
+     * Makes the scratch arrays large enough for a graph
+     *
+     * @param idCount number of ids of the graph
+     */
+    private void ensureCapacity(int idCount) {
+        if (this.stamps != null && this.stamps.length >= idCount)
+            return;
+        this.stamps = new int[idCount];
+        this.closedStamps = new int[idCount];
+        this.distances = new int[idCount];
+        this.estimates = new int[idCount];
+        this.stamp = 0;
+    }
+
+    /**
+     * Clears the stamps once the stamp counter wraps around
+     */
+    private void resetStamps() {
+        Arrays.fill(this.stamps, 0);
+        Arrays.fill(this.closedStamps, 0);
+        this.stamp = 1;
+    }
+}
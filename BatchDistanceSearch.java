@@ -0,0 +1,212 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distances of many pairs of vertices of a frozen {@link CompactGraph}, grouped by source vertex
+ *
+ * Every group runs one breadth first search from its source, which stops as soon as all the targets of the group
+ * are labelled, so a batch costs one partial traversal per distinct source however many pairs share it. The groups
+ * are split across the tasks of a {@link ForkJoinPool}; every thread of the pool allocates one set of scratch arrays
+ * per batch and reuses it for all the groups it searches, reset by bumping a stamp. The distances of a group are
+ * handed to a {@link Listener} as soon as its search is done, from the thread which ran it.
+ */
+public class BatchDistanceSearch {
+
+    /**
+     * Distance of an unreachable target
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Number of groups searched by one task
+     */
+    private static final int GROUPS_PER_TASK = 16;
+
+    /**
+     * Receives the distances of every group
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called once per group, possibly from several threads at once
+         *
+         * @param group index of the group
+         * @param distances distance to every target of the group, in order, {@link #UNREACHABLE} if there is no
+         *                  path; the array belongs to the listener
+         */
+        void groupDone(int group, int[] distances);
+    }
+
+    private BatchDistanceSearch() {
+    }
+
+    /**
+     * Searches every group and waits for all of them
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param sources id of the source vertex of every group
+     * @param groupTargets ids of the target vertices of every group, possibly repeated
+     * @param listener receives the distances of every group
+     * @param pool pool which runs the searches
+     * @return number of vertices labelled by all the searches
+     */
+    public static long search(int[] offsets, int[] targets, int[] sources, int[][] groupTargets, Listener listener,
+            ForkJoinPool pool) {
+        if (sources.length == 0)
+            return 0;
+        GroupTask task = new GroupTask(offsets, targets, sources, groupTargets, listener, new ConcurrentHashMap<>(),
+                0, sources.length);
+        pool.invoke(task);
+        return task.visited;
+    }
+
+    /**
+     * Scratch arrays of the searches of one thread
+     */
+    private static final class Scratch {
+
+        /**
+         * Stamp of the current group in {@link #stamps} and {@link #wanted}
+         */
+        private int stamp;
+
+        /**
+         * Group stamp of the vertices labelled by the search
+         */
+        private final int[] stamps;
+
+        /**
+         * Group stamp of the targets not labelled yet
+         */
+        private final int[] wanted;
+
+        /**
+         * Distance from the source, valid if the stamp is current
+         */
+        private final int[] distances;
+
+        /**
+         * Vertices labelled by the search, in order of distance
+         */
+        private final int[] queue;
+
+        private Scratch(int idCount) {
+            this.stamps = new int[idCount];
+            this.wanted = new int[idCount];
+            this.distances = new int[idCount];
+            this.queue = new int[idCount];
+        }
+    }
+
+    /**
+     * Searches a range of groups, splitting it in halves until it is small enough
+     */
+    private static class GroupTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        private final int[] sources;
+
+        private final int[][] groupTargets;
+
+        private final Listener listener;
+
+        /**
+         * Scratch arrays of every thread which ran a task of the batch
+         */
+        private final ConcurrentMap<Thread, Scratch> scratches;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * Number of vertices labelled by the searches of the task, read once it is joined
+         */
+        private long visited;
+
+        private GroupTask(int[] offsets, int[] targets, int[] sources, int[][] groupTargets, Listener listener,
+                ConcurrentMap<Thread, Scratch> scratches, int from, int to) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.sources = sources;
+            this.groupTargets = groupTargets;
+            this.listener = listener;
+            this.scratches = scratches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > GROUPS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                GroupTask left = new GroupTask(this.offsets, this.targets, this.sources, this.groupTargets,
+                        this.listener, this.scratches, this.from, middle);
+                GroupTask right = new GroupTask(this.offsets, this.targets, this.sources, this.groupTargets,
+                        this.listener, this.scratches, middle, this.to);
+                invokeAll(left, right);
+                this.visited = left.visited + right.visited;
+                return;
+            }
+            // a leaf never forks, so the scratch arrays of its thread are not in use by another task
+            Scratch scratch = this.scratches.computeIfAbsent(Thread.currentThread(),
+                    thread -> new Scratch(this.offsets.length - 1));
+            for (int group = this.from; group < this.to; group++)
+                this.listener.groupDone(group, search(scratch, this.sources[group], this.groupTargets[group]));
+        }
+
+        /**
+         * Searches from a source until all the targets are labelled or every reachable vertex is
+         *
+         * @param scratch scratch arrays of the thread
+         * @param source id of the source
+         * @param targetIds ids of the targets
+         * @return distance to every target
+         */
+        private int[] search(Scratch scratch, int source, int[] targetIds) {
+            int stamp = ++scratch.stamp;
+            int remaining = 0;
+            for (int target : targetIds) {
+                if (scratch.wanted[target] != stamp) {
+                    scratch.wanted[target] = stamp;
+                    remaining++;
+                }
+            }
+            scratch.stamps[source] = stamp;
+            scratch.distances[source] = 0;
+            if (scratch.wanted[source] == stamp)
+                remaining--;
+            int head = 0;
+            int tail = 0;
+            scratch.queue[tail++] = source;
+            while (head < tail && remaining > 0) {
+                int vertex = scratch.queue[head++];
+                int distance = scratch.distances[vertex] + 1;
+                for (int i = this.offsets[vertex]; i < this.offsets[vertex + 1]; i++) {
+                    int neighbor = this.targets[i];
+                    if (scratch.stamps[neighbor] == stamp)
+                        continue;
+                    scratch.stamps[neighbor] = stamp;
+                    scratch.distances[neighbor] = distance;
+                    scratch.queue[tail++] = neighbor;
+                    if (scratch.wanted[neighbor] == stamp)
+                        remaining--;
+                }
+            }
+            this.visited += tail;
+            int[] result = new int[targetIds.length];
+            for (int i = 0; i < targetIds.length; i++)
+                result[i] = scratch.stamps[targetIds[i]] == stamp ? scratch.distances[targetIds[i]] : UNREACHABLE;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.Arrays;
+
+/**
+ * Breadth first search from both ends of a single pair query on a frozen {@link CompactGraph}
+ *
+ * The search alternately expands one full layer of the forward search (from the source) or of the backward search
+ * (from the target), always the one with the smaller frontier, and stops after the layer in which the two searches
+ * meet. If the forward search has then settled every vertex up to distance A and the backward search up to
+ * distance B, the distance is A + B.
+ *
+ * The path is the same as the one of {@link ShortestPathTree}: walking back from the target, every vertex is
+ * preceded by its lowest id neighbour one step closer to the source. Those neighbours lie within distance A of the
+ * source, or on a shortest path inside the backward search; the latter get their forward distance from a sweep
+ * forward along the shortest paths from the last forward layer, so no vertex beyond the two searches is visited.
+ *
+ * Scratch arrays are reused between queries and reset by bumping a stamp, so a query only costs what it visits.
+ * Not safe for concurrent use.
+ */
+public class BidirectionalSearch {
+
+    /**
+     * Stamp of the current query in {@link #forwardStamps} and {@link #backwardStamps}
+     */
+    private int stamp;
+
+    /**
+     * Query stamp of the vertices labelled by the forward search
+     */
+    private int[] forwardStamps;
+
+    /**
+     * Distance from the source, valid if the forward stamp is current
+     */
+    private int[] forwardDistances;
+
+    /**
+     * Query stamp of the vertices labelled by the backward search
+     */
+    private int[] backwardStamps;
+
+    /**
+     * Distance from the target, valid if the backward stamp is current
+     */
+    private int[] backwardDistances;
+
+    /**
+     * Vertices labelled by the forward search, in order of distance
+     */
+    private int[] forwardQueue;
+
+    /**
+     * Vertices labelled by the backward search, in order of distance
+     */
+    private int[] backwardQueue;
+
+    /**
+     * Number of vertices labelled by the last query
+     */
+    private int visitedCount;
+
+    /**
+     * Constructs a search with no scratch space yet
+     */
+    public BidirectionalSearch() {
+        this.stamp = 0;
+        ensureCapacity(0);
+    }
+
+    /**
+     * Finds the shortest path between two vertices
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return ids of the vertices of the path, starting with source and ending with target, null if there is no path
+     */
+    public int[] findPath(int[] offsets, int[] targets, int source, int target) {
+        ensureCapacity(offsets.length - 1);
+        if (++this.stamp == Integer.MAX_VALUE)
+            resetStamps();
+        this.forwardStamps[source] = this.stamp;
+        this.forwardDistances[source] = 0;
+        this.forwardQueue[0] = source;
+        this.backwardStamps[target] = this.stamp;
+        this.backwardDistances[target] = 0;
+        this.backwardQueue[0] = target;
+        this.visitedCount = source == target ? 1 : 2;
+        if (source == target)
+            return new int[] { source };
+
+        // [start, end) of the last layer of each search in its queue
+        int forwardStart = 0;
+        int forwardEnd = 1;
+        int backwardStart = 0;
+        int backwardEnd = 1;
+        int forwardDepth = 0;
+        int backwardDepth = 0;
+        boolean met = false;
+        while (!met) {
+            if (forwardStart == forwardEnd || backwardStart == backwardEnd)
+                return null;
+            if (forwardEnd - forwardStart <= backwardEnd - backwardStart) {
+                int end = expand(offsets, targets, this.forwardQueue, forwardStart, forwardEnd, this.forwardStamps,
+                        this.forwardDistances, this.backwardStamps);
+                met = end < 0;
+                forwardStart = forwardEnd;
+                forwardEnd = Math.abs(end);
+                forwardDepth++;
+            } else {
+                int end = expand(offsets, targets, this.backwardQueue, backwardStart, backwardEnd, this.backwardStamps,
+                        this.backwardDistances, this.forwardStamps);
+                met = end < 0;
+                backwardStart = backwardEnd;
+                backwardEnd = Math.abs(end);
+                backwardDepth++;
+            }
+        }
+        int distance = forwardDepth + backwardDepth;
+
+        // sweep forward along the shortest paths inside the backward search, labelling their forward distance
+        int[] layer = this.forwardQueue;
+        int layerStart = forwardEnd;
+        int layerEnd = forwardEnd;
+        for (int i = forwardStart; i < forwardEnd; i++) {
+            int vertex = layer[i];
+            if (this.backwardStamps[vertex] == this.stamp && this.backwardDistances[vertex] == backwardDepth)
+                layer[layerEnd++] = vertex;
+        }
+        for (int level = forwardDepth + 1; level <= distance; level++) {
+            int nextEnd = layerEnd;
+            for (int i = layerStart; i < layerEnd; i++) {
+                int vertex = layer[i];
+                for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                    int neighbor = targets[j];
+                    if (this.backwardStamps[neighbor] == this.stamp
+                            && this.backwardDistances[neighbor] == distance - level
+                            && this.forwardStamps[neighbor] != this.stamp) {
+                        this.forwardStamps[neighbor] = this.stamp;
+                        this.forwardDistances[neighbor] = level;
+                        layer[nextEnd++] = neighbor;
+                    }
+                }
+            }
+            layerStart = layerEnd;
+            layerEnd = nextEnd;
+        }
+
+        // walk back from the target through the lowest id neighbour one step closer to the source
+        int[] path = new int[distance + 1];
+        path[distance] = target;
+        for (int i = distance; i > 0; i--) {
+            int vertex = path[i];
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                int neighbor = targets[j];
+                if (this.forwardStamps[neighbor] == this.stamp && this.forwardDistances[neighbor] == i - 1) {
+                    path[i - 1] = neighbor;
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Gets the number of vertices labelled by either search during the last query
+     *
+     * @return number of visited vertices
+     */
+    public int visitedCount() {
+        return this.visitedCount;
+    }
+
+    /**
+     * Expands one full layer of a search
+     *
+     * @param offsets offsets of the compressed rows
+     * @param targets neighbours of the compressed rows
+     * @param queue queue of the search
+     * @param start start of the layer in the queue
+     * @param end end of the layer in the queue
+     * @param stamps stamps of the search
+     * @param distances distances of the search
+     * @param otherStamps stamps of the other search
+     * @return end of the next layer in the queue, negated if the next layer meets the other search
+     */
+    private int expand(int[] offsets, int[] targets, int[] queue, int start, int end, int[] stamps, int[] distances,
+            int[] otherStamps) {
+        boolean met = false;
+        int next = end;
+        for (int i = start; i < end; i++) {
+            int vertex = queue[i];
+            int distance = distances[vertex] + 1;
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                int neighbor = targets[j];
+                if (stamps[neighbor] == this.stamp)
+                    continue;
+                stamps[neighbor] = this.stamp;
+                distances[neighbor] = distance;
+                queue[next++] = neighbor;
+                met |= otherStamps[neighbor] == this.stamp;
+            }
+        }
+        this.visitedCount += next - end;
+        return met ? -next : next;
+    }
+
+    /**
+     * Makes the scratch arrays large enough for a graph
+     *
+     * @param idCount number of ids of the graph
+     */
+    private void ensureCapacity(int idCount) {
+        if (this.forwardStamps != null && this.forwardStamps.length >= idCount)
+            return;
+        // the forward queue also holds the sweep, which labels at most every vertex once more
+        this.forwardStamps = new int[idCount];
+        this.forwardDistances = new int[idCount];
+        this.backwardStamps = new int[idCount];
+        this.backwardDistances = new int[idCount];
+        this.forwardQueue = new int[idCount * 2];
+        this.backwardQueue = new int[idCount];
+        this.stamp = 0;
+    }
+
+    /**
+     * Clears the stamps once the stamp counter wraps around
+     */
+    private void resetStamps() {
+        Arrays.fill(this.forwardStamps, 0);
+        Arrays.fill(this.backwardStamps, 0);
+        this.stamp = 1;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+
+/**
+ * Edit distance of many words to one pattern word, bounded by a number of edits
+ *
+ * Patterns of up to 64 chars run the bit-parallel algorithm of Myers, as formulated by Hyyro for the edit distance
+ * of whole words: a column of the dynamic programming table is held as two 64 bit vectors of its vertical +1 and -1
+ * deltas, and every char of the other word advances the column in about 15 word operations instead of one per
+ * cell. The distance is the last cell of the column, which moves by at most 1 per remaining char, so the computation
+ * stops as soon as it can no longer end within the bound, and at once if the lengths differ by more than the bound.
+ * Longer patterns fall back to the table, one row at a time, stopping once a whole row is over the bound.
+ *
+ * The match masks of the pattern are computed once by {@link #setPattern(String)}, in a table indexed by ASCII
+ * chars and a short list of the other chars. Nothing is allocated per comparison. Not safe for concurrent use.
+ */
+public class BoundedEditDistance {
+
+    /**
+     * Longest pattern of the bit-parallel algorithm, one bit per char
+     */
+    public static final int MAX_BIT_PARALLEL_LENGTH = 64;
+
+    /**
+     * Number of chars of the mask table
+     */
+    private static final int ASCII = 128;
+
+    /**
+     * Positions of every ASCII char in the pattern, one bit per position
+     */
+    private final long[] asciiMasks;
+
+    /**
+     * Non ASCII chars of the pattern, and their positions in {@link #otherMasks}
+     */
+    private char[] otherChars;
+
+    private long[] otherMasks;
+
+    private int otherCount;
+
+    /**
+     * The pattern
+     */
+    private String pattern;
+
+    /**
+     * Rows of the table, for patterns longer than {@link #MAX_BIT_PARALLEL_LENGTH}
+     */
+    private int[] previousRow;
+
+    private int[] currentRow;
+
+    /**
+     * Constructs a kernel with the empty pattern
+     */
+    public BoundedEditDistance() {
+        this.asciiMasks = new long[ASCII];
+        this.otherChars = new char[4];
+        this.otherMasks = new long[4];
+        this.previousRow = new int[16];
+        this.currentRow = new int[16];
+        this.pattern = "";
+    }
+
+    /**
+     * Sets the word compared by the next calls to {@link #distance(String, int)}
+     *
+     * @param pattern the word
+     */
+    public void setPattern(String pattern) {
+        for (int i = 0; i < this.pattern.length() && i < MAX_BIT_PARALLEL_LENGTH; i++) {
+            char c = this.pattern.charAt(i);
+            if (c < ASCII)
+                this.asciiMasks[c] = 0;
+        }
+        this.otherCount = 0;
+        this.pattern = pattern;
+        if (pattern.length() > MAX_BIT_PARALLEL_LENGTH)
+            return;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c < ASCII) {
+                this.asciiMasks[c] |= 1L << i;
+                continue;
+            }
+            int other = 0;
+            while (other < this.otherCount && this.otherChars[other] != c)
+                other++;
+            if (other == this.otherCount) {
+                if (other == this.otherChars.length) {
+                    this.otherChars = Arrays.copyOf(this.otherChars, other * 2);
+                    this.otherMasks = Arrays.copyOf(this.otherMasks, other * 2);
+                }
+                this.otherChars[other] = c;
+                this.otherMasks[other] = 0;
+                this.otherCount++;
+            }
+            this.otherMasks[other] |= 1L << i;
+        }
+    }
+
+    /**
+     * Gets the pattern
+     *
+     * @return the word compared by {@link #distance(String, int)}
+     */
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Computes the edit distance between the pattern and a word, counting every replacement, insertion and deletion
+     * of a char as one edit, if it is at most a bound
+     *
+     * @param word the word
+     * @param maxEdits the bound, at least 0
+     * @return the distance if at most maxEdits, else maxEdits + 1
+     */
+    public int distance(String word, int maxEdits) {
+        int length1 = this.pattern.length();
+        int length2 = word.length();
+        int over = maxEdits == Integer.MAX_VALUE ? maxEdits : maxEdits + 1;
+        if (Math.abs(length1 - length2) > maxEdits)
+            return over;
+        if (length1 == 0)
+            return length2;
+        if (length1 > MAX_BIT_PARALLEL_LENGTH)
+            return tableDistance(word, maxEdits, over);
+
+        long last = 1L << (length1 - 1);
+        long positive = -1L;
+        long negative = 0;
+        int score = length1;
+        for (int j = 0; j < length2; j++) {
+            long match = mask(word.charAt(j));
+            long vertical = match | negative;
+            long horizontal = (((match & positive) + positive) ^ positive) | match;
+            long horizontalPositive = negative | ~(horizontal | positive);
+            long horizontalNegative = positive & horizontal;
+            if ((horizontalPositive & last) != 0)
+                score++;
+            else if ((horizontalNegative & last) != 0)
+                score--;
+            // the first row of the table is the number of chars of word read so far, which grows by 1 every char
+            horizontalPositive = (horizontalPositive << 1) | 1;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(vertical | horizontalPositive);
+            negative = horizontalPositive & vertical;
+            if (score - (length2 - j - 1) > maxEdits)
+                return over;
+        }
+        return score <= maxEdits ? score : over;
+    }
+
+    /**
+     * Gets the positions of a char in the pattern
+     */
+    private long mask(char c) {
+        if (c < ASCII)
+            return this.asciiMasks[c];
+        for (int other = 0; other < this.otherCount; other++) {
+            if (this.otherChars[other] == c)
+                return this.otherMasks[other];
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the bounded distance with two rows of the table
+     */
+    private int tableDistance(String word, int maxEdits, int over) {
+        int length2 = word.length();
+        if (this.previousRow.length <= length2) {
+            this.previousRow = new int[length2 + 1];
+            this.currentRow = new int[length2 + 1];
+        }
+        int[] previous = this.previousRow;
+        int[] current = this.currentRow;
+        for (int j = 0; j <= length2; j++)
+            previous[j] = j;
+        for (int i = 1; i <= this.pattern.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char c = this.pattern.charAt(i - 1);
+            for (int j = 1; j <= length2; j++) {
+                int replace = previous[j - 1] + (c == word.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // every path to the last cell crosses this row
+            if (rowMin > maxEdits)
+                return over;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[length2] <= maxEdits ? previous[length2] : over;
+    }
+}
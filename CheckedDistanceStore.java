@@ -0,0 +1,121 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read only {@link DistanceStore} over the rows of a {@link GraphSnapshot}, which checks every row against its CRC32
+ * the first time it is read instead of checking the whole matrix when the snapshot is loaded
+ *
+ * A row whose checksum does not match is searched again by a breadth first search over the graph of the snapshot
+ * and kept on the heap, so a corrupt row costs one search and never a wrong distance. Rows may be checked by several
+ * threads at once: a row checked twice gives the same result.
+ */
+public class CheckedDistanceStore implements DistanceStore {
+
+    /**
+     * State of a row whose checksum matched
+     */
+    private static final int[] CHECKED = new int[0];
+
+    /**
+     * The mapped rows
+     */
+    private final MappedDistanceStore rows;
+
+    /**
+     * CRC32 of the bytes of every row
+     */
+    private final int[] checksums;
+
+    /**
+     * Offsets and neighbours of the compressed rows of the graph, to search corrupt rows again
+     */
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    /**
+     * State of every row: null until checked, {@link #CHECKED} if its checksum matched, else its distances
+     * searched again
+     */
+    private final AtomicReferenceArray<int[]> states;
+
+    /**
+     * Constructs a store over mapped rows
+     *
+     * @param rows the mapped rows
+     * @param checksums CRC32 of the bytes of every row
+     * @param offsets offsets of the compressed rows of the graph of the distances
+     * @param targets neighbours of the compressed rows of the graph of the distances
+     */
+    public CheckedDistanceStore(MappedDistanceStore rows, int[] checksums, int[] offsets, int[] targets) {
+        this.rows = rows;
+        this.checksums = checksums;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.states = new AtomicReferenceArray<>(rows.idCount());
+    }
+
+    @Override
+    public int idCount() {
+        return this.rows.idCount();
+    }
+
+    @Override
+    public int width() {
+        return this.rows.width();
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return this.rows.sizeInBytes();
+    }
+
+    @Override
+    public int distance(int source, int target) {
+        int[] state = check(source);
+        return state == CHECKED ? this.rows.distance(source, target) : state[target];
+    }
+
+    @Override
+    public void readRow(int source, int[] row) {
+        int[] state = check(source);
+        if (state == CHECKED)
+            this.rows.readRow(source, row);
+        else
+            System.arraycopy(state, 0, row, 0, state.length);
+    }
+
+    /**
+     * Checks a row if it was not checked yet
+     *
+     * @param source the row
+     * @return {@link #CHECKED} if the mapped row is valid, else the distances of the row
+     */
+    private int[] check(int source) {
+        int[] state = this.states.get(source);
+        if (state != null)
+            return state;
+        if (this.rows.checksum(source) == this.checksums[source]) {
+            state = CHECKED;
+        } else {
+            state = new int[idCount()];
+            Arrays.fill(state, UNREACHABLE);
+            int[] queue = new int[idCount()];
+            int head = 0;
+            int tail = 0;
+            state[source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int vertex = queue[head++];
+                for (int i = this.offsets[vertex]; i < this.offsets[vertex + 1]; i++) {
+                    if (state[this.targets[i]] == UNREACHABLE) {
+                        state[this.targets[i]] = state[vertex] + 1;
+                        queue[tail++] = this.targets[i];
+                    }
+                }
+            }
+        }
+        this.states.set(source, state);
+        return state;
+    }
+}
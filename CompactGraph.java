@@ -0,0 +1,469 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Undirected and unweighted graph implementation which stores edges as primitive ints
+ *
+ * Every vertex is interned to an int id, in the order the vertices are added; ids of removed vertices are not reused.
+ * The graph has two phases:
+ *  - while it is being built, every vertex has an {@link IntAdjacencySet} of neighbour ids: a sorted int array,
+ *    or an open addressing int hash table for vertices of high degree. Adding, removing and finding an edge
+ *    neither boxes nor allocates.
+ *  - {@link #freeze()} packs the adjacency into compressed sparse row arrays: the neighbours of vertex id are
+ *    {@code targets[offsets[id]]} to {@code targets[offsets[id + 1] - 1]}, sorted by id. That is 4 bytes per
+ *    neighbour and no object per edge.
+ * A mutation of a frozen graph only unpacks the rows it changes, into adjacency sets next to the packed arrays, and
+ * the next {@link #freeze()} merges them back by copying the unchanged rows in bulk, into new arrays so that the
+ * previous ones stay valid. A few words added between two queries therefore cost one copy of the arrays per query,
+ * not a set per vertex, and the {@link GraphADT} contract holds in every phase.
+ * Every mutation also bumps {@link #version()}, so that data derived from the graph can tell it is stale.
+ *
+ * {@link #getNeighbors(Object)} and {@link #getAllVertices()} return views over the arrays instead of copies.
+ * Like the views of java.util collections, they should not be used after the graph is modified.
+ *
+ * @param <E> type of a vertex
+ */
+public class CompactGraph<E> implements GraphADT<E> {
+
+    /**
+     * Ids of the vertices
+     */
+    private HashMap<E, Integer> ids;
+
+    /**
+     * Vertices indexed by id, null for removed vertices
+     */
+    private Object[] vertices;
+
+    /**
+     * Number of ids handed out so far
+     */
+    private int idCount;
+
+    /**
+     * Number of vertices in the graph
+     */
+    private int vertexCount;
+
+    /**
+     * Neighbour ids of every vertex while the graph is first built, then of the vertices whose row changed since
+     * the graph was packed, the others being null; null once frozen
+     */
+    private IntAdjacencySet[] neighbors;
+
+    /**
+     * Start of the neighbours of every vertex in {@link #targets}, null until first frozen, stale for the rows of
+     * {@link #neighbors}
+     */
+    private int[] offsets;
+
+    /**
+     * Neighbour ids of all the vertices, null until first frozen, stale for the rows of {@link #neighbors}
+     */
+    private int[] targets;
+
+    /**
+     * Number of mutations so far
+     */
+    private long version;
+
+    /**
+     * Constructs an empty graph
+     */
+    public CompactGraph() {
+        this.ids = new HashMap<>();
+        this.vertices = new Object[16];
+        this.idCount = 0;
+        this.vertexCount = 0;
+        this.neighbors = new IntAdjacencySet[16];
+    }
+
+    /**
+     * Constructs a frozen graph from its compressed sparse row arrays, see {@link #offsets()} and {@link #targets()}
+     *
+     * @param vertices vertices indexed by id, null for removed vertices
+     * @param offsets the offsets array, not copied
+     * @param targets the targets array, not copied, with every row sorted by id
+     * @param <E> type of a vertex
+     * @return the graph
+     */
+    public static <E> CompactGraph<E> frozen(E[] vertices, int[] offsets, int[] targets) {
+        CompactGraph<E> graph = new CompactGraph<>();
+        graph.ids = new HashMap<>(Math.max(vertices.length * 4 / 3 + 1, 16));
+        graph.vertices = Arrays.copyOf(vertices, Math.max(vertices.length, 16), Object[].class);
+        graph.idCount = vertices.length;
+        for (int id = 0; id < vertices.length; id++) {
+            if (vertices[id] != null) {
+                graph.ids.put(vertices[id], id);
+                graph.vertexCount++;
+            }
+        }
+        graph.neighbors = null;
+        graph.offsets = offsets;
+        graph.targets = targets;
+        return graph;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E addVertex(E vertex) {
+        if (vertex == null || this.ids.containsKey(vertex))
+            return null;
+        if (this.idCount == this.vertices.length) {
+            int capacity = this.idCount * 2;
+            this.vertices = Arrays.copyOf(this.vertices, capacity);
+            if (this.neighbors != null)
+                this.neighbors = Arrays.copyOf(this.neighbors, capacity);
+        }
+        int id = this.idCount++;
+        this.vertices[id] = vertex;
+        mutableRow(id);
+        this.ids.put(vertex, id);
+        this.vertexCount++;
+        this.version++;
+        return vertex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E removeVertex(E vertex) {
+        int id = idOf(vertex);
+        if (id < 0)
+            return null;
+        IntAdjacencySet removed = mutableRow(id);
+        for (int slot = 0; slot < removed.slotCount(); slot++) {
+            int neighbor = removed.slot(slot);
+            if (neighbor >= 0)
+                mutableRow(neighbor).remove(id);
+        }
+        // an unchanged row of a packed graph is read from the arrays, so a removed one is kept as an empty set
+        this.neighbors[id] = this.offsets == null ? null : new IntAdjacencySet();
+        this.vertices[id] = null;
+        this.ids.remove(vertex);
+        this.vertexCount--;
+        this.version++;
+        return vertex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(E vertex1, E vertex2) {
+        int id1 = idOf(vertex1);
+        int id2 = idOf(vertex2);
+        if (id1 < 0 || id2 < 0 || id1 == id2 || containsEdge(id1, id2))
+            return false;
+        mutableRow(id1).add(id2);
+        mutableRow(id2).add(id1);
+        this.version++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeEdge(E vertex1, E vertex2) {
+        int id1 = idOf(vertex1);
+        int id2 = idOf(vertex2);
+        if (id1 < 0 || id2 < 0 || id1 == id2 || !containsEdge(id1, id2))
+            return false;
+        mutableRow(id1).remove(id2);
+        mutableRow(id2).remove(id1);
+        this.version++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAdjacent(E vertex1, E vertex2) {
+        int id1 = idOf(vertex1);
+        int id2 = idOf(vertex2);
+        if (id1 < 0 || id2 < 0 || id1 == id2)
+            return false;
+        return containsEdge(id1, id2);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getNeighbors(E vertex) {
+        int id = idOf(vertex);
+        if (id < 0)
+            return new IdView(new int[0], 0, 0);
+        IntAdjacencySet neighbors = this.neighbors == null ? null : this.neighbors[id];
+        if (neighbors == null)
+            return new IdView(this.targets, this.offsets[id], this.offsets[id + 1]);
+        return () -> new Iterator<E>() {
+
+            private int next = skipUnused(0);
+
+            private int skipUnused(int slot) {
+                while (slot < neighbors.slotCount() && neighbors.slot(slot) < 0)
+                    slot++;
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < neighbors.slotCount();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                E neighbor = vertexAt(neighbors.slot(this.next));
+                this.next = skipUnused(this.next + 1);
+                return neighbor;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterable<E> getAllVertices() {
+        Object[] vertices = this.vertices;
+        int idCount = this.idCount;
+        return () -> new Iterator<E>() {
+
+            private int next = skipRemoved(0);
+
+            private int skipRemoved(int id) {
+                while (id < idCount && vertices[id] == null)
+                    id++;
+                return id;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < idCount;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                E vertex = (E) vertices[this.next];
+                this.next = skipRemoved(this.next + 1);
+                return vertex;
+            }
+        };
+    }
+
+    /**
+     * Packs the adjacency into compressed sparse row arrays, see {@link #offsets()} and {@link #targets()}.
+     * Does nothing if the graph is already frozen.
+     *
+     * Once the graph was packed, only the rows changed since are copied from their adjacency sets; the runs of
+     * unchanged rows between them are copied from the previous arrays with one {@link System#arraycopy} each.
+     */
+    public void freeze() {
+        if (this.neighbors == null)
+            return;
+        int packedCount = this.offsets == null ? 0 : this.offsets.length - 1;
+        int[] offsets = new int[this.idCount + 1];
+        for (int id = 0; id < this.idCount; id++) {
+            IntAdjacencySet row = this.neighbors[id];
+            int size = row != null ? row.size() : id < packedCount ? this.offsets[id + 1] - this.offsets[id] : 0;
+            offsets[id + 1] = offsets[id] + size;
+        }
+        int[] targets = new int[offsets[this.idCount]];
+        // first packed row not copied yet
+        int unchanged = 0;
+        for (int id = 0; id < this.idCount; id++) {
+            IntAdjacencySet row = this.neighbors[id];
+            if (row == null)
+                continue;
+            copyPackedRows(unchanged, id, offsets, targets);
+            row.copySortedTo(targets, offsets[id]);
+            unchanged = id + 1;
+        }
+        copyPackedRows(unchanged, this.idCount, offsets, targets);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.neighbors = null;
+    }
+
+    /**
+     * Gets the number of vertices and edges added or removed so far, which changes with every mutation of the graph
+     * and only then; freezing the graph is not a mutation
+     *
+     * @return the version
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * Checks whether the graph is frozen
+     *
+     * @return true if the adjacency is packed into compressed sparse row arrays
+     */
+    public boolean isFrozen() {
+        return this.neighbors == null;
+    }
+
+    /**
+     * Gets the id of a vertex
+     *
+     * @param vertex the vertex
+     * @return id of the vertex, -1 if the vertex is null or not in the graph
+     */
+    public int idOf(E vertex) {
+        if (vertex == null)
+            return -1;
+        Integer id = this.ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the vertex of an id
+     *
+     * @param id the id
+     * @return the vertex, null if the vertex was removed
+     */
+    @SuppressWarnings("unchecked")
+    public E vertexAt(int id) {
+        return (E) this.vertices[id];
+    }
+
+    /**
+     * Gets the number of ids handed out so far, every id is less than this
+     *
+     * @return number of ids
+     */
+    public int idCount() {
+        return this.idCount;
+    }
+
+    /**
+     * Gets the number of vertices in the graph
+     *
+     * @return number of vertices
+     */
+    public int vertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Gets the start of the neighbours of every id in {@link #targets()}, with one more trailing entry
+     * for the end of the last id. Freezes the graph. The array must not be modified.
+     *
+     * @return the offsets array
+     */
+    public int[] offsets() {
+        freeze();
+        return this.offsets;
+    }
+
+    /**
+     * Gets the neighbour ids of all the vertices, see {@link #offsets()}.
+     * Freezes the graph. The array must not be modified.
+     *
+     * @return the targets array
+     */
+    public int[] targets() {
+        freeze();
+        return this.targets;
+    }
+
+    /**
+     * Checks whether two vertices are adjacent
+     *
+     * @param id1 id of a vertex in the graph
+     * @param id2 id of another vertex
+     * @return true if there is an edge between them
+     */
+    private boolean containsEdge(int id1, int id2) {
+        IntAdjacencySet row = this.neighbors == null ? null : this.neighbors[id1];
+        if (row != null)
+            return row.contains(id2);
+        return Arrays.binarySearch(this.targets, this.offsets[id1], this.offsets[id1 + 1], id2) >= 0;
+    }
+
+    /**
+     * Gets the neighbours of a vertex to modify them, unpacking its row if the graph was packed
+     *
+     * @param id id of a vertex in the graph
+     * @return the neighbour ids of the vertex
+     */
+    private IntAdjacencySet mutableRow(int id) {
+        if (this.neighbors == null)
+            this.neighbors = new IntAdjacencySet[this.vertices.length];
+        IntAdjacencySet row = this.neighbors[id];
+        if (row == null) {
+            row = this.offsets != null && id < this.offsets.length - 1
+                    ? new IntAdjacencySet(this.targets, this.offsets[id], this.offsets[id + 1])
+                    : new IntAdjacencySet();
+            this.neighbors[id] = row;
+        }
+        return row;
+    }
+
+    /**
+     * Copies a run of rows which did not change since the graph was packed
+     *
+     * @param from id of the first row
+     * @param to id after the last row
+     * @param offsets offsets of the new arrays
+     * @param targets targets of the new arrays
+     */
+    private void copyPackedRows(int from, int to, int[] offsets, int[] targets) {
+        to = Math.min(to, this.offsets == null ? 0 : this.offsets.length - 1);
+        if (from < to)
+            System.arraycopy(this.targets, this.offsets[from], targets, offsets[from],
+                    this.offsets[to] - this.offsets[from]);
+    }
+
+    /**
+     * View of a range of an id array as vertices
+     */
+    private class IdView implements Iterable<E> {
+
+        private final int[] ids;
+
+        private final int from;
+
+        private final int to;
+
+        private IdView(int[] ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+
+                private int next = IdView.this.from;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < IdView.this.to;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return vertexAt(IdView.this.ids[this.next++]);
+                }
+            };
+        }
+    }
+}
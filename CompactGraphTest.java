@@ -0,0 +1,158 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see CompactGraph, runs all the tests of @see GraphTest
+ * and checks that the graph behaves the same once frozen
+ */
+public class CompactGraphTest extends GraphTest {
+
+	@Override
+	protected GraphADT<String> createGraph() {
+		return new CompactGraph<>();
+	}
+
+	@Test
+	public final void frozenGraphShouldKeepVerticesAndEdges() {
+		CompactGraph<String> graph = new CompactGraph<>();
+		graph.addVertex("cat");
+		graph.addVertex("hat");
+		graph.addVertex("heat");
+		graph.addVertex("wheat");
+		graph.addEdge("heat", "hat");
+		graph.addEdge("cat", "hat");
+		graph.addEdge("heat", "wheat");
+		graph.freeze();
+
+		assertEquals("graph is frozen", true, graph.isFrozen());
+		assertEquals("vertices of the frozen graph", listOf("cat", "hat", "heat", "wheat"),
+				toList(graph.getAllVertices()));
+		assertEquals("neighbors are sorted by id", listOf("cat", "heat"), toList(graph.getNeighbors("hat")));
+		assertEquals("neighbors of a vertex with one edge", listOf("heat"), toList(graph.getNeighbors("wheat")));
+		assertEquals("neighbors of a missing vertex", listOf(), toList(graph.getNeighbors("rat")));
+		assertEquals("adjacent vertices", true, graph.isAdjacent("wheat", "heat"));
+		assertEquals("disconnected vertices", false, graph.isAdjacent("cat", "heat"));
+		assertEquals("offsets of the compressed rows", 5, graph.offsets().length);
+		assertEquals("targets of the compressed rows", 6, graph.targets().length);
+	}
+
+	@Test
+	public final void frozenGraphShouldThawOnMutation() {
+		CompactGraph<String> graph = new CompactGraph<>();
+		graph.addVertex("cat");
+		graph.addVertex("hat");
+		graph.addVertex("heat");
+		graph.addEdge("cat", "hat");
+		graph.freeze();
+
+		assertEquals("duplicate edge added to a frozen graph", false, graph.addEdge("hat", "cat"));
+		assertEquals("edge added to a frozen graph", true, graph.addEdge("hat", "heat"));
+		assertEquals("graph is frozen", false, graph.isFrozen());
+		graph.freeze();
+		assertEquals("vertex removed from a frozen graph", "hat", graph.removeVertex("hat"));
+		assertEquals("neighbors of the removed vertex's neighbor", listOf(), toList(graph.getNeighbors("cat")));
+		assertEquals("vertex added to a frozen graph", "neat", graph.addVertex("neat"));
+		assertEquals("edge added to a new vertex", true, graph.addEdge("heat", "neat"));
+		graph.freeze();
+		assertEquals("vertices after thawing", listOf("cat", "heat", "neat"), toList(graph.getAllVertices()));
+		assertEquals("neighbors after thawing", listOf("neat"), toList(graph.getNeighbors("heat")));
+		assertEquals("id of a removed vertex", -1, graph.idOf("hat"));
+		assertEquals("ids are not reused", 3, graph.idOf("neat"));
+	}
+
+	@Test
+	public final void highDegreeVertexShouldKeepTheGraphADTContract() {
+		// enough neighbors to move the adjacency set from a sorted array to a hash table and back
+		CompactGraph<String> graph = new CompactGraph<>();
+		graph.addVertex("hub");
+		for (int i = 0; i < 200; i++) {
+			graph.addVertex("v" + i);
+			assertEquals("return value if edge added", true, graph.addEdge("hub", "v" + i));
+		}
+		assertEquals("return value if duplicate edge added", false, graph.addEdge("v7", "hub"));
+		for (int i = 0; i < 200; i += 2)
+			assertEquals("return value if edge removed", true, graph.removeEdge("v" + i, "hub"));
+		assertEquals("return value if missing edge removed", false, graph.removeEdge("hub", "v0"));
+		assertEquals("removed vertex", "v1", graph.removeVertex("v1"));
+
+		List<String> expected = new ArrayList<>();
+		for (int i = 3; i < 200; i += 2)
+			expected.add("v" + i);
+		assertEquals("adjacent vertices", true, graph.isAdjacent("hub", "v199"));
+		assertEquals("vertices with a removed edge", false, graph.isAdjacent("hub", "v198"));
+		List<String> neighbors = toList(graph.getNeighbors("hub"));
+		neighbors.sort(null);
+		expected.sort(null);
+		assertEquals("neighbors of a vertex of high degree", expected, neighbors);
+		graph.freeze();
+		neighbors = toList(graph.getNeighbors("hub"));
+		neighbors.sort(null);
+		assertEquals("neighbors of a frozen vertex of high degree", expected, neighbors);
+
+		for (int i = 3; i < 190; i += 2)
+			graph.removeEdge("hub", "v" + i);
+		assertEquals("neighbors once the degree is low again", listOf("v191", "v193", "v195", "v197", "v199"),
+				toList(graph.getNeighbors("hub")));
+	}
+
+	@Test
+	public final void frozenGraphShouldOnlyUnpackChangedRows() {
+		// the same operations on a graph frozen halfway and on a graph only frozen at the end
+		CompactGraph<String> patched = new CompactGraph<>();
+		CompactGraph<String> built = new CompactGraph<>();
+		for (CompactGraph<String> graph : Arrays.asList(patched, built)) {
+			for (int i = 0; i < 100; i++)
+				graph.addVertex("v" + i);
+			for (int i = 0; i < 100; i++)
+				graph.addEdge("v" + i, "v" + (i * 7 % 100));
+		}
+		patched.freeze();
+		int[] offsets = patched.offsets().clone();
+		int[] targets = patched.targets().clone();
+		int[] packedOffsets = patched.offsets();
+		int[] packedTargets = patched.targets();
+
+		for (CompactGraph<String> graph : Arrays.asList(patched, built)) {
+			for (int i = 100; i < 120; i++)
+				graph.addVertex("v" + i);
+			for (int i = 100; i < 120; i++)
+				graph.addEdge("v0", "v" + i);
+			graph.removeEdge("v3", "v21");
+			graph.removeVertex("v10");
+		}
+		assertEquals("graph is frozen", false, patched.isFrozen());
+		assertEquals("adjacent vertices of a changed row", true, patched.isAdjacent("v119", "v0"));
+		assertEquals("adjacent vertices of an unchanged row", true, patched.isAdjacent("v4", "v28"));
+		assertEquals("vertices with a removed edge", false, patched.isAdjacent("v21", "v3"));
+		assertEquals("neighbors of an unchanged row", listOf("v14", "v86"), toList(patched.getNeighbors("v2")));
+		assertEquals("neighbors of the removed vertex's neighbor", listOf("v90"), toList(patched.getNeighbors("v30")));
+
+		patched.freeze();
+		built.freeze();
+		assertEquals("offsets of the graph frozen halfway", Arrays.toString(built.offsets()),
+				Arrays.toString(patched.offsets()));
+		assertEquals("targets of the graph frozen halfway", Arrays.toString(built.targets()),
+				Arrays.toString(patched.targets()));
+		assertEquals("previous offsets", Arrays.toString(offsets), Arrays.toString(packedOffsets));
+		assertEquals("previous targets", Arrays.toString(targets), Arrays.toString(packedTargets));
+	}
+
+	private static List<String> listOf(String... vertices) {
+		List<String> list = new ArrayList<>();
+		for (String vertex : vertices)
+			list.add(vertex);
+		return list;
+	}
+
+	private static List<String> toList(Iterable<String> vertices) {
+		List<String> list = new ArrayList<>();
+		for (String vertex : vertices)
+			list.add(vertex);
+		return list;
+	}
+}
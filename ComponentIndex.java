@@ -0,0 +1,239 @@
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Connected components of a graph whose vertices are numbered by consecutive ids, kept up to date as vertices
+ * and edges are added
+ *
+ * A union-find structure: every id points to a parent id of its component, and the root of the component stores
+ * its size. Components are merged by size and paths are halved on every lookup, so both operations take close to
+ * constant time.
+ *
+ * Removing edges is not supported by union-find itself: the component of a removed edge or vertex is marked dirty,
+ * see {@link #markDirty(int)}, and the dirty components, which may have split, are computed again from the graph by
+ * {@link #repair(int[], int[])}. The other components are left untouched. A removed vertex has a component of its
+ * own with no vertex, which is not counted.
+ */
+public class ComponentIndex {
+
+    /**
+     * Parent of every id, a root is its own parent
+     */
+    private int[] parents;
+
+    /**
+     * Number of vertices of the component of every root
+     */
+    private int[] sizes;
+
+    /**
+     * Number of ids added
+     */
+    private int idCount;
+
+    /**
+     * Number of components
+     */
+    private int componentCount;
+
+    /**
+     * Vertices whose components may have split since the last repair
+     */
+    private IntList dirty;
+
+    /**
+     * Vertices removed since the last repair from a component with other vertices
+     */
+    private IntList removed;
+
+    /**
+     * Constructs an index without vertices
+     */
+    public ComponentIndex() {
+        this.parents = new int[16];
+        this.sizes = new int[16];
+        this.idCount = 0;
+        this.componentCount = 0;
+        this.dirty = new IntList();
+        this.removed = new IntList();
+    }
+
+    /**
+     * Adds a vertex as a component of its own
+     *
+     * @param id id of the vertex, the next id not added yet
+     */
+    public void add(int id) {
+        if (id != this.idCount)
+            throw new IllegalArgumentException("ids must be added in order, expected " + this.idCount + " got " + id);
+        if (id == this.parents.length) {
+            this.parents = Arrays.copyOf(this.parents, id * 2);
+            this.sizes = Arrays.copyOf(this.sizes, id * 2);
+        }
+        this.parents[id] = id;
+        this.sizes[id] = 1;
+        this.idCount++;
+        this.componentCount++;
+    }
+
+    /**
+     * Removes a vertex, whose edges were removed from the graph. Its component is marked dirty unless the vertex
+     * was alone in it.
+     *
+     * @param id id of the vertex
+     */
+    public void remove(int id) {
+        int root = find(id);
+        if (this.sizes[root] == 1) {
+            this.sizes[root] = 0;
+            this.componentCount--;
+            return;
+        }
+        markDirty(id);
+        this.removed.add(id);
+    }
+
+    /**
+     * Marks the component of a vertex as possibly split, after an edge of the component was removed from the graph
+     *
+     * @param id id of the vertex
+     */
+    public void markDirty(int id) {
+        this.dirty.add(id);
+    }
+
+    /**
+     * Checks whether a component is marked dirty
+     *
+     * @return true if {@link #repair(int[], int[])} has work to do
+     */
+    public boolean isDirty() {
+        return this.dirty.size() > 0;
+    }
+
+    /**
+     * Computes the dirty components again from the graph
+     *
+     * @param offsets offsets of the compressed rows of the graph without the removed edges and vertices
+     * @param targets neighbours of the compressed rows of the graph without the removed edges and vertices
+     * @return number of vertices whose component was computed again
+     */
+    public int repair(int[] offsets, int[] targets) {
+        if (this.dirty.size() == 0)
+            return 0;
+        boolean[] dirtyRoots = new boolean[this.idCount];
+        for (int i = 0; i < this.dirty.size(); i++) {
+            int root = find(this.dirty.get(i));
+            if (!dirtyRoots[root]) {
+                dirtyRoots[root] = true;
+                this.componentCount--;
+            }
+        }
+        IntList members = new IntList();
+        for (int id = 0; id < this.idCount; id++) {
+            if (dirtyRoots[find(id)])
+                members.add(id);
+        }
+        for (int i = 0; i < members.size(); i++) {
+            int id = members.get(i);
+            this.parents[id] = id;
+            this.sizes[id] = 1;
+        }
+        this.componentCount += members.size();
+        for (int i = 0; i < this.removed.size(); i++) {
+            this.sizes[this.removed.get(i)] = 0;
+            this.componentCount--;
+        }
+        // the edges of a dirty component all stay within it
+        for (int i = 0; i < members.size(); i++) {
+            int id = members.get(i);
+            for (int j = offsets[id]; j < offsets[id + 1]; j++)
+                union(id, targets[j]);
+        }
+        this.dirty.clear();
+        this.removed.clear();
+        return members.size();
+    }
+
+    /**
+     * Merges the components of the endpoints of an edge
+     *
+     * @param id1 id of the first vertex
+     * @param id2 id of the second vertex
+     * @return true if two components were merged, false if the vertices were already connected
+     */
+    public boolean union(int id1, int id2) {
+        int root1 = find(id1);
+        int root2 = find(id2);
+        if (root1 == root2)
+            return false;
+        if (this.sizes[root1] < this.sizes[root2]) {
+            int root = root1;
+            root1 = root2;
+            root2 = root;
+        }
+        this.parents[root2] = root1;
+        this.sizes[root1] += this.sizes[root2];
+        this.componentCount--;
+        return true;
+    }
+
+    /**
+     * Gets the root of the component of a vertex, which identifies the component until it is merged
+     *
+     * @param id id of the vertex
+     * @return id of the root
+     */
+    public int find(int id) {
+        while (this.parents[id] != id) {
+            this.parents[id] = this.parents[this.parents[id]];
+            id = this.parents[id];
+        }
+        return id;
+    }
+
+    /**
+     * Checks whether two vertices are in the same component, that is whether there is a path between them
+     *
+     * @param id1 id of the first vertex
+     * @param id2 id of the second vertex
+     * @return true if the vertices are connected
+     */
+    public boolean connected(int id1, int id2) {
+        return find(id1) == find(id2);
+    }
+
+    /**
+     * Gets the number of vertices in the component of a vertex
+     *
+     * @param id id of the vertex
+     * @return size of the component
+     */
+    public int componentSize(int id) {
+        return this.sizes[find(id)];
+    }
+
+    /**
+     * Gets the number of components
+     *
+     * @return number of components
+     */
+    public int componentCount() {
+        return this.componentCount;
+    }
+
+    /**
+     * Counts the components of every size
+     *
+     * @return number of components keyed by their number of vertices, in ascending order of size
+     */
+    public SortedMap<Integer, Integer> sizeDistribution() {
+        SortedMap<Integer, Integer> distribution = new TreeMap<>();
+        for (int id = 0; id < this.idCount; id++) {
+            if (this.parents[id] == id && this.sizes[id] > 0)
+                distribution.merge(this.sizes[id], 1, Integer::sum);
+        }
+        return distribution;
+    }
+}
@@ -0,0 +1,351 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Undirected and unweighted graph implementation which can be read and modified by many threads at once
+ *
+ * Reads never lock:
+ *  - every vertex has a node holding its neighbours in an array which is never modified once published; adding or
+ *    removing an edge publishes a copy of the arrays of both endpoints (copy on write). Word ladder vertices have
+ *    few neighbours, so the copies are small.
+ *  - the vertices are kept in an append only log, published as one immutable (array, size) pair; appending
+ *    a vertex does not copy the array unless it is full, removing a vertex copies it without the vertex.
+ * {@link #getNeighbors(Object)} and {@link #getAllVertices()} therefore return snapshots: all their iterators
+ * see the graph as it was when they were called, however it is modified since. As with the java.util.concurrent
+ * collections, a sequence of reads is not atomic: an edge is added to the arrays of its endpoints one after the
+ * other, and a reader may see one and not yet the other.
+ *
+ * Writers lock the stripes of the vertices they modify, a stripe being chosen by the hash of the vertex, so that
+ * writers of different vertices do not wait for each other. An edge locks the stripes of both endpoints, in stripe
+ * order. Appending to the vertex log is the only step under a lock shared by all writers, and it does not
+ * allocate in the common case. Removing a vertex, which is rare, locks all the stripes.
+ *
+ * @param <E> type of a vertex
+ */
+public class ConcurrentGraph<E> implements GraphADT<E> {
+
+    /**
+     * Default number of lock stripes
+     */
+    private static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * Nodes of the vertices in the graph
+     */
+    private final ConcurrentHashMap<E, Node<E>> nodes;
+
+    /**
+     * Locks of the stripes, a power of two of them
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Serializes the updates of {@link #log}, taken after the stripes
+     */
+    private final Object logLock;
+
+    /**
+     * Vertices in the order they were added
+     */
+    private volatile VertexLog<E> log;
+
+    /**
+     * Constructs an empty graph with the default number of lock stripes
+     */
+    public ConcurrentGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an empty graph
+     *
+     * @param concurrencyLevel expected number of concurrent writers, rounded up to a power of two lock stripes
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public ConcurrentGraph(int concurrencyLevel) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.nodes = new ConcurrentHashMap<>();
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+            this.stripes[i] = new ReentrantLock();
+        this.logLock = new Object();
+        this.log = new VertexLog<>(new Node[16], 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E addVertex(E vertex) {
+        if (vertex == null)
+            return null;
+        ReentrantLock stripe = this.stripes[stripeOf(vertex)];
+        stripe.lock();
+        try {
+            Node<E> node = new Node<>(vertex);
+            if (this.nodes.putIfAbsent(vertex, node) != null)
+                return null;
+            synchronized (this.logLock) {
+                VertexLog<E> log = this.log;
+                Node<E>[] entries = log.entries;
+                if (log.size == entries.length)
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                entries[log.size] = node;
+                this.log = new VertexLog<>(entries, log.size + 1);
+            }
+            return vertex;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E removeVertex(E vertex) {
+        if (vertex == null || !this.nodes.containsKey(vertex))
+            return null;
+        for (ReentrantLock stripe : this.stripes)
+            stripe.lock();
+        try {
+            Node<E> node = this.nodes.remove(vertex);
+            if (node == null)
+                return null;
+            for (Node<E> neighbor : node.neighbors)
+                neighbor.neighbors = without(neighbor.neighbors, node);
+            node.neighbors = Node.none();
+            synchronized (this.logLock) {
+                VertexLog<E> log = this.log;
+                Node<E>[] entries = log.entries;
+                int index = 0;
+                while (entries[index] != node)
+                    index++;
+                Node<E>[] remaining = Arrays.copyOf(entries, entries.length);
+                System.arraycopy(entries, index + 1, remaining, index, log.size - index - 1);
+                remaining[log.size - 1] = null;
+                this.log = new VertexLog<>(remaining, log.size - 1);
+            }
+            return vertex;
+        } finally {
+            for (int i = this.stripes.length - 1; i >= 0; i--)
+                this.stripes[i].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(E vertex1, E vertex2) {
+        if (!isValidPair(vertex1, vertex2))
+            return false;
+        int first = Math.min(stripeOf(vertex1), stripeOf(vertex2));
+        int second = Math.max(stripeOf(vertex1), stripeOf(vertex2));
+        this.stripes[first].lock();
+        if (second != first)
+            this.stripes[second].lock();
+        try {
+            Node<E> node1 = this.nodes.get(vertex1);
+            Node<E> node2 = this.nodes.get(vertex2);
+            if (node1 == null || node2 == null || indexOf(node1.neighbors, node2) >= 0)
+                return false;
+            node1.neighbors = with(node1.neighbors, node2);
+            node2.neighbors = with(node2.neighbors, node1);
+            return true;
+        } finally {
+            if (second != first)
+                this.stripes[second].unlock();
+            this.stripes[first].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeEdge(E vertex1, E vertex2) {
+        if (!isValidPair(vertex1, vertex2))
+            return false;
+        int first = Math.min(stripeOf(vertex1), stripeOf(vertex2));
+        int second = Math.max(stripeOf(vertex1), stripeOf(vertex2));
+        this.stripes[first].lock();
+        if (second != first)
+            this.stripes[second].lock();
+        try {
+            Node<E> node1 = this.nodes.get(vertex1);
+            Node<E> node2 = this.nodes.get(vertex2);
+            if (node1 == null || node2 == null || indexOf(node1.neighbors, node2) < 0)
+                return false;
+            node1.neighbors = without(node1.neighbors, node2);
+            node2.neighbors = without(node2.neighbors, node1);
+            return true;
+        } finally {
+            if (second != first)
+                this.stripes[second].unlock();
+            this.stripes[first].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAdjacent(E vertex1, E vertex2) {
+        if (!isValidPair(vertex1, vertex2))
+            return false;
+        Node<E> node1 = this.nodes.get(vertex1);
+        Node<E> node2 = this.nodes.get(vertex2);
+        return node1 != null && node2 != null && indexOf(node1.neighbors, node2) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The neighbours are a snapshot taken by this call.
+     */
+    @Override
+    public Iterable<E> getNeighbors(E vertex) {
+        Node<E> node = vertex == null ? null : this.nodes.get(vertex);
+        Node<E>[] neighbors = node == null ? Node.none() : node.neighbors;
+        return () -> new NodeIterator<>(neighbors, neighbors.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The vertices are a snapshot taken by this call, in the order they were added.
+     */
+    @Override
+    public Iterable<E> getAllVertices() {
+        VertexLog<E> log = this.log;
+        return () -> new NodeIterator<>(log.entries, log.size);
+    }
+
+    /**
+     * Gets the number of vertices in the graph
+     *
+     * @return number of vertices
+     */
+    public int vertexCount() {
+        return this.log.size;
+    }
+
+    /**
+     * Checks the valid argument conditions shared by the edge methods, except for the existence of the vertices
+     * which is checked under the locks
+     *
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @return true if the pair of vertices can have an edge between them
+     */
+    private boolean isValidPair(E vertex1, E vertex2) {
+        return vertex1 != null && vertex2 != null && !vertex1.equals(vertex2);
+    }
+
+    /**
+     * Gets the stripe of a vertex
+     */
+    private int stripeOf(E vertex) {
+        int hash = vertex.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (this.stripes.length - 1);
+    }
+
+    private static <E> int indexOf(Node<E>[] nodes, Node<E> node) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == node)
+                return i;
+        }
+        return -1;
+    }
+
+    private static <E> Node<E>[] with(Node<E>[] nodes, Node<E> node) {
+        Node<E>[] copy = Arrays.copyOf(nodes, nodes.length + 1);
+        copy[nodes.length] = node;
+        return copy;
+    }
+
+    private static <E> Node<E>[] without(Node<E>[] nodes, Node<E> node) {
+        int index = indexOf(nodes, node);
+        if (index < 0)
+            return nodes;
+        Node<E>[] copy = Arrays.copyOf(nodes, nodes.length - 1);
+        System.arraycopy(nodes, index + 1, copy, index, nodes.length - index - 1);
+        return copy;
+    }
+
+    /**
+     * A vertex and its neighbours
+     */
+    private static final class Node<E> {
+
+        @SuppressWarnings("rawtypes")
+        private static final Node[] NONE = new Node[0];
+
+        private final E vertex;
+
+        /**
+         * Neighbours of the vertex, replaced and never modified once published
+         */
+        private volatile Node<E>[] neighbors;
+
+        private Node(E vertex) {
+            this.vertex = vertex;
+            this.neighbors = none();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> Node<E>[] none() {
+            return (Node<E>[]) NONE;
+        }
+    }
+
+    /**
+     * The vertices added so far: entries below size are never modified, entries from size on are only written
+     * before a log covering them is published
+     */
+    private static final class VertexLog<E> {
+
+        private final Node<E>[] entries;
+
+        private final int size;
+
+        private VertexLog(Node<E>[] entries, int size) {
+            this.entries = entries;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Iterator over the vertices of a prefix of a node array
+     */
+    private static final class NodeIterator<E> implements Iterator<E> {
+
+        private final Node<E>[] nodes;
+
+        private final int size;
+
+        private int next;
+
+        private NodeIterator(Node<E>[] nodes, int size) {
+            this.nodes = nodes;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < this.size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return this.nodes[this.next++].vertex;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see ConcurrentGraph, runs all the tests of @see GraphTest
+ * and checks the same invariants while writers and readers run concurrently
+ */
+public class ConcurrentGraphTest extends GraphTest {
+
+	private static final int WRITERS = 4;
+
+	private static final int READERS = 4;
+
+	private static final int VERTICES_PER_WRITER = 500;
+
+	@Override
+	protected GraphADT<String> createGraph() {
+		return new ConcurrentGraph<>();
+	}
+
+	@Test
+	public final void concurrentWritersShouldAddAllVerticesAndEdges() throws Exception {
+		ConcurrentGraph<String> graph = new ConcurrentGraph<>(4);
+		ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+		runConcurrently(graph, violations, writer -> {
+			// every writer adds a chain of its own words, and links them to the words of the previous and next
+			// writers: whichever of two writers comes second adds the edge
+			for (int i = 0; i < VERTICES_PER_WRITER; i++) {
+				graph.addVertex(word(writer, i));
+				if (i > 0)
+					graph.addEdge(word(writer, i - 1), word(writer, i));
+				graph.addEdge(word(writer, i), word((writer + WRITERS - 1) % WRITERS, i));
+				graph.addEdge(word(writer, i), word((writer + 1) % WRITERS, i));
+			}
+		});
+
+		assertEquals("invariant violations seen by the readers", "[]", violations.toString());
+		assertEquals("number of vertices in the graph", WRITERS * VERTICES_PER_WRITER, count(graph.getAllVertices()));
+		for (int writer = 0; writer < WRITERS; writer++) {
+			for (int i = 0; i < VERTICES_PER_WRITER; i++) {
+				int expected = (i > 0 ? 1 : 0) + (i < VERTICES_PER_WRITER - 1 ? 1 : 0) + 2;
+				assertEquals(String.format("number of neighbors for vertex=%s", word(writer, i)),
+						expected, count(graph.getNeighbors(word(writer, i))));
+			}
+		}
+		checkSymmetric(graph);
+	}
+
+	@Test
+	public final void concurrentRemovalsShouldLeaveNoDanglingEdges() throws Exception {
+		ConcurrentGraph<String> graph = new ConcurrentGraph<>(4);
+		for (int writer = 0; writer < WRITERS; writer++) {
+			for (int i = 0; i < VERTICES_PER_WRITER; i++)
+				graph.addVertex(word(writer, i));
+		}
+		ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+		runConcurrently(graph, violations, writer -> {
+			// every writer links its words to those of the next writer, and removes every third word of its own
+			int next = (writer + 1) % WRITERS;
+			for (int i = 0; i < VERTICES_PER_WRITER; i++) {
+				graph.addEdge(word(writer, i), word(next, i));
+				graph.addEdge(word(writer, i), word(next, (i + 1) % VERTICES_PER_WRITER));
+				if (i % 3 == 0)
+					graph.removeVertex(word(writer, i));
+				else if (i % 3 == 1)
+					graph.removeEdge(word(writer, i), word(next, i));
+			}
+		});
+
+		assertEquals("invariant violations seen by the readers", "[]", violations.toString());
+		Set<String> remaining = new HashSet<>();
+		for (String vertex : graph.getAllVertices())
+			remaining.add(vertex);
+		assertEquals("number of vertices in the graph", WRITERS * (VERTICES_PER_WRITER - (VERTICES_PER_WRITER + 2) / 3),
+				remaining.size());
+		for (String vertex : remaining) {
+			for (String neighbor : graph.getNeighbors(vertex))
+				assertEquals(String.format("presence of neighbor=%s of vertex=%s", neighbor, vertex),
+						true, remaining.contains(neighbor));
+		}
+		checkSymmetric(graph);
+	}
+
+	/**
+	 * Runs a writer task per writer and readers checking the snapshot invariants until the writers are done
+	 */
+	private static void runConcurrently(ConcurrentGraph<String> graph, ConcurrentLinkedQueue<String> violations,
+			WriterTask task) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean done = new AtomicBoolean();
+		List<Thread> writers = new ArrayList<>();
+		List<Thread> readers = new ArrayList<>();
+		for (int writer = 0; writer < WRITERS; writer++) {
+			int id = writer;
+			writers.add(new Thread(() -> {
+				await(start);
+				task.run(id);
+			}));
+		}
+		for (int reader = 0; reader < READERS; reader++) {
+			readers.add(new Thread(() -> {
+				await(start);
+				while (!done.get())
+					checkSnapshots(graph, violations);
+			}));
+		}
+		for (Thread thread : writers)
+			thread.start();
+		for (Thread thread : readers)
+			thread.start();
+		start.countDown();
+		for (Thread thread : writers)
+			thread.join();
+		done.set(true);
+		for (Thread thread : readers)
+			thread.join();
+	}
+
+	/**
+	 * Checks the invariants of @see GraphTest which hold for any snapshot: no duplicate vertex, no self loop,
+	 * no duplicate neighbor, and every iteration of a snapshot sees the same vertices
+	 */
+	private static void checkSnapshots(ConcurrentGraph<String> graph, ConcurrentLinkedQueue<String> violations) {
+		Iterable<String> vertices = graph.getAllVertices();
+		Set<String> seen = new HashSet<>();
+		for (String vertex : vertices) {
+			if (!seen.add(vertex))
+				violations.add("duplicate vertex=" + vertex);
+			Iterable<String> neighbors = graph.getNeighbors(vertex);
+			Set<String> seenNeighbors = new HashSet<>();
+			for (String neighbor : neighbors) {
+				if (neighbor.equals(vertex))
+					violations.add("self loop on vertex=" + vertex);
+				if (!seenNeighbors.add(neighbor))
+					violations.add("duplicate neighbor=" + neighbor + " of vertex=" + vertex);
+			}
+			if (count(neighbors) != seenNeighbors.size())
+				violations.add("neighbors of vertex=" + vertex + " changed between iterations");
+		}
+		if (count(vertices) != seen.size())
+			violations.add("vertices changed between iterations");
+	}
+
+	private static void checkSymmetric(ConcurrentGraph<String> graph) {
+		for (String vertex : graph.getAllVertices()) {
+			for (String neighbor : graph.getNeighbors(vertex)) {
+				assertEquals(String.format("edge from neighbor=%s back to vertex=%s", neighbor, vertex),
+						true, graph.isAdjacent(neighbor, vertex));
+			}
+		}
+	}
+
+	private static String word(int writer, int i) {
+		return writer + "-" + i;
+	}
+
+	private static int count(Iterable<String> iterable) {
+		int count = 0;
+		for (String element : iterable)
+			count++;
+		return count;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private interface WriterTask {
+		void run(int writer);
+	}
+}
@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Index of words by their deletion neighbourhood, used to find the words within a few edits of a word
+ * (see {@link GraphProcessor#setMaxEdits(int)}) without comparing every pair.
+ *
+ * Every word is keyed by all the words left by deleting at most maxEdits of its chars, itself included. If two words
+ * are within maxEdits edits, deleting from each the chars the other lacks (the inserted, deleted and both sides of
+ * the replaced chars) leaves the same word, with at most maxEdits deletions from each: the two words share a key.
+ * The words sharing a key with a new word are only candidates, which are then checked with a
+ * {@link BoundedEditDistance}. A word of length L has about L^maxEdits / maxEdits! keys, so the index suits 2 edits
+ * and words of dictionary length.
+ *
+ * Like {@link WordIndex}, {@link #add(String)} returns the neighbours of the new word among the words already in the
+ * index, so adding every word once yields every edge exactly once.
+ */
+public class DeletionIndex {
+
+    /**
+     * Largest number of edits between neighbours
+     */
+    private final int maxEdits;
+
+    /**
+     * Words keyed by each of their distinct deletion variants
+     */
+    private HashMap<String, List<String>> buckets;
+
+    /**
+     * All the indexed words
+     */
+    private HashSet<String> words;
+
+    /**
+     * Checks the candidates against the new word
+     */
+    private BoundedEditDistance kernel;
+
+    /**
+     * Constructs an empty index
+     *
+     * @param maxEdits largest number of edits between neighbours, at least 1
+     */
+    public DeletionIndex(int maxEdits) {
+        this.maxEdits = maxEdits;
+        this.buckets = new HashMap<>();
+        this.words = new HashSet<>();
+        this.kernel = new BoundedEditDistance();
+    }
+
+    /**
+     * Gets the largest number of edits between neighbours
+     *
+     * @return number of edits
+     */
+    public int maxEdits() {
+        return this.maxEdits;
+    }
+
+    /**
+     * Adds a word to the index and returns the words already in the index within maxEdits edits of it.
+     *
+     * @param word the word to be added
+     * @return list of the neighbours already indexed, empty if the word is null or already indexed
+     */
+    public List<String> add(String word) {
+        List<String> neighbors = new ArrayList<>();
+        if (word == null || !this.words.add(word))
+            return neighbors;
+
+        this.kernel.setPattern(word);
+        HashSet<String> candidates = new HashSet<>();
+        for (String variant : variants(word)) {
+            List<String> bucket = this.buckets.computeIfAbsent(variant, key -> new ArrayList<>());
+            for (String candidate : bucket) {
+                if (candidates.add(candidate) && this.kernel.distance(candidate, this.maxEdits) <= this.maxEdits)
+                    neighbors.add(candidate);
+            }
+            bucket.add(word);
+        }
+        return neighbors;
+    }
+
+    /**
+     * Removes a word and all its keys from the index
+     *
+     * @param word the word to be removed
+     * @return true if the word was indexed, else false
+     */
+    public boolean remove(String word) {
+        if (word == null || !this.words.remove(word))
+            return false;
+        for (String variant : variants(word)) {
+            List<String> bucket = this.buckets.get(variant);
+            bucket.remove(word);
+            if (bucket.isEmpty())
+                this.buckets.remove(variant);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a word is indexed
+     *
+     * @param word the word
+     * @return true if the word is indexed
+     */
+    public boolean contains(String word) {
+        return this.words.contains(word);
+    }
+
+    /**
+     * Gets the number of indexed words
+     *
+     * @return number of words
+     */
+    public int size() {
+        return this.words.size();
+    }
+
+    /**
+     * Builds the distinct words left by deleting at most maxEdits chars of a word
+     *
+     * @param word the word
+     * @return the variants, the word itself included
+     */
+    private HashSet<String> variants(String word) {
+        HashSet<String> variants = new HashSet<>();
+        variants.add(word);
+        List<String> level = new ArrayList<>(variants);
+        for (int deletions = 1; deletions <= this.maxEdits; deletions++) {
+            List<String> next = new ArrayList<>();
+            for (String variant : level) {
+                for (int i = 0; i < variant.length(); i++) {
+                    // deleting any char of a run of equal chars gives the same word, keep only the first
+                    if (i > 0 && variant.charAt(i) == variant.charAt(i - 1))
+                        continue;
+                    String deletion = variant.substring(0, i) + variant.substring(i + 1);
+                    if (variants.add(deletion))
+                        next.add(deletion);
+                }
+            }
+            level = next;
+        }
+        return variants;
+    }
+}
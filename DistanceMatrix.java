@@ -0,0 +1,509 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distances between all pairs of vertices of a frozen {@link CompactGraph}, in a flat matrix indexed by vertex id
+ *
+ * Every row is filled by a breadth first search from its source; rows are split among the tasks of a
+ * {@link ForkJoinPool}, each of which reuses one row buffer and one queue for all its rows. Distances are stored
+ * as unsigned bytes, one byte per pair, and the whole matrix is written again with two bytes per pair if a
+ * distance does not fit. The matrix is kept either on the heap, see {@link HeapDistanceStore}, or in a memory
+ * mapped file, see {@link MappedDistanceStore}.
+ *
+ * No paths and no parents are stored: the parent of a vertex on the shortest path from a source is its lowest id
+ * neighbour one step closer to the source, which the distance row of the source already tells, see
+ * {@link ShortestPathTree}. A path is rebuilt by walking back from its target, scanning one adjacency row per step.
+ *
+ * When edges are added to the graph every row is updated by relaxing the distances from the endpoints of the new
+ * edges, see {@link #addEdges(int[], int[], IntList, ForkJoinPool)}, and rows are only searched again for new
+ * vertices.
+ */
+public class DistanceMatrix {
+
+    /**
+     * Distance of an unreachable pair
+     */
+    public static final int UNREACHABLE = DistanceStore.UNREACHABLE;
+
+    /**
+     * Largest number of ids of a matrix on the heap
+     */
+    public static final int MAX_IDS = HeapDistanceStore.MAX_IDS;
+
+    /**
+     * Number of rows below which a task does not split its rows any further
+     */
+    private static final int ROWS_PER_TASK = 16;
+
+    /**
+     * The distances
+     */
+    private DistanceStore store;
+
+    /**
+     * Fingerprint of the graph, written in the header of a mapped file
+     */
+    private long fingerprint;
+
+    /**
+     * Constructs a matrix over its distances
+     *
+     * @param store the distances
+     * @param fingerprint fingerprint of the graph, for a mapped store
+     */
+    private DistanceMatrix(DistanceStore store, long fingerprint) {
+        this.store = store;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Runs a breadth first search from every vertex, keeping the distances on the heap
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param pool pool which runs the searches
+     * @return the matrix
+     * @throws IllegalArgumentException if the graph has more than {@link #MAX_IDS} ids
+     */
+    public static DistanceMatrix compute(int[] offsets, int[] targets, ForkJoinPool pool) {
+        int idCount = offsets.length - 1;
+        HeapDistanceStore store = new HeapDistanceStore(idCount, idCount, 1);
+        DistanceMatrix matrix = new DistanceMatrix(store, 0);
+        try {
+            matrix.fill(store, offsets, targets, null, 0, null, null, pool);
+        } catch (IOException e) {
+            throw new IllegalStateException("a matrix on the heap does not write files", e);
+        }
+        return matrix;
+    }
+
+    /**
+     * Runs a breadth first search from every vertex, writing the distances to a memory mapped file.
+     * The file is replaced atomically once complete.
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param pool pool which runs the searches
+     * @param file path of the file
+     * @param fingerprint fingerprint of the graph, see {@link #open(Path, int, long)}
+     * @return the matrix
+     * @throws IOException if the file can not be written
+     */
+    public static DistanceMatrix compute(int[] offsets, int[] targets, ForkJoinPool pool, Path file, long fingerprint)
+            throws IOException {
+        int idCount = offsets.length - 1;
+        MappedDistanceStore store = MappedDistanceStore.create(file, idCount, 1, fingerprint);
+        DistanceMatrix matrix = new DistanceMatrix(store, fingerprint);
+        matrix.fill(store, offsets, targets, null, 0, null, null, pool);
+        return matrix;
+    }
+
+    /**
+     * Maps the file of a matrix computed earlier, possibly by another process, read only
+     *
+     * @param file path of the file
+     * @param idCount number of ids of the graph
+     * @param fingerprint fingerprint of the graph
+     * @return the matrix, null if the file does not exist or was computed for another graph
+     * @throws IOException if the file can not be read
+     */
+    public static DistanceMatrix open(Path file, int idCount, long fingerprint) throws IOException {
+        MappedDistanceStore store = MappedDistanceStore.open(file, idCount, fingerprint);
+        return store == null ? null : new DistanceMatrix(store, fingerprint);
+    }
+
+    /**
+     * Wraps distances which were stored earlier, see {@link #store()}
+     *
+     * @param store the distances, complete
+     * @return the matrix
+     */
+    public static DistanceMatrix of(DistanceStore store) {
+        return new DistanceMatrix(store, 0);
+    }
+
+    /**
+     * Gets the distances, to be read but not written
+     *
+     * @return the store
+     */
+    public DistanceStore store() {
+        return this.store;
+    }
+
+    /**
+     * Gets the number of vertex ids covered by the matrix
+     *
+     * @return number of ids
+     */
+    public int idCount() {
+        return this.store.idCount();
+    }
+
+    /**
+     * Checks whether the matrix stores two bytes per pair
+     *
+     * @return true if widened
+     */
+    public boolean isWide() {
+        return this.store.width() == 2;
+    }
+
+    /**
+     * Checks whether the matrix is kept in a memory mapped file
+     *
+     * @return true if mapped, false if on the heap
+     */
+    public boolean isMapped() {
+        return this.store instanceof MappedDistanceStore;
+    }
+
+    /**
+     * Gets the number of bytes taken by the distances
+     *
+     * @return size of the matrix in bytes
+     */
+    public long sizeInBytes() {
+        return this.store.sizeInBytes();
+    }
+
+    /**
+     * Gets the number of edges of the shortest path between two vertices
+     *
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return the distance, {@link #UNREACHABLE} if there is no path or an id is not covered
+     */
+    public int distance(int source, int target) {
+        if (source >= this.store.idCount() || target >= this.store.idCount())
+            return UNREACHABLE;
+        return this.store.distance(source, target);
+    }
+
+    /**
+     * Gets the shortest path between two vertices, with the same tie break as {@link ShortestPathTree}
+     *
+     * @param offsets offsets of the compressed rows of the graph
+     * @param targets neighbours of the compressed rows of the graph
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return ids of the vertices of the path, starting with source and ending with target, null if there is no path
+     */
+    public int[] path(int[] offsets, int[] targets, int source, int target) {
+        int distance = distance(source, target);
+        if (distance == UNREACHABLE)
+            return null;
+        int[] path = new int[distance + 1];
+        path[distance] = target;
+        for (int i = distance; i > 0; i--) {
+            int vertex = path[i];
+            // rows are sorted, so the first neighbour one step closer is the one with the lowest id
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                if (this.store.distance(source, targets[j]) == i - 1) {
+                    path[i - 1] = targets[j];
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Updates the matrix after edges, and possibly vertices, were added to the graph. Adding edges only shortens
+     * distances, so every row is relaxed outwards from the endpoints of the new edges which it reaches, and the
+     * rows of new vertices are searched from scratch.
+     *
+     * A matrix on the heap is updated in place if it has room for the new vertices. A mapped matrix is written
+     * to a new file, which then replaces the old one, unless it was mapped from within another file, in which case
+     * the updated matrix is kept on the heap.
+     *
+     * @param offsets offsets of the compressed rows of the graph with the new edges
+     * @param targets neighbours of the compressed rows of the graph with the new edges
+     * @param edges ids of the endpoints of the new edges, two per edge
+     * @param pool pool which runs the updates
+     * @throws IOException if the new file of a mapped matrix can not be written
+     * @throws IllegalArgumentException if a matrix on the heap would have more than {@link #MAX_IDS} ids
+     */
+    public void addEdges(int[] offsets, int[] targets, IntList edges, ForkJoinPool pool) throws IOException {
+        update(offsets, targets, edges, new IntList(), this.fingerprint, pool);
+    }
+
+    /**
+     * Updates the matrix after edges were added to the graph, see
+     * {@link #addEdges(int[], int[], IntList, ForkJoinPool)}, and removed from it. Removing an edge only lengthens
+     * the distances of the rows in which it joins two vertices one step apart, which lie on a shortest path through
+     * it: those rows are searched again, the others are kept.
+     * A removed vertex is a vertex all of whose edges were removed.
+     *
+     * A mapped matrix is written to a new file as for added edges, with the fingerprint of the updated graph, so
+     * that the file still matches the words and edges it was computed for.
+     *
+     * @param offsets offsets of the compressed rows of the graph with the new edges and without the removed ones
+     * @param targets neighbours of the compressed rows of the graph with the new edges and without the removed ones
+     * @param addedEdges ids of the endpoints of the new edges, two per edge
+     * @param removedEdges ids of the endpoints of the removed edges, two per edge, none of which is a new edge
+     * @param fingerprint fingerprint of the updated graph, written in the header of a mapped file
+     * @param pool pool which runs the updates
+     * @throws IOException if the new file of a mapped matrix can not be written
+     * @throws IllegalArgumentException if a matrix on the heap would have more than {@link #MAX_IDS} ids
+     */
+    public void update(int[] offsets, int[] targets, IntList addedEdges, IntList removedEdges, long fingerprint,
+            ForkJoinPool pool) throws IOException {
+        int idCount = offsets.length - 1;
+        this.fingerprint = fingerprint;
+        DistanceStore old = this.store;
+        int oldCount = old.idCount();
+        WritableDistanceStore store;
+        if (old instanceof MappedDistanceStore && ((MappedDistanceStore) old).file() != null) {
+            store = MappedDistanceStore.create(((MappedDistanceStore) old).file(), idCount, old.width(),
+                    this.fingerprint);
+        } else if (!(old instanceof HeapDistanceStore) || idCount > ((HeapDistanceStore) old).capacity()) {
+            int capacity = old instanceof HeapDistanceStore ? ((HeapDistanceStore) old).capacity() : oldCount;
+            store = new HeapDistanceStore(idCount, Math.max(idCount, Math.min(capacity + (capacity >> 1), MAX_IDS)),
+                    old.width());
+        } else {
+            store = (HeapDistanceStore) old;
+            ((HeapDistanceStore) old).setIdCount(idCount);
+        }
+        fill(store, offsets, targets, old, oldCount, addedEdges, removedEdges, pool);
+    }
+
+    /**
+     * Fills every row of a store, which becomes {@link #store}, searching them again in a new store with two bytes
+     * per pair if a distance did not fit, and commits a mapped store
+     *
+     * @param store the store to fill, the old distances themselves only if they are on the heap
+     * @param offsets offsets of the compressed rows
+     * @param targets neighbours of the compressed rows
+     * @param old distances before the new edges, null to search every row
+     * @param oldCount number of ids before the new edges, whose rows are relaxed instead of searched
+     * @param edges new edges to relax in the old rows
+     * @param removedEdges removed edges, whose old rows are searched again if a shortest path crossed them
+     * @param pool pool which runs the tasks
+     * @throws IOException if a mapped store can not be written
+     */
+    private void fill(WritableDistanceStore store, int[] offsets, int[] targets, DistanceStore old, int oldCount,
+            IntList edges, IntList removedEdges, ForkJoinPool pool) throws IOException {
+        this.store = store;
+        try {
+            RowTask task = new RowTask(store, offsets, targets, old, oldCount, edges, removedEdges, 0,
+                    store.idCount());
+            pool.invoke(task);
+            if (task.overflow) {
+                int idCount = store.idCount();
+                if (store instanceof MappedDistanceStore) {
+                    MappedDistanceStore narrow = (MappedDistanceStore) store;
+                    narrow.discard();
+                    store = MappedDistanceStore.create(narrow.file(), idCount, 2, this.fingerprint);
+                } else {
+                    store = new HeapDistanceStore(idCount, ((HeapDistanceStore) store).capacity(), 2);
+                }
+                this.store = store;
+                pool.invoke(new RowTask(store, offsets, targets, null, 0, null, null, 0, idCount));
+            }
+            if (store instanceof MappedDistanceStore)
+                ((MappedDistanceStore) store).commit();
+        } catch (IOException | RuntimeException e) {
+            if (store instanceof MappedDistanceStore)
+                ((MappedDistanceStore) store).discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Fills a range of rows, splitting it among subtasks
+     */
+    private class RowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Store the rows are written to
+         */
+        private final WritableDistanceStore store;
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        /**
+         * Distances before the new edges, null to search every row
+         */
+        private final DistanceStore old;
+
+        /**
+         * Number of ids before the new edges
+         */
+        private final int oldCount;
+
+        /**
+         * New edges to relax in the old rows
+         */
+        private final IntList edges;
+
+        /**
+         * Removed edges, null if there are none
+         */
+        private final IntList removedEdges;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * Set if a distance does not fit in the store, read once the task is joined
+         */
+        private boolean overflow;
+
+        private RowTask(WritableDistanceStore store, int[] offsets, int[] targets, DistanceStore old, int oldCount,
+                IntList edges, IntList removedEdges, int from, int to) {
+            this.store = store;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.old = old;
+            this.oldCount = oldCount;
+            this.edges = edges;
+            this.removedEdges = removedEdges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > ROWS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                RowTask left = new RowTask(this.store, this.offsets, this.targets, this.old, this.oldCount, this.edges,
+                        this.removedEdges, this.from, middle);
+                RowTask right = new RowTask(this.store, this.offsets, this.targets, this.old, this.oldCount, this.edges,
+                        this.removedEdges, middle, this.to);
+                invokeAll(left, right);
+                this.overflow = left.overflow || right.overflow;
+                return;
+            }
+            int[] row = new int[this.store.idCount()];
+            int[] queue = null;
+            for (int source = this.from; source < this.to && !this.overflow; source++) {
+                if (this.old != null && source < this.oldCount && !crossesRemovedEdge(source)) {
+                    if (!relax(source, row))
+                        continue;
+                } else {
+                    if (queue == null)
+                        queue = new int[row.length];
+                    search(source, row, queue);
+                }
+                this.overflow = !this.store.writeRow(source, row);
+            }
+        }
+
+        /**
+         * Fills a row by a breadth first search
+         *
+         * @param source source of the row
+         * @param row the row
+         * @param queue queue of at least as many ids as the row
+         */
+        private void search(int source, int[] row, int[] queue) {
+            Arrays.fill(row, UNREACHABLE);
+            row[source] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int vertex = queue[head++];
+                int next = row[vertex] + 1;
+                for (int i = this.offsets[vertex]; i < this.offsets[vertex + 1]; i++) {
+                    int neighbor = this.targets[i];
+                    if (row[neighbor] == UNREACHABLE) {
+                        row[neighbor] = next;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Checks whether a removed edge joins two vertices one step apart in an old row, so that it may have been on
+         * a shortest path from the source
+         *
+         * @param source source of the row
+         * @return true if the row must be searched again
+         */
+        private boolean crossesRemovedEdge(int source) {
+            for (int i = 0; this.removedEdges != null && i < this.removedEdges.size(); i += 2) {
+                int endpoint1 = this.removedEdges.get(i);
+                int endpoint2 = this.removedEdges.get(i + 1);
+                if (endpoint1 >= this.oldCount || endpoint2 >= this.oldCount)
+                    continue;
+                int distance1 = this.old.distance(source, endpoint1);
+                int distance2 = this.old.distance(source, endpoint2);
+                if (distance1 != UNREACHABLE && distance2 != UNREACHABLE && Math.abs(distance1 - distance2) == 1)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Reads an old row and shortens its distances through the new edges, in increasing order of distance
+         *
+         * @param source source of the row
+         * @param row the row
+         * @return false if the row is unchanged and already in the store, true if it must be written
+         */
+        private boolean relax(int source, int[] row) {
+            boolean touched = false;
+            for (int i = 0; i < this.edges.size() && !touched; i++) {
+                int endpoint = this.edges.get(i);
+                touched = endpoint < this.oldCount && this.old.distance(source, endpoint) != UNREACHABLE;
+            }
+            if (!touched && this.old == this.store)
+                return false;
+
+            this.old.readRow(source, row);
+            Arrays.fill(row, this.oldCount, row.length, UNREACHABLE);
+            if (!touched)
+                return true;
+            List<IntList> layers = new ArrayList<>();
+            for (int i = 0; i < this.edges.size(); i += 2) {
+                relax(row, this.edges.get(i), this.edges.get(i + 1), layers);
+                relax(row, this.edges.get(i + 1), this.edges.get(i), layers);
+            }
+            for (int layer = 0; layer < layers.size(); layer++) {
+                IntList vertices = layers.get(layer);
+                for (int i = 0; vertices != null && i < vertices.size(); i++) {
+                    int vertex = vertices.get(i);
+                    // a vertex is queued again every time its distance shrinks, only its last entry is current
+                    if (row[vertex] != layer)
+                        continue;
+                    for (int j = this.offsets[vertex]; j < this.offsets[vertex + 1]; j++)
+                        relax(row, vertex, this.targets[j], layers);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Shortens the distance of a vertex through one of its neighbours if possible, queueing it by its new distance
+         *
+         * @param row the row
+         * @param from id of the neighbour
+         * @param to id of the vertex
+         * @param layers vertices queued by distance
+         */
+        private void relax(int[] row, int from, int to, List<IntList> layers) {
+            int distance = row[from];
+            if (distance == UNREACHABLE || (row[to] != UNREACHABLE && row[to] <= distance + 1))
+                return;
+            row[to] = distance + 1;
+            while (layers.size() <= distance + 1)
+                layers.add(null);
+            if (layers.get(distance + 1) == null)
+                layers.set(distance + 1, new IntList());
+            layers.get(distance + 1).add(to);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Storage of the rows of a {@link DistanceMatrix}: one distance per pair of vertex ids, as an unsigned integer of
+ * {@link #width()} bytes whose largest value stands for an unreachable pair
+ *
+ * The rows can only be read, see {@link WritableDistanceStore} for the stores a matrix is computed in.
+ */
+public interface DistanceStore {
+
+    /**
+     * Distance of an unreachable pair
+     */
+    int UNREACHABLE = -1;
+
+    /**
+     * Gets the number of vertex ids, which is the number of rows and of columns
+     *
+     * @return number of ids
+     */
+    int idCount();
+
+    /**
+     * Gets the number of bytes of every distance, 1 or 2
+     *
+     * @return the width
+     */
+    int width();
+
+    /**
+     * Gets the number of bytes taken by the distances
+     *
+     * @return the size in bytes
+     */
+    long sizeInBytes();
+
+    /**
+     * Reads one distance
+     *
+     * @param source row, less than {@link #idCount()}
+     * @param target column, less than {@link #idCount()}
+     * @return the distance, {@link #UNREACHABLE} if there is no path
+     */
+    int distance(int source, int target);
+
+    /**
+     * Reads a whole row
+     *
+     * @param source the row
+     * @param row array of at least {@link #idCount()} distances, filled with the distances of the row
+     */
+    void readRow(int source, int[] row);
+}
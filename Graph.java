@@ -16,12 +16,27 @@ public class Graph<E> implements GraphADT<E> {
      * Instance variables and constructors
      */
 
+    /**
+     * Adjacency sets keyed by vertex; every undirected edge is stored in both endpoints' sets
+     */
+    private HashMap<E, Set<E>> adjacency;
+
+    /**
+     * Constructs an empty graph
+     */
+    public Graph() {
+        this.adjacency = new HashMap<>();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public E addVertex(E vertex) {
-        
+        if (vertex == null || this.adjacency.containsKey(vertex))
+            return null;
+        this.adjacency.put(vertex, new HashSet<>());
+        return vertex;
     }
 
     /**
@@ -29,7 +44,14 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public E removeVertex(E vertex) {
-        
+        if (vertex == null)
+            return null;
+        Set<E> neighbors = this.adjacency.remove(vertex);
+        if (neighbors == null)
+            return null;
+        for (E neighbor : neighbors)
+            this.adjacency.get(neighbor).remove(vertex);
+        return vertex;
     }
 
     /**
@@ -37,7 +59,12 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean addEdge(E vertex1, E vertex2) {
-        
+        if (!isValidPair(vertex1, vertex2))
+            return false;
+        if (!this.adjacency.get(vertex1).add(vertex2))
+            return false;
+        this.adjacency.get(vertex2).add(vertex1);
+        return true;
     }    
 
     /**
@@ -45,7 +72,12 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean removeEdge(E vertex1, E vertex2) {
-        
+        if (!isValidPair(vertex1, vertex2))
+            return false;
+        if (!this.adjacency.get(vertex1).remove(vertex2))
+            return false;
+        this.adjacency.get(vertex2).remove(vertex1);
+        return true;
     }
 
     /**
@@ -53,7 +85,7 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean isAdjacent(E vertex1, E vertex2) {
-        
+        return isValidPair(vertex1, vertex2) && this.adjacency.get(vertex1).contains(vertex2);
     }
 
     /**
@@ -61,7 +93,9 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public Iterable<E> getNeighbors(E vertex) {
-        
+        if (vertex == null || !this.adjacency.containsKey(vertex))
+            return new HashSet<>();
+        return this.adjacency.get(vertex);
     }
 
     /**
@@ -69,7 +103,20 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public Iterable<E> getAllVertices() {
-        
+        return this.adjacency.keySet();
+    }
+
+    /**
+     * Checks the valid argument conditions shared by the edge methods:
+     * both the vertices exist in the graph and vertex1 does not equal vertex2
+     * 
+     * @param vertex1 the first vertex
+     * @param vertex2 the second vertex
+     * @return true if the pair of vertices can have an edge between them
+     */
+    private boolean isValidPair(E vertex1, E vertex2) {
+        return vertex1 != null && vertex2 != null && !vertex1.equals(vertex2)
+                && this.adjacency.containsKey(vertex1) && this.adjacency.containsKey(vertex2);
     }
 
 }
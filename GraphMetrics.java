@@ -0,0 +1,390 @@
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters, build phase timers and query latency histograms of a {@link GraphProcessor},
+ * see {@link GraphProcessor#setMetricsEnabled(boolean)}
+ *
+ * Everything is recorded without locks, into {@link LongAdder}s and {@link LatencyHistogram}s, so the metrics can be
+ * recorded from any thread and read at any time, either as a {@link Snapshot} or through JMX once registered
+ * with {@link #registerMBean(String)}. A processor without metrics records nothing and pays a null check per
+ * recording site.
+ */
+public class GraphMetrics implements GraphMetricsMXBean {
+
+    /**
+     * Timed phases of building the graph and its path data
+     */
+    public enum Phase {
+        /**
+         * reading the words of a dictionary file
+         */
+        READ,
+        /**
+         * adding the words of a {@link GraphProcessor#populateGraph(String)} or
+         * {@link GraphProcessor#addWords(java.util.Iterator)} call as vertices and finding their edges
+         */
+        BUILD,
+        /**
+         * {@link GraphProcessor#shortestPathPrecomputation()}
+         */
+        PRECOMPUTE,
+        /**
+         * bringing the cached trees and the distance matrix up to date with new edges
+         */
+        UPDATE
+    }
+
+    private final LongAdder verticesAdded;
+
+    private final LongAdder edgesAdded;
+
+    private final LongAdder adjacencyTests;
+
+    private final LongAdder nodesVisited;
+
+    /**
+     * Time spent in every phase
+     */
+    private final EnumMap<Phase, LongAdder> phaseNanos;
+
+    /**
+     * Number of times every phase ran
+     */
+    private final EnumMap<Phase, LongAdder> phaseCounts;
+
+    private final LatencyHistogram pathQueries;
+
+    private final LatencyHistogram distanceQueries;
+
+    /**
+     * Name under which the metrics are registered, null if they are not
+     */
+    private ObjectName objectName;
+
+    /**
+     * Constructs metrics with every counter at 0
+     */
+    public GraphMetrics() {
+        this.verticesAdded = new LongAdder();
+        this.edgesAdded = new LongAdder();
+        this.adjacencyTests = new LongAdder();
+        this.nodesVisited = new LongAdder();
+        this.phaseNanos = new EnumMap<>(Phase.class);
+        this.phaseCounts = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            this.phaseNanos.put(phase, new LongAdder());
+            this.phaseCounts.put(phase, new LongAdder());
+        }
+        this.pathQueries = new LatencyHistogram();
+        this.distanceQueries = new LatencyHistogram();
+    }
+
+    /**
+     * Counts added vertices
+     *
+     * @param count number of vertices
+     */
+    public void verticesAdded(long count) {
+        this.verticesAdded.add(count);
+    }
+
+    /**
+     * Counts added edges
+     *
+     * @param count number of edges
+     */
+    public void edgesAdded(long count) {
+        this.edgesAdded.add(count);
+    }
+
+    /**
+     * Counts pairs of words compared for adjacency
+     *
+     * @param count number of pairs
+     */
+    public void adjacencyTests(long count) {
+        this.adjacencyTests.add(count);
+    }
+
+    /**
+     * Counts vertices labelled by a breadth first search
+     *
+     * @param count number of vertices
+     */
+    public void nodesVisited(long count) {
+        this.nodesVisited.add(count);
+    }
+
+    /**
+     * Records a run of a phase
+     *
+     * @param phase the phase
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     */
+    public void phaseDone(Phase phase, long startNanos) {
+        this.phaseNanos.get(phase).add(System.nanoTime() - startNanos);
+        this.phaseCounts.get(phase).increment();
+    }
+
+    /**
+     * Records the latency of a path query
+     *
+     * @param startNanos {@link System#nanoTime()} when the query started
+     */
+    public void pathQueryDone(long startNanos) {
+        this.pathQueries.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records the latency of a distance query
+     *
+     * @param startNanos {@link System#nanoTime()} when the query started
+     */
+    public void distanceQueryDone(long startNanos) {
+        this.distanceQueries.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Copies all the metrics. Values recorded concurrently may or may not be in the copy.
+     *
+     * @return the copy
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, under
+     * {@code wordladder:type=GraphMetrics,name=<name>}. Replaces any earlier registration of these metrics.
+     *
+     * @param name name of the metrics, quoted if needed
+     * @return the object name of the metrics
+     * @throws JMException if the metrics can not be registered, for example if the name is taken
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        unregisterMBean();
+        ObjectName objectName = new ObjectName("wordladder:type=GraphMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server, if they are registered
+     *
+     * @throws JMException if the metrics can not be unregistered
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (this.objectName == null)
+            return;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        this.objectName = null;
+    }
+
+    @Override
+    public long getVerticesAdded() {
+        return this.verticesAdded.sum();
+    }
+
+    @Override
+    public long getEdgesAdded() {
+        return this.edgesAdded.sum();
+    }
+
+    @Override
+    public long getAdjacencyTests() {
+        return this.adjacencyTests.sum();
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return this.nodesVisited.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseNanos() {
+        return sums(this.phaseNanos);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return sums(this.phaseCounts);
+    }
+
+    @Override
+    public long getPathQueryCount() {
+        return this.pathQueries.snapshot().count();
+    }
+
+    @Override
+    public long getPathQueryP50Nanos() {
+        return this.pathQueries.snapshot().percentile(50);
+    }
+
+    @Override
+    public long getPathQueryP99Nanos() {
+        return this.pathQueries.snapshot().percentile(99);
+    }
+
+    @Override
+    public long getPathQueryP999Nanos() {
+        return this.pathQueries.snapshot().percentile(99.9);
+    }
+
+    @Override
+    public long getPathQueryMaxNanos() {
+        return this.pathQueries.snapshot().max();
+    }
+
+    @Override
+    public long getDistanceQueryCount() {
+        return this.distanceQueries.snapshot().count();
+    }
+
+    @Override
+    public long getDistanceQueryP50Nanos() {
+        return this.distanceQueries.snapshot().percentile(50);
+    }
+
+    @Override
+    public long getDistanceQueryP99Nanos() {
+        return this.distanceQueries.snapshot().percentile(99);
+    }
+
+    @Override
+    public long getDistanceQueryP999Nanos() {
+        return this.distanceQueries.snapshot().percentile(99.9);
+    }
+
+    @Override
+    public long getDistanceQueryMaxNanos() {
+        return this.distanceQueries.snapshot().max();
+    }
+
+    @Override
+    public void reset() {
+        this.verticesAdded.reset();
+        this.edgesAdded.reset();
+        this.adjacencyTests.reset();
+        this.nodesVisited.reset();
+        for (Phase phase : Phase.values()) {
+            this.phaseNanos.get(phase).reset();
+            this.phaseCounts.get(phase).reset();
+        }
+        this.pathQueries.reset();
+        this.distanceQueries.reset();
+    }
+
+    /**
+     * Sums adders keyed by phase
+     */
+    private static Map<String, Long> sums(EnumMap<Phase, LongAdder> adders) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        for (Map.Entry<Phase, LongAdder> entry : adders.entrySet())
+            sums.put(entry.getKey().name(), entry.getValue().sum());
+        return Collections.unmodifiableMap(sums);
+    }
+
+    /**
+     * All the metrics at one point in time
+     */
+    public static final class Snapshot {
+
+        private final long verticesAdded;
+
+        private final long edgesAdded;
+
+        private final long adjacencyTests;
+
+        private final long nodesVisited;
+
+        private final EnumMap<Phase, Long> phaseNanos;
+
+        private final EnumMap<Phase, Long> phaseCounts;
+
+        private final LatencyHistogram.Snapshot pathQueries;
+
+        private final LatencyHistogram.Snapshot distanceQueries;
+
+        private Snapshot(GraphMetrics metrics) {
+            this.verticesAdded = metrics.verticesAdded.sum();
+            this.edgesAdded = metrics.edgesAdded.sum();
+            this.adjacencyTests = metrics.adjacencyTests.sum();
+            this.nodesVisited = metrics.nodesVisited.sum();
+            this.phaseNanos = new EnumMap<>(Phase.class);
+            this.phaseCounts = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                this.phaseNanos.put(phase, metrics.phaseNanos.get(phase).sum());
+                this.phaseCounts.put(phase, metrics.phaseCounts.get(phase).sum());
+            }
+            this.pathQueries = metrics.pathQueries.snapshot();
+            this.distanceQueries = metrics.distanceQueries.snapshot();
+        }
+
+        /**
+         * @return number of vertices added to the graph
+         */
+        public long verticesAdded() {
+            return this.verticesAdded;
+        }
+
+        /**
+         * @return number of edges added to the graph
+         */
+        public long edgesAdded() {
+            return this.edgesAdded;
+        }
+
+        /**
+         * @return number of pairs of words compared for adjacency
+         */
+        public long adjacencyTests() {
+            return this.adjacencyTests;
+        }
+
+        /**
+         * @return number of vertices labelled by breadth first searches answering queries
+         */
+        public long nodesVisited() {
+            return this.nodesVisited;
+        }
+
+        /**
+         * @param phase a phase
+         * @return total time spent in the phase, in nanoseconds
+         */
+        public long phaseNanos(Phase phase) {
+            return this.phaseNanos.get(phase);
+        }
+
+        /**
+         * @param phase a phase
+         * @return number of times the phase ran
+         */
+        public long phaseCount(Phase phase) {
+            return this.phaseCounts.get(phase);
+        }
+
+        /**
+         * @return latencies of {@link GraphProcessor#getShortestPath(String, String)}
+         */
+        public LatencyHistogram.Snapshot pathQueries() {
+            return this.pathQueries;
+        }
+
+        /**
+         * @return latencies of {@link GraphProcessor#getShortestDistance(String, String)}
+         */
+        public LatencyHistogram.Snapshot distanceQueries() {
+            return this.distanceQueries;
+        }
+    }
+}
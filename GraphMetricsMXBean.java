@@ -0,0 +1,94 @@
+import java.util.Map;
+
+/**
+ * Management interface of {@link GraphMetrics}, read through JMX once registered with
+ * {@link GraphMetrics#registerMBean(String)}. Times are in nanoseconds.
+ */
+public interface GraphMetricsMXBean {
+
+    /**
+     * @return number of vertices added to the graph
+     */
+    long getVerticesAdded();
+
+    /**
+     * @return number of edges added to the graph
+     */
+    long getEdgesAdded();
+
+    /**
+     * @return number of pairs of words compared with {@link WordProcessor#isAdjacent(String, String)}, by
+     *         {@link GraphProcessor.BuildMode#PAIRWISE} only: the other build modes look the neighbours up
+     */
+    long getAdjacencyTests();
+
+    /**
+     * @return number of vertices labelled by breadth first searches answering queries
+     */
+    long getNodesVisited();
+
+    /**
+     * @return total time spent in every build phase, keyed by {@link GraphMetrics.Phase} name
+     */
+    Map<String, Long> getPhaseNanos();
+
+    /**
+     * @return number of times every build phase ran, keyed by {@link GraphMetrics.Phase} name
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * @return number of {@link GraphProcessor#getShortestPath(String, String)} calls
+     */
+    long getPathQueryCount();
+
+    /**
+     * @return median latency of {@link GraphProcessor#getShortestPath(String, String)}
+     */
+    long getPathQueryP50Nanos();
+
+    /**
+     * @return 99th percentile latency of {@link GraphProcessor#getShortestPath(String, String)}
+     */
+    long getPathQueryP99Nanos();
+
+    /**
+     * @return 99.9th percentile latency of {@link GraphProcessor#getShortestPath(String, String)}
+     */
+    long getPathQueryP999Nanos();
+
+    /**
+     * @return largest latency of {@link GraphProcessor#getShortestPath(String, String)}
+     */
+    long getPathQueryMaxNanos();
+
+    /**
+     * @return number of {@link GraphProcessor#getShortestDistance(String, String)} calls
+     */
+    long getDistanceQueryCount();
+
+    /**
+     * @return median latency of {@link GraphProcessor#getShortestDistance(String, String)}
+     */
+    long getDistanceQueryP50Nanos();
+
+    /**
+     * @return 99th percentile latency of {@link GraphProcessor#getShortestDistance(String, String)}
+     */
+    long getDistanceQueryP99Nanos();
+
+    /**
+     * @return 99.9th percentile latency of {@link GraphProcessor#getShortestDistance(String, String)}
+     */
+    long getDistanceQueryP999Nanos();
+
+    /**
+     * @return largest latency of {@link GraphProcessor#getShortestDistance(String, String)}
+     */
+    long getDistanceQueryMaxNanos();
+
+    /**
+     * Clears all the counters, timers and histograms
+     */
+    void reset();
+}
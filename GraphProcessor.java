@@ -1,9 +1,19 @@
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -37,16 +47,425 @@ import java.util.stream.Stream;
  */
 public class GraphProcessor {
 
+    /**
+     * Strategies used by {@link #populateGraph(String)} to find the edges of newly added words
+     */
+    public enum BuildMode {
+        /**
+         * compares every new word with every vertex using {@link WordProcessor#isAdjacent(String, String)}
+         */
+        PAIRWISE,
+        /**
+         * looks up the neighbours of every new word in a {@link WordIndex}
+         */
+        INDEXED,
+        /**
+         * searches pairs of length buckets as separate tasks of the common {@link ForkJoinPool}, see
+         * {@link ParallelEdgeFinder}
+         */
+        PARALLEL,
+        /**
+         * walks a {@link WordTrie} of the words with a budget of one edit to find the neighbours of every new word
+         */
+        TRIE
+    }
+
+    /**
+     * Strategies used by {@link #getShortestPath(String, String)} and {@link #getShortestDistance(String, String)}.
+     * All strategies return the same paths.
+     */
+    public enum PathStrategy {
+        /**
+         * reads the path from the shortest path tree of the first word, kept in a bounded cache
+         */
+        TREE_CACHE,
+        /**
+         * searches from both words at once with a {@link BidirectionalSearch}, without caching anything
+         */
+        BIDIRECTIONAL,
+        /**
+         * reads the distances from a {@link DistanceMatrix} of all pairs, one byte per pair, computed in parallel
+         * by {@link GraphProcessor#shortestPathPrecomputation()}; beyond {@link DistanceMatrix#MAX_IDS} words the
+         * matrix only fits in a distance file, see {@link GraphProcessor#setDistanceFile(String)}, and without one
+         * the queries search like {@link #BIDIRECTIONAL}
+         */
+        ALL_PAIRS,
+        /**
+         * searches from the first word towards the second with an {@link AStarSearch}, guided by a lower bound of
+         * the number of steps left, see {@link GraphProcessor#setHeuristic(AStarSearch.Heuristic)}
+         */
+        A_STAR,
+        /**
+         * searches like {@link #A_STAR}, with the lower bound tightened and the search bounded by the distances to a
+         * few landmark words, see {@link GraphProcessor#setLandmarks(int, LandmarkIndex.Selection)}
+         */
+        LANDMARKS,
+        /**
+         * picks {@link #ALL_PAIRS}, {@link #LANDMARKS} or {@link #BIDIRECTIONAL} from the size of the graph and a
+         * memory budget with a {@link PrecomputationPlanner}, see {@link GraphProcessor#setMemoryBudget(long)}
+         */
+        AUTO
+    }
+
     /**
      * Graph which stores the dictionary words and their associated connections
      */
-    private GraphADT<String> graph;
+    private CompactGraph<String> graph;
+
+    /**
+     * Strategy used to find the edges of newly added words
+     */
+    private BuildMode buildMode;
+
+    /**
+     * Strategy used to answer path queries
+     */
+    private PathStrategy pathStrategy;
+
+    /**
+     * Strategy which answers the path queries, the one picked by {@link #plan} with {@link PathStrategy#AUTO},
+     * null until it is picked
+     */
+    private PathStrategy activeStrategy;
+
+    /**
+     * Largest number of bytes of the path data picked by {@link PathStrategy#AUTO}, see {@link #setMemoryBudget(long)}
+     */
+    private long memoryBudget;
+
+    /**
+     * Last plan of {@link PathStrategy#AUTO}, null if none
+     */
+    private PrecomputationPlanner.Plan plan;
+
+    /**
+     * Number of shortest path trees cached by default, see {@link #setPathCacheSize(int)}
+     */
+    public static final int DEFAULT_PATH_CACHE_SIZE = 128;
+
+    /**
+     * Shortest path trees of the most recently queried source words
+     */
+    private ShortestPathTreeCache pathCache;
+
+    /**
+     * Scratch space of the {@link PathStrategy#BIDIRECTIONAL} path queries
+     */
+    private BidirectionalSearch bidirectionalSearch;
+
+    /**
+     * Scratch space of the {@link PathStrategy#A_STAR} path queries
+     */
+    private AStarSearch aStarSearch;
+
+    /**
+     * Number of landmarks picked by default, see {@link #setLandmarks(int, LandmarkIndex.Selection)}
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+    /**
+     * Number of landmarks of {@link #landmarkIndex}
+     */
+    private int landmarkCount;
+
+    /**
+     * Way to pick the landmarks of {@link #landmarkIndex}
+     */
+    private LandmarkIndex.Selection landmarkSelection;
+
+    /**
+     * Distances from the landmarks, built on first use and updated with the edges added and removed since
+     */
+    private LandmarkIndex landmarkIndex;
+
+    /**
+     * Ids of the endpoints of the edges added since the cached shortest path trees were last updated, two per edge
+     */
+    private IntList pendingEdges;
+
+    /**
+     * Ids of the endpoints of the edges removed since the distance matrix and the landmarks were last updated,
+     * two per edge, only kept if there is a matrix or landmarks to update
+     */
+    private IntList removedEdges;
+
+    /**
+     * Version of {@link #graph} which the components, the word indexes and the path data reflect,
+     * see {@link CompactGraph#version()}
+     */
+    private long graphVersion;
+
+    /**
+     * Distances between all pairs of words, only kept with {@link PathStrategy#ALL_PAIRS}
+     */
+    private DistanceMatrix distanceMatrix;
+
+    /**
+     * File which holds the distance matrix, null to keep it on the heap
+     */
+    private Path distanceFile;
+
+    /**
+     * Connected components of {@link #graph}, so that queries between words without a path return at once
+     */
+    private ComponentIndex components;
+
+    /**
+     * Counters, timers and latency histograms, null unless enabled with {@link #setMetricsEnabled(boolean)}
+     */
+    private GraphMetrics metrics;
+
+    /**
+     * Index over all the vertices of {@link #graph}, built on first use by {@link BuildMode#INDEXED}
+     * and dropped whenever words are added without it
+     */
+    private WordIndex wordIndex;
+
+    /**
+     * Trie of all the vertices of {@link #graph}, built on first use by {@link BuildMode#TRIE}
+     * and dropped whenever words are added without it
+     */
+    private WordTrie wordTrie;
+
+    /**
+     * Largest number of edits between adjacent words, see {@link #setMaxEdits(int)}
+     */
+    private int maxEdits;
+
+    /**
+     * Deletion index of all the vertices of {@link #graph}, built on first use when words more than one edit apart
+     * are adjacent and dropped whenever words are added without it
+     */
+    private DeletionIndex deletionIndex;
 
     /**
      * Constructor for this class. Initializes instances variables to set the starting state of the object
      */
     public GraphProcessor() {
-        this.graph = new Graph<>();
+        this.graph = new CompactGraph<>();
+        this.buildMode = BuildMode.INDEXED;
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.maxEdits = 1;
+        this.deletionIndex = null;
+        this.pathCache = new ShortestPathTreeCache(DEFAULT_PATH_CACHE_SIZE);
+        this.pathStrategy = PathStrategy.TREE_CACHE;
+        this.activeStrategy = PathStrategy.TREE_CACHE;
+        this.memoryBudget = PrecomputationPlanner.defaultMemoryBudget();
+        this.bidirectionalSearch = new BidirectionalSearch();
+        this.aStarSearch = new AStarSearch(AStarSearch.Heuristic.EDIT);
+        this.landmarkCount = DEFAULT_LANDMARK_COUNT;
+        this.landmarkSelection = LandmarkIndex.Selection.FARTHEST;
+        this.pendingEdges = new IntList();
+        this.removedEdges = new IntList();
+        this.components = new ComponentIndex();
+        this.graphVersion = this.graph.version();
+    }
+
+    /**
+     * Sets the strategy used by subsequent calls to {@link #populateGraph(String)}.
+     * All strategies build the same graph.
+     * 
+     * @param buildMode the strategy, {@link BuildMode#INDEXED} by default
+     */
+    public void setBuildMode(BuildMode buildMode) {
+        if (buildMode != null)
+            this.buildMode = buildMode;
+    }
+
+    /**
+     * Sets the largest number of edits, replacements, insertions or deletions of a char, between adjacent words.
+     * With 1, the default, words are adjacent as defined by {@link WordProcessor#isAdjacent(String, String)}.
+     * 
+     * With more, every pair is compared by a {@link BoundedEditDistance} with {@link BuildMode#PAIRWISE}, and
+     * the candidate neighbours of every new word are looked up in a {@link DeletionIndex} with the other build
+     * modes, which is fast for 2 edits and grows as the length of the words to the power of the number of edits.
+     * The edges of the words already in the graph are found again, and the paths computed so far are dropped.
+     * 
+     * @param maxEdits number of edits, at least 1
+     */
+    public void setMaxEdits(int maxEdits) {
+        if (maxEdits < 1 || maxEdits == this.maxEdits)
+            return;
+        this.maxEdits = maxEdits;
+        this.aStarSearch.setMaxEdits(maxEdits);
+        List<String> words = new ArrayList<>();
+        for (String vertex : this.graph.getAllVertices())
+            words.add(vertex);
+        this.graph = new CompactGraph<>();
+        this.components = new ComponentIndex();
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        this.distanceMatrix = null;
+        this.landmarkIndex = null;
+        this.pathCache.clear();
+        this.pendingEdges.clear();
+        this.removedEdges.clear();
+        this.graphVersion = this.graph.version();
+        addAll(words);
+    }
+
+    /**
+     * Gets the largest number of edits between adjacent words
+     * 
+     * @return number of edits, see {@link #setMaxEdits(int)}
+     */
+    public int getMaxEdits() {
+        return this.maxEdits;
+    }
+
+    /**
+     * Sets the strategy used by subsequent path queries.
+     * {@link PathStrategy#BIDIRECTIONAL} suits one-off queries between unrelated words, while
+     * {@link PathStrategy#TREE_CACHE} pays off when many queries share their first word.
+     * {@link PathStrategy#AUTO} picks a strategy by itself, on the next call to
+     * {@link #shortestPathPrecomputation()} or query.
+     * 
+     * @param pathStrategy the strategy, {@link PathStrategy#TREE_CACHE} by default
+     */
+    public void setPathStrategy(PathStrategy pathStrategy) {
+        if (pathStrategy == null)
+            return;
+        this.pathStrategy = pathStrategy;
+        this.plan = null;
+        this.activeStrategy = pathStrategy == PathStrategy.AUTO ? null : pathStrategy;
+        if (pathStrategy != PathStrategy.ALL_PAIRS)
+            this.distanceMatrix = null;
+    }
+
+    /**
+     * Sets the largest number of bytes of path data which {@link PathStrategy#AUTO} may pick: the strategy is picked
+     * again on the next call to {@link #shortestPathPrecomputation()} or query
+     * 
+     * @param bytes number of bytes, a quarter of the largest heap by default, at most 0 for the default
+     */
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes > 0 ? bytes : PrecomputationPlanner.defaultMemoryBudget();
+        if (this.pathStrategy == PathStrategy.AUTO)
+            this.activeStrategy = null;
+    }
+
+    /**
+     * Gets the strategy picked by {@link PathStrategy#AUTO} with its estimated memory and precomputation time
+     * 
+     * @return the plan, null unless the path strategy is {@link PathStrategy#AUTO} and a strategy was picked
+     */
+    public PrecomputationPlanner.Plan getPrecomputationPlan() {
+        return this.plan;
+    }
+
+    /**
+     * Sets the landmarks of {@link PathStrategy#LANDMARKS} and {@link #getApproximateDistance(String, String)}.
+     * Every landmark takes 2 bytes per word and one breadth first search to build; more landmarks give tighter
+     * bounds, which cost more per word. The landmarks are picked again on next use.
+     * 
+     * @param count number of landmarks, {@link #DEFAULT_LANDMARK_COUNT} by default
+     * @param selection way to pick the landmarks, {@link LandmarkIndex.Selection#FARTHEST} by default
+     */
+    public void setLandmarks(int count, LandmarkIndex.Selection selection) {
+        if (count < 1 || selection == null)
+            return;
+        this.landmarkCount = count;
+        this.landmarkSelection = selection;
+        this.landmarkIndex = null;
+        if (this.pathStrategy == PathStrategy.AUTO)
+            this.activeStrategy = null;
+    }
+
+    /**
+     * Sets the heuristic of the {@link PathStrategy#A_STAR} path queries. All heuristics return the same paths,
+     * the edit distance visits fewer words but costs more per word.
+     * 
+     * @param heuristic the heuristic, {@link AStarSearch.Heuristic#EDIT} by default
+     */
+    public void setHeuristic(AStarSearch.Heuristic heuristic) {
+        if (heuristic != null)
+            this.aStarSearch.setHeuristic(heuristic);
+    }
+
+    /**
+     * Sets the file which holds the distances between all pairs of words with {@link PathStrategy#ALL_PAIRS}.
+     * The file is memory mapped, so that the distances are held by the page cache of the operating system instead
+     * of the heap. It is written by {@link #shortestPathPrecomputation()}, unless it was already written for the
+     * same words and edges, possibly by another process: several processes loading the same dictionaries with the
+     * same {@link #setMaxEdits(int)} share one file.
+     * If the file can not be written the distances are kept on the heap.
+     * 
+     * @param filepath path of the file, null to keep the distances on the heap, which is the default
+     */
+    public void setDistanceFile(String filepath) {
+        this.distanceFile = filepath == null ? null : Paths.get(filepath);
+        this.distanceMatrix = null;
+    }
+
+    /**
+     * Sets the number of source words whose shortest path trees are cached by the path queries.
+     * A tree takes 8 bytes per vertex.
+     * 
+     * @param size number of trees, {@link #DEFAULT_PATH_CACHE_SIZE} by default
+     */
+    public void setPathCacheSize(int size) {
+        this.pathCache.setCapacity(size);
+    }
+
+    /**
+     * Gets the number of path queries answered from a cached shortest path tree
+     * 
+     * @return the hit count
+     */
+    public long getPathCacheHits() {
+        return this.pathCache.getHitCount();
+    }
+
+    /**
+     * Gets the number of path queries which had to run a breadth first search
+     * 
+     * @return the miss count
+     */
+    public long getPathCacheMisses() {
+        return this.pathCache.getMissCount();
+    }
+        
+    /**
+     * Gets the number of connected components of the graph, words without any neighbour included
+     * 
+     * @return the component count
+     */
+    public int getComponentCount() {
+        checkGraph();
+        return this.components.componentCount();
+    }
+
+    /**
+     * Gets the number of connected components of every size
+     * 
+     * @return number of components keyed by their number of words, in ascending order of size
+     */
+    public SortedMap<Integer, Integer> getComponentSizeDistribution() {
+        checkGraph();
+        return this.components.sizeDistribution();
+    }
+
+    /**
+     * Switches the recording of {@link GraphMetrics} on or off. Switching them on again starts from 0.
+     * 
+     * @param enabled true to record metrics, off by default
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && this.metrics == null)
+            this.metrics = new GraphMetrics();
+        else if (!enabled)
+            this.metrics = null;
+    }
+
+    /**
+     * Gets the metrics recorded since they were switched on, see {@link #setMetricsEnabled(boolean)}
+     * 
+     * @return the live metrics, null if they are off
+     */
+    public GraphMetrics getMetrics() {
+        return this.metrics;
     }
         
     /**
@@ -56,16 +475,696 @@ public class GraphProcessor {
      * 
      * Reads a word from the file and adds it as a vertex to a graph.
      * Repeat for all words.
+     * The words are read with {@link WordProcessor#getWordTable(String)}, which parses the file in parallel.
      * 
      * For all possible pairs of vertices, finds if the pair of vertices is adjacent {@link WordProcessor#isAdjacent(String, String)}
      * If a pair is adjacent, adds an undirected and unweighted edge between the pair of vertices in the graph.
      * 
+     * With {@link BuildMode#INDEXED} the pairs are never enumerated: the neighbours of every new word are looked up
+     * in a {@link WordIndex} by its wildcard patterns and deletions, which finds exactly the adjacent pairs. With
+     * {@link BuildMode#TRIE} they are found by walking a {@link WordTrie} of the words within one edit of the new word.
+     * 
      * @param filepath file path to the dictionary
-     * @return Integer the number of vertices (words) added
+     * @return Integer the number of vertices (words) added, -1 if the file can not be read
      */
     public Integer populateGraph(String filepath) {
-        return 0;
+        GraphMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        List<String> words;
+        try {
+            words = WordProcessor.getWordTable(filepath).words();
+        } catch (IOException e) {
+            return -1;
+        }
+        if (metrics != null) {
+            metrics.phaseDone(GraphMetrics.Phase.READ, start);
+            start = System.nanoTime();
+        }
+        
+        checkGraph();
+        int added = addAll(words);
+        if (metrics != null)
+            metrics.phaseDone(GraphMetrics.Phase.BUILD, start);
+        return added;
+    }
     
+    /**
+     * Adds words to the graph as they arrive, with their edges to the words already in the graph
+     * 
+     * Every word is trimmed and uppercased like the lines of a dictionary file, see
+     * {@link WordProcessor#getWordStream(String)}; empty words and words already in the graph are skipped.
+     * The neighbours of every word are looked up as soon as it is read, in a {@link DeletionIndex} when words more
+     * than one edit apart are adjacent, in a {@link WordTrie} with {@link BuildMode#TRIE} and in a
+     * {@link WordIndex} otherwise, so nothing is buffered: the words can come from an
+     * unbounded source and memory only grows with the graph and the index.
+     * The graph can be queried between two words, but a query on a {@link CompactGraph} packs the rows changed since
+     * the previous one, which copies its arrays once (see {@link CompactGraph#freeze()}): that is linear in the size of
+     * the graph, so queries should come after batches of words rather than after every word of a large graph.
+     * 
+     * @param words the words, read until exhausted
+     * @return Integer the number of vertices (words) added
+     */
+    public Integer addWords(Iterator<String> words) {
+        GraphMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        checkGraph();
+        int added = 0;
+        while (words.hasNext()) {
+            String word = words.next();
+            if (word == null)
+                continue;
+            word = word.trim();
+            if (word.isEmpty())
+                continue;
+            word = word.toUpperCase();
+            boolean isAdded;
+            if (this.maxEdits > 1)
+                isAdded = addDeletions(word);
+            else if (this.buildMode == BuildMode.TRIE)
+                isAdded = addTrie(word);
+            else
+                isAdded = addIndexed(word);
+            if (isAdded)
+                added++;
+        }
+        if (metrics != null)
+            metrics.phaseDone(GraphMetrics.Phase.BUILD, start);
+        return added;
+    }
+    
+    /**
+     * Adds words to the graph as they arrive, see {@link #addWords(Iterator)}
+     * 
+     * @param words the words, consumed sequentially
+     * @return Integer the number of vertices (words) added
+     */
+    public Integer addWords(Stream<String> words) {
+        return addWords(words.iterator());
+    }
+    
+    /**
+     * Saves the graph and its distance matrix, if one was computed, to a binary snapshot, see {@link GraphSnapshot}.
+     * The graph is frozen first.
+     * 
+     * @param filepath path of the snapshot, replaced once complete
+     * @return Integer the number of vertices saved, -1 if the file can not be written
+     */
+    public Integer saveSnapshot(String filepath) {
+        checkGraph();
+        this.graph.freeze();
+        updatePathData();
+        try {
+            GraphSnapshot.write(Paths.get(filepath), this.graph, this.maxEdits, this.distanceMatrix);
+        } catch (IOException e) {
+            return -1;
+        }
+        return this.graph.vertexCount();
+    }
+
+    /**
+     * Replaces the graph by the one of a snapshot written by {@link #saveSnapshot(String)}, together with the
+     * largest number of edits between adjacent words it was built with, see {@link #setMaxEdits(int)}, and with its
+     * distance matrix if it has one and the path strategy is {@link PathStrategy#ALL_PAIRS} or
+     * {@link PathStrategy#AUTO}. The words and the adjacency are copied from a memory mapping of the file, while the
+     * distances stay mapped and every row is checked when first read; nothing is searched again. Path queries can be
+     * answered right away, and {@link #populateGraph(String)} adds to the loaded graph.
+     * 
+     * @param filepath path of the snapshot
+     * @return Integer the number of vertices loaded, -1 if the file can not be read or is corrupt,
+     *         in which case the graph is unchanged
+     */
+    public Integer loadSnapshot(String filepath) {
+        GraphSnapshot snapshot;
+        try {
+            snapshot = GraphSnapshot.read(Paths.get(filepath));
+        } catch (IOException e) {
+            return -1;
+        }
+        this.graph = snapshot.graph();
+        this.maxEdits = snapshot.maxEdits();
+        this.aStarSearch.setMaxEdits(this.maxEdits);
+        boolean allPairs = this.pathStrategy == PathStrategy.ALL_PAIRS || this.pathStrategy == PathStrategy.AUTO;
+        this.distanceMatrix = allPairs ? snapshot.distanceMatrix() : null;
+        if (this.pathStrategy == PathStrategy.AUTO)
+            this.activeStrategy = null;
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        this.landmarkIndex = null;
+        this.pathCache.clear();
+        this.pendingEdges.clear();
+        this.removedEdges.clear();
+        this.graphVersion = this.graph.version();
+        computeComponents();
+        return this.graph.vertexCount();
+    }
+    
+    /**
+     * Removes a word and its edges from the graph, for example a retired or filtered word
+     * 
+     * Nothing is computed again right away. The component of the word is marked dirty, and computed again on the
+     * next query in case it split; the other components are untouched. The cached shortest path trees which went
+     * through the word are dropped, the others still hold. The rows of the distance matrix and the landmarks from
+     * which a shortest path went through the word are searched again on the next query, the others are kept.
+     * 
+     * @param word the word, uppercase like the words of the dictionary
+     * @return true if the word was removed, false if it was not in the graph
+     */
+    public boolean removeWord(String word) {
+        checkGraph();
+        int id = this.graph.idOf(word);
+        if (id < 0)
+            return false;
+        IntList edges = new IntList();
+        for (String neighbor : this.graph.getNeighbors(word)) {
+            edges.add(id);
+            edges.add(this.graph.idOf(neighbor));
+        }
+        this.graph.removeVertex(word);
+        if (this.wordIndex != null)
+            this.wordIndex.remove(word);
+        if (this.wordTrie != null)
+            this.wordTrie.remove(word);
+        if (this.deletionIndex != null)
+            this.deletionIndex.remove(word);
+        this.components.remove(id);
+        edgesRemoved(edges);
+        return true;
+    }
+    
+    /**
+     * Removes the edge between two words, which stay in the graph. The path data are brought up to date the same
+     * way as by {@link #removeWord(String)}; a distance matrix in the file of {@link #setDistanceFile(String)}
+     * is written again, keyed by the remaining edges.
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return true if the edge was removed, false if there was no edge between the words
+     */
+    public boolean removeEdge(String word1, String word2) {
+        checkGraph();
+        if (!this.graph.removeEdge(word1, word2))
+            return false;
+        IntList edges = new IntList();
+        edges.add(this.graph.idOf(word1));
+        edges.add(this.graph.idOf(word2));
+        this.components.markDirty(edges.get(0));
+        edgesRemoved(edges);
+        return true;
+    }
+    
+    /**
+     * Brings the path data up to date with edges just removed from the graph: drops them from the edges waiting to
+     * be added to the path data, drops the cached trees which used them and remembers them for the next update
+     * of the distance matrix and the landmarks
+     * 
+     * @param edges ids of the endpoints of the removed edges, two per edge
+     */
+    private void edgesRemoved(IntList edges) {
+        this.graphVersion = this.graph.version();
+        if (this.pendingEdges.size() > 0) {
+            IntList pendingEdges = new IntList();
+            for (int i = 0; i < this.pendingEdges.size(); i += 2) {
+                int id1 = this.pendingEdges.get(i);
+                int id2 = this.pendingEdges.get(i + 1);
+                boolean removed = false;
+                for (int j = 0; j < edges.size() && !removed; j += 2)
+                    removed = (edges.get(j) == id1 && edges.get(j + 1) == id2)
+                            || (edges.get(j) == id2 && edges.get(j + 1) == id1);
+                if (!removed) {
+                    pendingEdges.add(id1);
+                    pendingEdges.add(id2);
+                }
+            }
+            this.pendingEdges = pendingEdges;
+        }
+        this.pathCache.removeEdges(edges);
+        if (this.distanceMatrix != null || this.landmarkIndex != null)
+            this.removedEdges.addAll(edges);
+    }
+    
+    /**
+     * Drops the word indexes and the path data if the graph was modified other than through this processor, since
+     * they can not tell what changed, and computes the dirty components again
+     */
+    private void checkGraph() {
+        if (this.graph.version() != this.graphVersion) {
+            this.wordIndex = null;
+            this.wordTrie = null;
+            this.deletionIndex = null;
+            this.distanceMatrix = null;
+            this.landmarkIndex = null;
+            this.pathCache.clear();
+            this.pendingEdges.clear();
+            this.removedEdges.clear();
+            computeComponents();
+            this.graphVersion = this.graph.version();
+        }
+        if (this.components.isDirty())
+            this.components.repair(this.graph.offsets(), this.graph.targets());
+    }
+    
+    /**
+     * Computes the connected components of the whole graph
+     */
+    private void computeComponents() {
+        this.components = new ComponentIndex();
+        int[] offsets = this.graph.offsets();
+        int[] targets = this.graph.targets();
+        for (int id = 0; id < this.graph.idCount(); id++) {
+            this.components.add(id);
+            if (this.graph.vertexAt(id) == null)
+                this.components.remove(id);
+        }
+        for (int id = 0; id < this.graph.idCount(); id++) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++)
+                this.components.union(id, targets[i]);
+        }
+    }
+    
+    /**
+     * Adds the new words as vertices and finds their edges with the current {@link BuildMode}
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addAll(List<String> words) {
+        if (this.maxEdits > 1)
+            return this.buildMode == BuildMode.PAIRWISE ? addPairwiseWithinEdits(words) : addDeletions(words);
+        if (this.buildMode == BuildMode.INDEXED)
+            return addIndexed(words);
+        if (this.buildMode == BuildMode.TRIE)
+            return addTrie(words);
+        if (this.buildMode == BuildMode.PARALLEL)
+            return addParallel(words);
+        return addPairwise(words);
+    }
+    
+    /**
+     * Adds the new words as vertices and finds their edges by looking them up in {@link #wordIndex}
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addIndexed(List<String> words) {
+        int added = 0;
+        for (String word : words) {
+            if (addIndexed(word))
+                added++;
+        }
+        return added;
+    }
+    
+    /**
+     * Adds a word as a vertex and its edges, looked up in {@link #wordIndex} which is built first if needed
+     * 
+     * @param word word to be added
+     * @return true if the word was added, false if already in the graph
+     */
+    private boolean addIndexed(String word) {
+        if (this.wordIndex == null) {
+            this.wordIndex = new WordIndex();
+            for (String vertex : this.graph.getAllVertices())
+                this.wordIndex.add(vertex);
+        }
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        if (!addVertex(word))
+            return false;
+        for (String neighbor : this.wordIndex.add(word))
+            addEdge(word, neighbor);
+        return true;
+    }
+    
+    /**
+     * Adds the new words as vertices and finds their edges by walking {@link #wordTrie}
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addTrie(List<String> words) {
+        int added = 0;
+        for (String word : words) {
+            if (addTrie(word))
+                added++;
+        }
+        return added;
+    }
+    
+    /**
+     * Adds a word as a vertex and its edges, found in {@link #wordTrie} which is built first if needed
+     * 
+     * @param word word to be added
+     * @return true if the word was added, false if already in the graph
+     */
+    private boolean addTrie(String word) {
+        if (this.wordTrie == null) {
+            this.wordTrie = new WordTrie();
+            for (String vertex : this.graph.getAllVertices())
+                this.wordTrie.add(vertex);
+        }
+        this.wordIndex = null;
+        this.deletionIndex = null;
+        if (!addVertex(word))
+            return false;
+        for (String neighbor : this.wordTrie.add(word))
+            addEdge(word, neighbor);
+        return true;
+    }
+    
+    /**
+     * Adds the new words as vertices and finds their edges within {@link #maxEdits} edits in {@link #deletionIndex}
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addDeletions(List<String> words) {
+        int added = 0;
+        for (String word : words) {
+            if (addDeletions(word))
+                added++;
+        }
+        return added;
+    }
+    
+    /**
+     * Adds a word as a vertex and its edges, found in {@link #deletionIndex} which is built first if needed
+     * 
+     * @param word word to be added
+     * @return true if the word was added, false if already in the graph
+     */
+    private boolean addDeletions(String word) {
+        if (this.deletionIndex == null || this.deletionIndex.maxEdits() != this.maxEdits) {
+            this.deletionIndex = new DeletionIndex(this.maxEdits);
+            for (String vertex : this.graph.getAllVertices())
+                this.deletionIndex.add(vertex);
+        }
+        this.wordIndex = null;
+        this.wordTrie = null;
+        if (!addVertex(word))
+            return false;
+        for (String neighbor : this.deletionIndex.add(word))
+            addEdge(word, neighbor);
+        return true;
+    }
+    
+    /**
+     * Adds the new words as vertices and compares every new word with every vertex with a
+     * {@link BoundedEditDistance}, for words more than one edit apart
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addPairwiseWithinEdits(List<String> words) {
+        List<String> newWords = new ArrayList<>();
+        for (String word : words) {
+            if (addVertex(word))
+                newWords.add(word);
+        }
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        
+        List<String> vertices = new ArrayList<>();
+        for (String vertex : this.graph.getAllVertices())
+            vertices.add(vertex);
+        if (this.metrics != null)
+            this.metrics.adjacencyTests((long) newWords.size() * vertices.size());
+        BoundedEditDistance kernel = new BoundedEditDistance();
+        for (String word : newWords) {
+            kernel.setPattern(word);
+            for (String vertex : vertices) {
+                // only the word itself is 0 edits away
+                int distance = kernel.distance(vertex, this.maxEdits);
+                if (distance > 0 && distance <= this.maxEdits)
+                    addEdge(word, vertex);
+            }
+        }
+        return newWords.size();
+    }
+    
+    /**
+     * Adds the new words as vertices and compares every new word with every vertex.
+     * ASCII words are compared with {@link WordProcessor#isAdjacent(byte[], byte[])}, others as Strings.
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addPairwise(List<String> words) {
+        List<String> newWords = new ArrayList<>();
+        for (String word : words) {
+            if (addVertex(word))
+                newWords.add(word);
+        }
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        
+        // encode every word once, so the inner loop runs the allocation free byte[] kernel
+        List<String> vertices = new ArrayList<>();
+        List<byte[]> encodedVertices = new ArrayList<>();
+        for (String vertex : this.graph.getAllVertices()) {
+            vertices.add(vertex);
+            encodedVertices.add(WordProcessor.encode(vertex));
+        }
+        if (this.metrics != null)
+            this.metrics.adjacencyTests((long) newWords.size() * vertices.size());
+        for (String word : newWords) {
+            byte[] encodedWord = WordProcessor.encode(word);
+            for (int i = 0; i < vertices.size(); i++) {
+                byte[] encodedVertex = encodedVertices.get(i);
+                boolean adjacent = encodedWord != null && encodedVertex != null
+                        ? WordProcessor.isAdjacent(encodedWord, encodedVertex)
+                        : WordProcessor.isAdjacent(word, vertices.get(i));
+                if (adjacent)
+                    addEdge(word, vertices.get(i));
+            }
+        }
+        return newWords.size();
+    }
+    
+    /**
+     * Adds the new words as vertices and finds their edges with a {@link ParallelEdgeFinder}.
+     * The finder only returns edges, which are then added to the graph from this thread.
+     * 
+     * @param words words to be added
+     * @return number of vertices added
+     */
+    private int addParallel(List<String> words) {
+        List<String> vertices = new ArrayList<>();
+        for (String vertex : this.graph.getAllVertices())
+            vertices.add(vertex);
+        int firstNew = vertices.size();
+        for (String word : words) {
+            if (addVertex(word))
+                vertices.add(word);
+        }
+        this.wordIndex = null;
+        this.wordTrie = null;
+        this.deletionIndex = null;
+        
+        String[] wordArray = vertices.toArray(new String[0]);
+        IntList edges = ParallelEdgeFinder.findEdges(wordArray, firstNew, ForkJoinPool.commonPool());
+        for (int i = 0; i < edges.size(); i += 2)
+            addEdge(wordArray[edges.get(i)], wordArray[edges.get(i + 1)]);
+        return wordArray.length - firstNew;
+    }
+    
+    /**
+     * Adds a word to the graph as a component of its own
+     * 
+     * @param word the word
+     * @return true if the word was added, false if already in the graph
+     */
+    private boolean addVertex(String word) {
+        if (this.graph.addVertex(word) == null)
+            return false;
+        this.graphVersion = this.graph.version();
+        this.components.add(this.graph.idOf(word));
+        if (this.metrics != null)
+            this.metrics.verticesAdded(1);
+        return true;
+    }
+    
+    /**
+     * Adds an edge to the graph, merging the components of its words and remembering it for the next update of the
+     * cached shortest path trees if there are any
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     */
+    private void addEdge(String word1, String word2) {
+        if (!this.graph.addEdge(word1, word2))
+            return;
+        this.graphVersion = this.graph.version();
+        int id1 = this.graph.idOf(word1);
+        int id2 = this.graph.idOf(word2);
+        this.components.union(id1, id2);
+        if (this.metrics != null)
+            this.metrics.edgesAdded(1);
+        if (this.pathCache.size() > 0 || this.distanceMatrix != null || this.landmarkIndex != null) {
+            this.pendingEdges.add(id1);
+            this.pendingEdges.add(id2);
+        }
+    }
+    
+    /**
+     * Brings the cached shortest path trees, the distance matrix and the landmarks up to date with the words and
+     * edges added and removed since they were last updated
+     */
+    private void updatePathData() {
+        boolean staleMatrix = this.distanceMatrix != null && (this.pendingEdges.size() > 0
+                || this.removedEdges.size() > 0 || this.distanceMatrix.idCount() < this.graph.idCount());
+        boolean staleLandmarks = this.landmarkIndex != null && (this.pendingEdges.size() > 0
+                || this.removedEdges.size() > 0 || this.landmarkIndex.idCount() != this.graph.idCount());
+        if (!staleMatrix && !staleLandmarks && this.pendingEdges.size() == 0 && this.removedEdges.size() == 0)
+            return;
+        GraphMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        if (staleMatrix) {
+            try {
+                this.distanceMatrix.update(this.graph.offsets(), this.graph.targets(), this.pendingEdges,
+                        this.removedEdges, this.distanceMatrix.isMapped() ? fingerprint() : 0,
+                        ForkJoinPool.commonPool());
+            } catch (IOException | IllegalArgumentException e) {
+                // computed again, on the heap if the file still can not be written
+                this.distanceMatrix = null;
+            }
+        }
+        if (staleLandmarks) {
+            if (this.landmarkIndex.idCount() <= this.graph.idCount())
+                this.landmarkIndex = this.landmarkIndex.update(this.graph.offsets(), this.graph.targets(),
+                        this.pendingEdges, this.removedEdges);
+            else
+                this.landmarkIndex = null;
+        }
+        this.removedEdges.clear();
+        if (this.pendingEdges.size() > 0) {
+            this.pathCache.addEdges(this.graph, this.pendingEdges);
+            this.pendingEdges.clear();
+        }
+        if (metrics != null)
+            metrics.phaseDone(GraphMetrics.Phase.UPDATE, start);
+    }
+    
+    /**
+     * Gets the distance matrix, computing it if needed
+     * 
+     * @return the up to date matrix, null if the graph has more than {@link DistanceMatrix#MAX_IDS} ids and the
+     *         matrix can not be kept in the distance file
+     */
+    private DistanceMatrix distanceMatrix() {
+        updatePathData();
+        if (this.distanceMatrix != null)
+            return this.distanceMatrix;
+        int[] offsets = this.graph.offsets();
+        int[] targets = this.graph.targets();
+        if (this.distanceFile != null) {
+            try {
+                long fingerprint = fingerprint();
+                this.distanceMatrix = DistanceMatrix.open(this.distanceFile, this.graph.idCount(), fingerprint);
+                if (this.distanceMatrix == null)
+                    this.distanceMatrix = DistanceMatrix.compute(offsets, targets, ForkJoinPool.commonPool(),
+                            this.distanceFile, fingerprint);
+                return this.distanceMatrix;
+            } catch (IOException e) {
+                // fall back to the heap
+            }
+        }
+        if (this.graph.idCount() > DistanceMatrix.MAX_IDS)
+            return null;
+        this.distanceMatrix = DistanceMatrix.compute(offsets, targets, ForkJoinPool.commonPool());
+        return this.distanceMatrix;
+    }
+    
+    /**
+     * Gets the strategy which answers the next path query: {@link PathStrategy#ALL_PAIRS} falls back to
+     * {@link PathStrategy#BIDIRECTIONAL} when there is no distance matrix, see {@link #distanceMatrix()}
+     * 
+     * @return the strategy, never {@link PathStrategy#AUTO}
+     */
+    private PathStrategy queryStrategy() {
+        PathStrategy strategy = strategy();
+        if (strategy == PathStrategy.ALL_PAIRS && distanceMatrix() == null)
+            return PathStrategy.BIDIRECTIONAL;
+        return strategy;
+    }
+    
+    /**
+     * Gets the landmark index, building it if needed
+     * 
+     * @return the up to date index
+     */
+    private LandmarkIndex landmarks() {
+        updatePathData();
+        if (this.landmarkIndex == null || this.landmarkIndex.idCount() != this.graph.idCount()) {
+            int count = this.plan != null && this.plan.strategy() == PathStrategy.LANDMARKS
+                    ? this.plan.landmarkCount() : this.landmarkCount;
+            this.landmarkIndex = LandmarkIndex.build(this.graph.offsets(), this.graph.targets(), count,
+                    this.landmarkSelection, ForkJoinPool.commonPool());
+        }
+        return this.landmarkIndex;
+    }
+    
+    /**
+     * Gets the strategy which answers the path queries, picking it first with {@link PathStrategy#AUTO} if needed
+     * 
+     * @return the strategy, never {@link PathStrategy#AUTO}
+     */
+    private PathStrategy strategy() {
+        if (this.activeStrategy == null)
+            plan();
+        return this.activeStrategy;
+    }
+    
+    /**
+     * Picks the strategy of {@link PathStrategy#AUTO} for the current graph and memory budget, and drops the path
+     * data the previous strategy kept and the new one does not use
+     */
+    private void plan() {
+        PrecomputationPlanner planner = new PrecomputationPlanner(this.memoryBudget,
+                PrecomputationPlanner.DEFAULT_MAX_BUILD_NANOS, ForkJoinPool.commonPool().getParallelism());
+        PrecomputationPlanner.Plan plan = planner.plan(this.graph.idCount(), this.graph.targets().length,
+                this.landmarkCount);
+        if (plan.strategy() != PathStrategy.ALL_PAIRS)
+            this.distanceMatrix = null;
+        if (this.plan == null || plan.landmarkCount() != this.plan.landmarkCount())
+            this.landmarkIndex = null;
+        this.plan = plan;
+        this.activeStrategy = plan.strategy();
+    }
+    
+    /**
+     * Hashes the words of the graph in id order, the largest number of edits between adjacent words and the edges,
+     * which together determine the whole graph: the same words are not enough once {@link #setMaxEdits(int)} or
+     * {@link #removeEdge(String, String)} changed the edges between them
+     * 
+     * @return 64 bit FNV-1a hash of the words, separated by newlines, then of the number of edits and of the
+     *         compressed rows, one int at a time
+     */
+    private long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (int id = 0; id < this.graph.idCount(); id++) {
+            String word = this.graph.vertexAt(id);
+            for (int i = 0; word != null && i < word.length(); i++)
+                hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        hash = (hash ^ this.maxEdits) * 0x100000001b3L;
+        for (int offset : this.graph.offsets())
+            hash = (hash ^ offset) * 0x100000001b3L;
+        for (int target : this.graph.targets())
+            hash = (hash ^ target) * 0x100000001b3L;
+        return hash;
+    }
+    
+    /**
+     * Gets the graph built so far, for tests
+     * 
+     * @return the graph
+     */
+    GraphADT<String> getGraph() {
+        return this.graph;
     }
 
     
@@ -82,13 +1181,108 @@ public class GraphProcessor {
      *  shortest path between cat and wheat is the following list of words:
      *     [cat, hat, heat, wheat]
      * 
+     * With {@link PathStrategy#TREE_CACHE} the path is read from the shortest path tree of word1, which is computed
+     * by a breadth first search unless it is cached. With {@link PathStrategy#BIDIRECTIONAL} it is found by searching
+     * from both words until the searches meet, and with {@link PathStrategy#A_STAR} or {@link PathStrategy#LANDMARKS}
+     * by searching from word1 towards word2 in order of a lower bound of the length of the path. When several
+     * shortest paths exist, every word of the path is preceded by its neighbour which comes first in the graph among
+     * those one step closer to word1.
+     * Words in different connected components are answered without any search.
+     * 
      * @param word1 first word
      * @param word2 second word
-     * @return List<String> list of the words
+     * @return List<String> list of the words, empty if either word is not in the graph,
+     *         if both words are equal or if there is no path between them
      */
     public List<String> getShortestPath(String word1, String word2) {
-        return null;
+        checkGraph();
+        GraphMetrics metrics = this.metrics;
+        if (metrics == null)
+            return shortestPath(word1, word2);
+        long start = System.nanoTime();
+        List<String> path = shortestPath(word1, word2);
+        metrics.pathQueryDone(start);
+        return path;
+    }
+    
+    /**
+     * Gets the shortest path between two words, see {@link #getShortestPath(String, String)}
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return list of the words of the path, empty if there is none
+     */
+    private List<String> shortestPath(String word1, String word2) {
+        List<String> path = new ArrayList<>();
+        int source = this.graph.idOf(word1);
+        int target = this.graph.idOf(word2);
+        if (source < 0 || target < 0 || source == target || !this.components.connected(source, target))
+            return path;
+        int[] ids = findPath(source, target);
+        if (ids != null) {
+            for (int id : ids)
+                path.add(this.graph.vertexAt(id));
+        }
+        return path;
+    }
+    
+    /**
+     * Gets every shortest path between two words, one at a time. The paths are not computed up front: the iterator
+     * holds one path and the distances of one breadth first search from word1, see {@link ShortestPathDag}, so
+     * memory stays linear in the number of words even when there are very many paths. The first path is the one
+     * of {@link #getShortestPath(String, String)}.
+     * 
+     * Words should not be removed while the iterator is in use: it follows the edges the graph had when this
+     * method was called.
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return iterator over the lists of the words of every path, empty if either word is not in the graph,
+     *         if both words are equal or if there is no path between them
+     */
+    public Iterator<List<String>> getAllShortestPaths(String word1, String word2) {
+        checkGraph();
+        int source = this.graph.idOf(word1);
+        int target = this.graph.idOf(word2);
+        if (source < 0 || target < 0 || source == target || !this.components.connected(source, target))
+            return Collections.emptyIterator();
+        Iterator<int[]> paths = ShortestPathDag.compute(this.graph.offsets(), this.graph.targets(), source, target)
+                .paths();
+        CompactGraph<String> graph = this.graph;
+        return new Iterator<List<String>>() {
+
+            @Override
+            public boolean hasNext() {
+                return paths.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                int[] ids = paths.next();
+                List<String> path = new ArrayList<>(ids.length);
+                for (int id : ids)
+                    path.add(graph.vertexAt(id));
+                return path;
+            }
+        };
+    }
     
+    /**
+     * Counts the shortest paths between two words without enumerating them, in time linear in the size of the
+     * graph, see {@link ShortestPathDag#count()}
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return number of the paths {@link #getAllShortestPaths(String, String)} returns, 0 if either word is not
+     *         in the graph, if both words are equal or if there is no path between them
+     */
+    public BigInteger getShortestPathCount(String word1, String word2) {
+        checkGraph();
+        int source = this.graph.idOf(word1);
+        int target = this.graph.idOf(word2);
+        if (source < 0 || target < 0 || source == target || !this.components.connected(source, target))
+            return BigInteger.ZERO;
+        return ShortestPathDag.compute(this.graph.offsets(), this.graph.targets(), source, target).count();
     }
     
     /**
@@ -104,20 +1298,207 @@ public class GraphProcessor {
      *  distance of the shortest path between cat and wheat, [cat, hat, heat, wheat]
      *   = 3 (the number of edges in the shortest path)
      * 
+     * The distance is found with the same strategy as the path, see {@link #getShortestPath(String, String)}.
+     * 
      * @param word1 first word
      * @param word2 second word
-     * @return Integer distance
+     * @return Integer distance, -1 if either word is not in the graph,
+     *         if both words are equal or if there is no path between them
      */
     public Integer getShortestDistance(String word1, String word2) {
-        return null;
+        checkGraph();
+        GraphMetrics metrics = this.metrics;
+        if (metrics == null)
+            return shortestDistance(word1, word2);
+        long start = System.nanoTime();
+        int distance = shortestDistance(word1, word2);
+        metrics.distanceQueryDone(start);
+        return distance;
+    }
+    
+    /**
+     * Gets the distance of the shortest path between two words, see {@link #getShortestDistance(String, String)}
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return the distance, -1 if there is no path
+     */
+    private int shortestDistance(String word1, String word2) {
+        int source = this.graph.idOf(word1);
+        int target = this.graph.idOf(word2);
+        if (source < 0 || target < 0 || source == target || !this.components.connected(source, target))
+            return -1;
+        PathStrategy strategy = queryStrategy();
+        if (strategy == PathStrategy.BIDIRECTIONAL || strategy == PathStrategy.A_STAR
+                || strategy == PathStrategy.LANDMARKS) {
+            int[] ids = findPath(source, target);
+            return ids == null ? -1 : ids.length - 1;
+        }
+        if (strategy == PathStrategy.ALL_PAIRS)
+            return distanceMatrix().distance(source, target);
+        return tree(source).distance(target);
+    }
+    
+    /**
+     * Gets an approximate distance of the shortest path between word1 and word2 in O(landmarks), without any search
+     * 
+     * The distance is the length of the shortest path through a landmark, at least the distance of the shortest
+     * path and exactly it when a landmark lies on a shortest path. Words which no landmark reaches, in a component
+     * without landmark, get the exact distance instead. See {@link #setLandmarks(int, LandmarkIndex.Selection)}.
+     * 
+     * @param word1 first word
+     * @param word2 second word
+     * @return Integer approximate distance, -1 if either word is not in the graph,
+     *         if both words are equal or if there is no path between them
+     */
+    public Integer getApproximateDistance(String word1, String word2) {
+        checkGraph();
+        int source = this.graph.idOf(word1);
+        int target = this.graph.idOf(word2);
+        if (source < 0 || target < 0 || source == target || !this.components.connected(source, target))
+            return -1;
+        int distance = landmarks().upperBound(source, target);
+        return distance != LandmarkIndex.UNREACHABLE ? distance : shortestDistance(word1, word2);
+    }
+    
+    /**
+     * Gets the distances of the shortest paths of many pairs of words
+     * 
+     * The pairs are grouped by their first word, and every distinct first word costs one breadth first search,
+     * which stops once it has reached all the second words of its group. The searches run in parallel in the common
+     * {@link ForkJoinPool}, and the distances of a group are passed to the consumer as soon as its search is done.
+     * With {@link PathStrategy#ALL_PAIRS} the distances are read from the distance matrix instead.
+     * Pairs which need no search, see {@link #getShortestDistance(String, String)}, are passed first, from the
+     * calling thread. Every distance is the one {@link #getShortestDistance(String, String)} returns.
+     * 
+     * The consumer may be called from several threads at once, but all the pairs of one first word are passed
+     * by one thread; this method returns once every pair has been passed. Pairs are passed as often as they occur.
+     * 
+     * @param pairs the pairs of words
+     * @param consumer receives every pair with its distance
+     */
+    public void getShortestDistances(Collection<WordPair> pairs, ObjIntConsumer<WordPair> consumer) {
+        checkGraph();
+        if (queryStrategy() == PathStrategy.ALL_PAIRS) {
+            for (WordPair pair : pairs)
+                consumer.accept(pair, shortestDistance(pair.word1(), pair.word2()));
+            return;
+        }
+        
+        // group the pairs by source, indexed by the id of the source
+        int[] groupOf = new int[this.graph.idCount()];
+        Arrays.fill(groupOf, -1);
+        IntList sources = new IntList();
+        List<IntList> targets = new ArrayList<>();
+        List<List<WordPair>> groups = new ArrayList<>();
+        for (WordPair pair : pairs) {
+            int source = this.graph.idOf(pair.word1());
+            int target = this.graph.idOf(pair.word2());
+            if (source < 0 || target < 0 || source == target || !this.components.connected(source, target)) {
+                consumer.accept(pair, -1);
+                continue;
+            }
+            if (groupOf[source] < 0) {
+                groupOf[source] = sources.size();
+                sources.add(source);
+                targets.add(new IntList());
+                groups.add(new ArrayList<>());
+            }
+            targets.get(groupOf[source]).add(target);
+            groups.get(groupOf[source]).add(pair);
+        }
+        
+        int[][] groupTargets = new int[targets.size()][];
+        for (int group = 0; group < groupTargets.length; group++)
+            groupTargets[group] = targets.get(group).toArray();
+        long visited = BatchDistanceSearch.search(this.graph.offsets(), this.graph.targets(), sources.toArray(),
+                groupTargets, (group, distances) -> {
+                    List<WordPair> groupPairs = groups.get(group);
+                    for (int i = 0; i < distances.length; i++)
+                        consumer.accept(groupPairs.get(i), distances[i]);
+                }, ForkJoinPool.commonPool());
+        if (this.metrics != null)
+            this.metrics.nodesVisited(visited);
+    }
+    
+    /**
+     * Finds the shortest path between two vertices with the current {@link PathStrategy}
+     * 
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return ids of the vertices of the path, null if there is no path
+     */
+    private int[] findPath(int source, int target) {
+        PathStrategy strategy = queryStrategy();
+        if (strategy == PathStrategy.BIDIRECTIONAL) {
+            int[] path = this.bidirectionalSearch.findPath(this.graph.offsets(), this.graph.targets(), source,
+                    target);
+            if (this.metrics != null)
+                this.metrics.nodesVisited(this.bidirectionalSearch.visitedCount());
+            return path;
+        }
+        if (strategy == PathStrategy.A_STAR || strategy == PathStrategy.LANDMARKS) {
+            this.aStarSearch.setLandmarks(strategy == PathStrategy.LANDMARKS ? landmarks() : null);
+            int[] path = this.aStarSearch.findPath(this.graph, source, target);
+            if (this.metrics != null)
+                this.metrics.nodesVisited(this.aStarSearch.visitedCount());
+            return path;
+        }
+        if (strategy == PathStrategy.ALL_PAIRS)
+            return distanceMatrix().path(this.graph.offsets(), this.graph.targets(), source, target);
+        return tree(source).path(target);
+    }
+    
+    /**
+     * Gets the up to date shortest path tree of a source from the cache, computing it if needed
+     * 
+     * @param source id of the source
+     * @return the tree
+     */
+    private ShortestPathTree tree(int source) {
+        updatePathData();
+        long misses = this.pathCache.getMissCount();
+        ShortestPathTree tree = this.pathCache.get(this.graph, source);
+        // a new tree labels the whole component of its source
+        if (this.metrics != null && this.pathCache.getMissCount() != misses)
+            this.metrics.nodesVisited(this.components.componentSize(source));
+        return tree;
     }
     
     /**
      * Computes shortest paths and distances between all possible pairs of vertices.
      * This method is called after every set of updates in the graph to recompute the path information.
      * Any shortest path algorithm can be used (Djikstra's or Floyd-Warshall recommended).
+     * 
+     * The graph is frozen, which packs its adjacency into compressed sparse row arrays. Paths are only precomputed
+     * for every pair with {@link PathStrategy#ALL_PAIRS}, which fills a {@link DistanceMatrix} of V^2 bytes by one
+     * breadth first search per word, in parallel, on the heap or in a memory mapped file, see
+     * {@link #setDistanceFile(String)}; paths are then walked from the distances. With {@link PathStrategy#LANDMARKS}
+     * the landmarks are picked and searched from. Otherwise the path
+     * queries run a search per query, or per source word keeping the trees of the most recently queried sources
+     * in a bounded cache. With {@link PathStrategy#AUTO} one of these strategies is picked first, from the size of
+     * the graph and the memory budget, see {@link #getPrecomputationPlan()}.
+     * 
+     * Nothing is recomputed after further calls to {@link #populateGraph(String)}: the cached trees and the
+     * distance matrix are updated with the new edges only, and trees which the new edges do not reach are left
+     * untouched. This also happens on the next query if this method is not called. The same goes for words and
+     * edges removed with {@link #removeWord(String)} and {@link #removeEdge(String, String)}. If the graph of
+     * {@link #getGraph()} was modified directly, everything is computed again instead.
      */
     public void shortestPathPrecomputation() {
-    
+        GraphMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        checkGraph();
+        this.graph.freeze();
+        if (this.pathStrategy == PathStrategy.AUTO)
+            plan();
+        if (strategy() == PathStrategy.ALL_PAIRS)
+            distanceMatrix();
+        else
+            updatePathData();
+        if (strategy() == PathStrategy.LANDMARKS)
+            landmarks();
+        if (metrics != null)
+            metrics.phaseDone(GraphMetrics.Phase.PRECOMPUTE, start);
     }
 }
@@ -0,0 +1,1018 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Junit test class to test class @see GraphProcessor
+ */
+public class GraphProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String dictionary;
+
+	private String delta;
+
+	@Before
+	public void setUp() throws Exception {
+		List<String> words = new ArrayList<>();
+		words.add("cat");
+		words.add("rat");
+		words.add("hat");
+		words.add("heat");
+		words.add("neat");
+		words.add("wheat");
+		words.add("kit");
+		words.add("book");
+		words.add("bok");
+		words.add("  boo ");
+		words.add("");
+		words.add("CAT");
+		// dense random words over a small alphabet so that every kind of edit occurs
+		Random random = new Random(400);
+		for (int i = 0; i < 600; i++)
+			words.add(randomWord(random, 1 + random.nextInt(5), "abcd"));
+		this.dictionary = writeDictionary("dictionary.txt", words);
+
+		List<String> deltaWords = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			deltaWords.add(randomWord(random, 1 + random.nextInt(6), "abcde"));
+		this.delta = writeDictionary("delta.txt", deltaWords);
+	}
+
+	@Test
+	public final void populateGraphShouldReturnMinusOneForMissingFile() {
+		GraphProcessor processor = new GraphProcessor();
+		assertEquals("return value for missing file", Integer.valueOf(-1),
+				processor.populateGraph(new File(this.folder.getRoot(), "missing.txt").getPath()));
+	}
+
+	@Test
+	public final void populateGraphShouldCountOnlyNewVertices() {
+		GraphProcessor processor = new GraphProcessor();
+		int added = processor.populateGraph(this.dictionary);
+		assertEquals("number of vertices added", countVertices(processor), added);
+		assertEquals("number of vertices added again", Integer.valueOf(0), processor.populateGraph(this.dictionary));
+	}
+
+	@Test
+	public final void indexedBuildShouldMatchPairwiseBuild() {
+		for (GraphProcessor.BuildMode mode : GraphProcessor.BuildMode.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setBuildMode(mode);
+			processor.populateGraph(this.dictionary);
+			processor.populateGraph(this.delta);
+			assertEquals(String.format("edges built by %s", mode), pairwiseEdges(processor), edges(processor));
+		}
+	}
+
+	@Test
+	public final void trieBuildShouldMatchPairwiseBuildOnRandomWords() throws Exception {
+		// short words over two letters, full of runs of equal chars and of words one edit apart in several ways
+		Random random = new Random(21);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 400; i++)
+			words.add(randomWord(random, 1 + random.nextInt(7), "AB"));
+		GraphProcessor processor = new GraphProcessor();
+		processor.setBuildMode(GraphProcessor.BuildMode.TRIE);
+		processor.populateGraph(writeDictionary("random.txt", words));
+		assertEquals("edges built by TRIE", pairwiseEdges(processor), edges(processor));
+	}
+
+	@Test
+	public final void twoEditBuildsShouldMatchPairwiseBuild() {
+		for (GraphProcessor.BuildMode mode : GraphProcessor.BuildMode.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setBuildMode(mode);
+			processor.setMaxEdits(2);
+			processor.populateGraph(this.dictionary);
+			processor.populateGraph(this.delta);
+			assertEquals(String.format("edges built by %s within 2 edits", mode), pairwiseEdges(processor, 2),
+					edges(processor));
+		}
+		// words added within one edit are linked again
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		processor.setMaxEdits(2);
+		processor.populateGraph(this.delta);
+		assertEquals("edges after switching to 2 edits", pairwiseEdges(processor, 2), edges(processor));
+	}
+
+	@Test
+	public final void twoEditPathsShouldMatchBreadthFirstSearch() {
+		for (GraphProcessor.PathStrategy strategy : GraphProcessor.PathStrategy.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setMaxEdits(2);
+			processor.setPathStrategy(strategy);
+			processor.populateGraph(this.dictionary);
+			processor.populateGraph(this.delta);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+		}
+	}
+
+	@Test
+	public final void mixedBuildModesShouldMatchPairwiseBuild() {
+		for (GraphProcessor.BuildMode mode1 : GraphProcessor.BuildMode.values()) {
+			for (GraphProcessor.BuildMode mode2 : GraphProcessor.BuildMode.values()) {
+				GraphProcessor processor = new GraphProcessor();
+				processor.setBuildMode(mode1);
+				processor.populateGraph(this.dictionary);
+				processor.shortestPathPrecomputation();
+				processor.setBuildMode(mode2);
+				processor.populateGraph(this.delta);
+				assertEquals(String.format("edges built by %s then %s", mode1, mode2), pairwiseEdges(processor),
+						edges(processor));
+			}
+		}
+	}
+
+	@Test
+	public final void streamedWordsShouldMatchPopulateGraph() throws Exception {
+		GraphProcessor expected = new GraphProcessor();
+		expected.populateGraph(this.dictionary);
+		expected.populateGraph(this.delta);
+
+		GraphProcessor processor = new GraphProcessor();
+		processor.setBuildMode(GraphProcessor.BuildMode.PAIRWISE);
+		try (Stream<String> lines = Files.lines(Paths.get(this.dictionary))) {
+			int added = processor.addWords(lines);
+			assertEquals("number of streamed vertices added", countVertices(processor), added);
+		}
+		processor.shortestPathPrecomputation();
+		assertEquals("shortest distance between streamed words", expected.getShortestDistance("CAT", "WHEAT"),
+				processor.getShortestDistance("CAT", "WHEAT"));
+		// the delta words one by one, from an iterator which holds a single word at a time
+		Iterator<String> delta = Files.readAllLines(Paths.get(this.delta)).iterator();
+		processor.addWords(new Iterator<String>() {
+			@Override
+			public boolean hasNext() {
+				return delta.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return " " + delta.next().toLowerCase() + " ";
+			}
+		});
+		assertEquals("edges of streamed words", edges(expected), edges(processor));
+		assertEquals("component count of streamed words", expected.getComponentCount(), processor.getComponentCount());
+		assertShortestPaths(processor);
+	}
+
+	@Test
+	public final void getShortestPathShouldFollowTheDocumentedExample() throws Exception {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(writeDictionary("example.txt", Arrays.asList("cat", "rat", "hat", "heat", "neat",
+				"wheat", "kit")));
+		processor.shortestPathPrecomputation();
+		assertEquals("shortest path between cat and wheat", Arrays.asList("CAT", "HAT", "HEAT", "WHEAT"),
+				processor.getShortestPath("CAT", "WHEAT"));
+		assertEquals("shortest distance between cat and wheat", Integer.valueOf(3),
+				processor.getShortestDistance("CAT", "WHEAT"));
+		assertEquals("shortest path without a path", Arrays.asList(), processor.getShortestPath("CAT", "KIT"));
+		assertEquals("shortest distance without a path", Integer.valueOf(-1),
+				processor.getShortestDistance("CAT", "KIT"));
+		assertEquals("shortest path to a missing word", Arrays.asList(), processor.getShortestPath("CAT", "DOG"));
+		assertEquals("shortest distance to a missing word", Integer.valueOf(-1),
+				processor.getShortestDistance("DOG", "CAT"));
+		assertEquals("shortest path to the same word", Arrays.asList(), processor.getShortestPath("CAT", "CAT"));
+		assertEquals("shortest distance to the same word", Integer.valueOf(-1),
+				processor.getShortestDistance("CAT", "CAT"));
+	}
+
+	@Test
+	public final void getShortestPathShouldMatchBreadthFirstSearch() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		processor.populateGraph(this.delta);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+	}
+
+	@Test
+	public final void bidirectionalPathsShouldMatchBreadthFirstSearch() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.BIDIRECTIONAL);
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		processor.populateGraph(this.delta);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		assertEquals("bidirectional queries should not fill the cache", 0, processor.getPathCacheMisses());
+	}
+
+	@Test
+	public final void aStarPathsShouldMatchBreadthFirstSearch() {
+		for (AStarSearch.Heuristic heuristic : AStarSearch.Heuristic.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setPathStrategy(GraphProcessor.PathStrategy.A_STAR);
+			processor.setHeuristic(heuristic);
+			processor.populateGraph(this.dictionary);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+			processor.populateGraph(this.delta);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+		}
+	}
+
+	@Test
+	public final void aStarSearchShouldVisitFewerVertices() throws Exception {
+		// a long ladder of 8 letter words, turning AAAAAAAA into BBBBBBBB one letter at a time, among random words
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i <= 8; i++)
+			words.add("BBBBBBBB".substring(0, i) + "AAAAAAAA".substring(i));
+		Random random = new Random(19);
+		for (int i = 0; i < 3000; i++)
+			words.add(randomWord(random, 6 + random.nextInt(5), "ABCD"));
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(writeDictionary("ladder.txt", words));
+		CompactGraph<String> graph = (CompactGraph<String>) processor.getGraph();
+		int source = graph.idOf("AAAAAAAA");
+		int target = graph.idOf("BBBBBBBB");
+		int reachable = breadthFirstSearch(graph, "AAAAAAAA").size();
+		for (AStarSearch.Heuristic heuristic : AStarSearch.Heuristic.values()) {
+			AStarSearch search = new AStarSearch(heuristic);
+			int[] path = search.findPath(graph, source, target);
+			assertEquals(String.format("distance found with %s", heuristic), 8, path.length - 1);
+			assertTrue(String.format("vertices visited with %s: %d of %d", heuristic, search.visitedCount(), reachable),
+					search.visitedCount() * 2 < reachable);
+		}
+	}
+
+	@Test
+	public final void landmarkPathsShouldMatchBreadthFirstSearch() {
+		for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setPathStrategy(GraphProcessor.PathStrategy.LANDMARKS);
+			processor.setLandmarks(4, selection);
+			processor.populateGraph(this.dictionary);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+			processor.populateGraph(this.delta);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+		}
+	}
+
+	@Test
+	public final void landmarksShouldBeRelaxedThroughAddedEdges() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		CompactGraph<String> graph = (CompactGraph<String>) processor.getGraph();
+		LandmarkIndex landmarks = LandmarkIndex.build(graph.offsets(), graph.targets(), 4,
+				LandmarkIndex.Selection.FARTHEST, ForkJoinPool.commonPool());
+		Set<Long> oldEdges = new HashSet<>();
+		for (int id = 0; id < graph.idCount(); id++) {
+			for (int i = graph.offsets()[id]; i < graph.offsets()[id + 1]; i++)
+				oldEdges.add((long) id << 32 | graph.targets()[i]);
+		}
+
+		// the edge from the first landmark to its first neighbour is on a shortest path from it
+		int landmark = landmarks.landmark(0);
+		String neighbor = graph.vertexAt(graph.targets()[graph.offsets()[landmark]]);
+		processor.populateGraph(this.delta);
+		processor.removeEdge(graph.vertexAt(landmark), neighbor);
+		IntList addedEdges = new IntList();
+		for (int id = 0; id < graph.idCount(); id++) {
+			for (int i = graph.offsets()[id]; i < graph.offsets()[id + 1]; i++) {
+				if (id < graph.targets()[i] && !oldEdges.contains((long) id << 32 | graph.targets()[i])) {
+					addedEdges.add(id);
+					addedEdges.add(graph.targets()[i]);
+				}
+			}
+		}
+		IntList removedEdges = new IntList();
+		removedEdges.add(landmark);
+		removedEdges.add(graph.idOf(neighbor));
+		assertTrue("edges added", addedEdges.size() > 0);
+
+		LandmarkIndex updated = landmarks.update(graph.offsets(), graph.targets(), addedEdges, removedEdges);
+		assertEquals("number of ids", graph.idCount(), updated.idCount());
+		for (int k = 0; k < updated.landmarkCount(); k++) {
+			assertEquals("landmark", landmarks.landmark(k), updated.landmark(k));
+			Map<String, Integer> distances = breadthFirstSearch(graph, graph.vertexAt(updated.landmark(k)));
+			for (int id = 0; id < graph.idCount(); id++) {
+				String message = String.format("distance from landmark %d to %s", k, graph.vertexAt(id));
+				Integer distance = distances.get(graph.vertexAt(id));
+				assertEquals(message, distance == null ? LandmarkIndex.UNREACHABLE : distance,
+						updated.distance(k, id));
+			}
+		}
+	}
+
+	@Test
+	public final void approximateDistancesShouldBoundShortestDistances() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setLandmarks(4, LandmarkIndex.Selection.FARTHEST);
+		processor.populateGraph(this.dictionary);
+		processor.populateGraph(this.delta);
+		CompactGraph<String> graph = (CompactGraph<String>) processor.getGraph();
+		for (String source : graph.getAllVertices()) {
+			Map<String, Integer> distances = breadthFirstSearch(graph, source);
+			for (String target : graph.getAllVertices()) {
+				Integer distance = distances.get(target);
+				int approximate = processor.getApproximateDistance(source, target);
+				String message = String.format("approximate distance between %s and %s", source, target);
+				if (distance == null || distance == 0)
+					assertEquals(message, -1, approximate);
+				else
+					assertTrue(message, approximate >= distance);
+			}
+		}
+	}
+
+	@Test
+	public final void allShortestPathsShouldMatchTheirCount() {
+		for (GraphProcessor.PathStrategy strategy : GraphProcessor.PathStrategy.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setPathStrategy(strategy);
+			processor.populateGraph(this.dictionary);
+			processor.populateGraph(this.delta);
+			processor.shortestPathPrecomputation();
+			GraphADT<String> graph = processor.getGraph();
+			List<String> vertices = new ArrayList<>();
+			for (String itrVertex : graph.getAllVertices())
+				vertices.add(itrVertex);
+			for (int i = 0; i < vertices.size(); i += 23) {
+				String source = vertices.get(i);
+				Map<String, Integer> distances = breadthFirstSearch(graph, source);
+				for (String target : vertices) {
+					String message = String.format("shortest paths between %s and %s with %s", source,
+							target, strategy);
+					Set<List<String>> paths = new HashSet<>();
+					Iterator<List<String>> itrPaths = processor.getAllShortestPaths(source, target);
+					while (itrPaths.hasNext()) {
+						List<String> path = itrPaths.next();
+						assertEquals(message, (int) distances.get(target), path.size() - 1);
+						for (int j = 1; j < path.size(); j++)
+							assertEquals(message, true, graph.isAdjacent(path.get(j - 1), path.get(j)));
+						if (paths.isEmpty())
+							assertEquals(message, processor.getShortestPath(source, target), path);
+						assertEquals(message, true, paths.add(path));
+					}
+					assertEquals(message, BigInteger.valueOf(paths.size()),
+							processor.getShortestPathCount(source, target));
+				}
+			}
+		}
+	}
+
+	@Test
+	public final void shortestPathCountShouldNotEnumerateThePaths() throws Exception {
+		// the words of 14 letters over "ab" form a hypercube, with 14! shortest paths between opposite corners
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < 1 << 14; i++)
+			words.add(Integer.toBinaryString(i | 1 << 14).substring(1).replace('0', 'a').replace('1', 'b'));
+		GraphProcessor processor = new GraphProcessor();
+		processor.setBuildMode(GraphProcessor.BuildMode.INDEXED);
+		processor.populateGraph(writeDictionary("hypercube.txt", words));
+		BigInteger expected = BigInteger.ONE;
+		for (int i = 2; i <= 14; i++)
+			expected = expected.multiply(BigInteger.valueOf(i));
+		assertEquals("number of shortest paths", expected,
+				processor.getShortestPathCount("AAAAAAAAAAAAAA", "BBBBBBBBBBBBBB"));
+		Iterator<List<String>> paths = processor.getAllShortestPaths("AAAAAAAAAAAAAA", "BBBBBBBBBBBBBB");
+		assertEquals("first path", processor.getShortestPath("AAAAAAAAAAAAAA", "BBBBBBBBBBBBBB"), paths.next());
+		for (int i = 0; i < 1000; i++)
+			assertEquals("path length", 15, paths.next().size());
+	}
+
+	@Test
+	public final void autoStrategyShouldFitTheMemoryBudget() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.AUTO);
+		processor.populateGraph(this.dictionary);
+		processor.populateGraph(this.delta);
+		int idCount = ((CompactGraph<String>) processor.getGraph()).idCount();
+		long[] budgets = { (long) idCount * idCount, (long) idCount * 8, 1 };
+		GraphProcessor.PathStrategy[] expected = { GraphProcessor.PathStrategy.ALL_PAIRS,
+				GraphProcessor.PathStrategy.LANDMARKS, GraphProcessor.PathStrategy.BIDIRECTIONAL };
+		for (int i = 0; i < budgets.length; i++) {
+			processor.setMemoryBudget(budgets[i]);
+			processor.shortestPathPrecomputation();
+			PrecomputationPlanner.Plan plan = processor.getPrecomputationPlan();
+			assertEquals("strategy within " + budgets[i] + " bytes", expected[i], plan.strategy());
+			assertTrue("memory of " + plan, plan.bytes() <= budgets[i] || i == budgets.length - 1);
+			assertShortestPaths(processor);
+		}
+		assertEquals("landmarks within the budget", 4, new PrecomputationPlanner((long) idCount * 8, Long.MAX_VALUE, 1)
+				.plan(idCount, 0, GraphProcessor.DEFAULT_LANDMARK_COUNT).landmarkCount());
+	}
+
+	@Test
+	public final void allPairsPathsShouldMatchBreadthFirstSearch() throws Exception {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		processor.populateGraph(this.delta);
+		processor.populateGraph(writeDictionary("isolated.txt", Arrays.asList("xyzzy")));
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+	}
+
+	@Test
+	public final void allPairsBeyondTheHeapLimitShouldSearch() throws Exception {
+		Random random = new Random(46341);
+		Set<String> words = new HashSet<>();
+		while (words.size() <= DistanceMatrix.MAX_IDS)
+			words.add(randomWord(random, 6, "abcdefgh"));
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		processor.populateGraph(writeDictionary("large.txt", new ArrayList<>(words)));
+		processor.shortestPathPrecomputation();
+		GraphADT<String> graph = processor.getGraph();
+		List<String> vertices = new ArrayList<>();
+		for (String itrVertex : graph.getAllVertices())
+			vertices.add(itrVertex);
+		for (int i = 0; i < 5; i++) {
+			String source = vertices.get(random.nextInt(vertices.size()));
+			Map<String, Integer> distances = breadthFirstSearch(graph, source);
+			for (int j = 0; j < 20; j++) {
+				String target = vertices.get(random.nextInt(vertices.size()));
+				Integer distance = distances.get(target);
+				List<String> path = processor.getShortestPath(source, target);
+				String message = String.format("shortest path between %s and %s", source, target);
+				assertEquals(message, Integer.valueOf(distance == null || distance == 0 ? -1 : distance),
+						processor.getShortestDistance(source, target));
+				assertEquals(message, distance == null || distance == 0 ? 0 : distance + 1, path.size());
+			}
+		}
+	}
+
+	@Test
+	public final void mappedAllPairsPathsShouldBeSharedThroughTheFile() throws Exception {
+		String file = new File(this.folder.getRoot(), "distances.bin").getPath();
+		GraphProcessor writer = new GraphProcessor();
+		writer.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		writer.setDistanceFile(file);
+		writer.populateGraph(this.dictionary);
+		writer.shortestPathPrecomputation();
+		assertShortestPaths(writer);
+		FileTime written = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(Paths.get(file), written);
+
+		GraphProcessor reader = new GraphProcessor();
+		reader.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		reader.setDistanceFile(file);
+		reader.populateGraph(this.dictionary);
+		reader.shortestPathPrecomputation();
+		assertEquals("file written for the same words should be reused", written,
+				Files.getLastModifiedTime(Paths.get(file)));
+		assertShortestPaths(reader);
+
+		writer.populateGraph(this.delta);
+		writer.shortestPathPrecomputation();
+		assertTrue("file should be replaced after new words",
+				Files.getLastModifiedTime(Paths.get(file)).compareTo(written) > 0);
+		assertShortestPaths(writer);
+		assertShortestPaths(reader);
+		assertEquals("no temporary file should be left", 1,
+				this.folder.getRoot().listFiles((dir, name) -> name.startsWith("distances")).length);
+	}
+
+	@Test
+	public final void mappedAllPairsShouldFollowMaxEdits() throws Exception {
+		String file = new File(this.folder.getRoot(), "distances.bin").getPath();
+		String dictionary = writeDictionary("ladder.txt", Arrays.asList("cat", "cot", "cog", "dog", "dig"));
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		processor.setDistanceFile(file);
+		processor.populateGraph(dictionary);
+		processor.shortestPathPrecomputation();
+		assertEquals("path within one edit", Arrays.asList("CAT", "COT", "COG", "DOG", "DIG"),
+				processor.getShortestPath("CAT", "DIG"));
+		processor.setMaxEdits(2);
+		processor.shortestPathPrecomputation();
+		assertEquals("path within two edits", Arrays.asList("CAT", "COG", "DIG"),
+				processor.getShortestPath("CAT", "DIG"));
+		assertEquals("distance within two edits", Integer.valueOf(2), processor.getShortestDistance("CAT", "DIG"));
+
+		GraphProcessor reader = new GraphProcessor();
+		reader.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		reader.setDistanceFile(file);
+		reader.populateGraph(dictionary);
+		reader.shortestPathPrecomputation();
+		assertEquals("file written within two edits should not be reused within one",
+				Integer.valueOf(4), reader.getShortestDistance("CAT", "DIG"));
+	}
+
+	@Test
+	public final void snapshotShouldRestoreGraphAndDistances() throws Exception {
+		String file = new File(this.folder.getRoot(), "graph.snapshot").getPath();
+		GraphProcessor saved = new GraphProcessor();
+		saved.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		saved.populateGraph(this.dictionary);
+		saved.shortestPathPrecomputation();
+		assertEquals("saved vertices", Integer.valueOf(countVertices(saved)), saved.saveSnapshot(file));
+
+		GraphProcessor loaded = new GraphProcessor();
+		loaded.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		assertEquals("loaded vertices", Integer.valueOf(countVertices(saved)), loaded.loadSnapshot(file));
+		assertEquals("loaded edges", edges(saved), edges(loaded));
+		assertEquals("loaded components", saved.getComponentSizeDistribution(), loaded.getComponentSizeDistribution());
+		assertShortestPaths(loaded);
+
+		// new words are added to the loaded graph and its mapped distances
+		loaded.populateGraph(this.delta);
+		assertEquals("edges after new words", pairwiseEdges(loaded), edges(loaded));
+		assertShortestPaths(loaded);
+
+		// the snapshot of the loaded graph replaces the file it is mapped from
+		loaded.saveSnapshot(file);
+		GraphProcessor trees = new GraphProcessor();
+		assertEquals("vertices of the second snapshot", Integer.valueOf(countVertices(loaded)),
+				trees.loadSnapshot(file));
+		assertShortestPaths(trees);
+		assertShortestPaths(loaded);
+	}
+
+	@Test
+	public final void corruptSnapshotShouldNotBeLoaded() throws Exception {
+		String file = new File(this.folder.getRoot(), "graph.snapshot").getPath();
+		GraphProcessor saved = new GraphProcessor();
+		saved.populateGraph(this.dictionary);
+		saved.saveSnapshot(file);
+		byte[] bytes = Files.readAllBytes(Paths.get(file));
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(Paths.get(file), bytes);
+
+		GraphProcessor loaded = new GraphProcessor();
+		loaded.populateGraph(this.delta);
+		TreeSet<String> before = edges(loaded);
+		assertEquals("corrupt snapshot", Integer.valueOf(-1), loaded.loadSnapshot(file));
+		assertEquals("missing snapshot", Integer.valueOf(-1), loaded.loadSnapshot(file + ".missing"));
+		assertEquals("graph after a failed load", before, edges(loaded));
+	}
+
+	@Test
+	public final void corruptDistanceRowsShouldBeSearchedAgain() throws Exception {
+		String file = new File(this.folder.getRoot(), "graph.snapshot").getPath();
+		GraphProcessor saved = new GraphProcessor();
+		saved.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		saved.populateGraph(this.dictionary);
+		saved.shortestPathPrecomputation();
+		saved.saveSnapshot(file);
+		// the distances come last, so these bytes are in the last rows
+		byte[] bytes = Files.readAllBytes(Paths.get(file));
+		for (int i = 1; i < 2000; i += 97)
+			bytes[bytes.length - i] ^= 1;
+		Files.write(Paths.get(file), bytes);
+
+		GraphProcessor loaded = new GraphProcessor();
+		loaded.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		assertEquals("snapshot with corrupt rows", Integer.valueOf(countVertices(saved)), loaded.loadSnapshot(file));
+		assertShortestPaths(loaded);
+		List<String> vertices = new ArrayList<>();
+		for (String itrVertex : loaded.getGraph().getAllVertices())
+			vertices.add(itrVertex);
+		for (String source : vertices.subList(vertices.size() - 10, vertices.size()))
+			for (String target : vertices)
+				assertEquals(String.format("shortest distance between %s and %s", source, target),
+						saved.getShortestDistance(source, target), loaded.getShortestDistance(source, target));
+	}
+
+	@Test
+	public final void snapshotShouldRestoreMaxEdits() throws Exception {
+		String file = new File(this.folder.getRoot(), "graph.snapshot").getPath();
+		GraphProcessor saved = new GraphProcessor();
+		saved.setMaxEdits(2);
+		saved.populateGraph(this.dictionary);
+		saved.saveSnapshot(file);
+
+		GraphProcessor loaded = new GraphProcessor();
+		loaded.loadSnapshot(file);
+		assertEquals("max edits of the snapshot", 2, loaded.getMaxEdits());
+		loaded.populateGraph(this.delta);
+		assertEquals("edges of new words within two edits", pairwiseEdges(loaded, 2), edges(loaded));
+		assertShortestPaths(loaded);
+	}
+
+	@Test
+	public final void distanceMatrixShouldWidenLongDistances() throws Exception {
+		// a path of 300 vertices, whose distances do not fit in a byte
+		CompactGraph<Integer> graph = new CompactGraph<>();
+		for (int i = 0; i < 300; i++)
+			graph.addVertex(i);
+		for (int i = 1; i < 300; i++)
+			graph.addEdge(i - 1, i);
+		DistanceMatrix matrix = DistanceMatrix.compute(graph.offsets(), graph.targets(), ForkJoinPool.commonPool());
+		assertTrue("matrix should be widened", matrix.isWide());
+		assertEquals("distance between the ends", 299, matrix.distance(0, 299));
+		assertEquals("path between the ends", 300, matrix.path(graph.offsets(), graph.targets(), 299, 0).length);
+		graph.addVertex(300);
+		graph.addEdge(0, 300);
+		graph.addEdge(299, 300);
+		IntList edges = new IntList();
+		edges.add(0);
+		edges.add(300);
+		edges.add(299);
+		edges.add(300);
+		matrix.addEdges(graph.offsets(), graph.targets(), edges, ForkJoinPool.commonPool());
+		assertEquals("distance around the new cycle", 2, matrix.distance(0, 299));
+		assertEquals("distance across the cycle", 150, matrix.distance(50, 200));
+		assertEquals("distance from the new vertex", 100, matrix.distance(300, 200));
+	}
+
+	@Test
+	public final void bidirectionalSearchShouldVisitFewerVertices() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		CompactGraph<String> graph = (CompactGraph<String>) processor.getGraph();
+		BidirectionalSearch search = new BidirectionalSearch();
+		long bidirectional = 0;
+		long oneSided = 0;
+		for (int source = 0; source < graph.idCount(); source += 11) {
+			for (int target = 1; target < graph.idCount(); target += 13) {
+				if (search.findPath(graph.offsets(), graph.targets(), source, target) == null)
+					continue;
+				bidirectional += search.visitedCount();
+				// a search from one side visits every vertex closer to the source than the target
+				ShortestPathTree tree = ShortestPathTree.compute(graph.offsets(), graph.targets(), source);
+				for (int itrVertex = 0; itrVertex < graph.idCount(); itrVertex++)
+					if (tree.distance(itrVertex) >= 0 && tree.distance(itrVertex) < tree.distance(target))
+						oneSided++;
+			}
+		}
+		assertTrue("bidirectional search should visit fewer vertices than a search from one side",
+				bidirectional < oneSided);
+	}
+
+	@Test
+	public final void pathCacheShouldCountHitsAndMisses() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathCacheSize(2);
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		processor.getShortestDistance("CAT", "HAT");
+		processor.getShortestPath("CAT", "RAT");
+		processor.getShortestDistance("HAT", "CAT");
+		processor.getShortestDistance("CAT", "HEAT");
+		processor.getShortestDistance("RAT", "CAT");
+		processor.getShortestDistance("HAT", "CAT");
+		assertEquals("cache hits", 2, processor.getPathCacheHits());
+		assertEquals("cache misses", 4, processor.getPathCacheMisses());
+	}
+
+	@Test
+	public final void cachedTreesShouldBeUpdatedWithNewEdges() throws Exception {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		processor.populateGraph(writeDictionary("other.txt", Arrays.asList("xyzzy", "xyzzz")));
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		List<String> cached = new ArrayList<>();
+		for (String itrVertex : processor.getGraph().getAllVertices())
+			cached.add(itrVertex);
+		long misses = processor.getPathCacheMisses();
+		processor.populateGraph(this.delta);
+		processor.populateGraph(writeDictionary("bridge.txt", Arrays.asList("xyzz", "xyz", "xy", "x")));
+		processor.shortestPathPrecomputation();
+		// the only way to XYZZY is through the bridge from X
+		for (int i = 0; i < cached.size(); i += 7) {
+			int distance = processor.getShortestDistance(cached.get(i), "X");
+			assertEquals("distance across the new bridge from " + cached.get(i),
+					Integer.valueOf(distance < 0 ? -1 : distance + 4),
+					processor.getShortestDistance(cached.get(i), "XYZZY"));
+		}
+		assertEquals("updated trees should answer the queries", misses, processor.getPathCacheMisses());
+		assertEquals("shortest path across the new bridge", Arrays.asList("XYZZY", "XYZZ", "XYZ", "XY", "X"),
+				processor.getShortestPath("XYZZY", "X"));
+		assertShortestPaths(processor);
+	}
+
+	@Test
+	public final void componentsShouldMatchBreadthFirstSearch() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		processor.populateGraph(this.delta);
+		GraphADT<String> graph = processor.getGraph();
+		Map<Integer, Integer> expected = new TreeMap<>();
+		Set<String> visited = new HashSet<>();
+		for (String itrVertex : graph.getAllVertices()) {
+			if (visited.add(itrVertex)) {
+				Set<String> component = breadthFirstSearch(graph, itrVertex).keySet();
+				visited.addAll(component);
+				expected.merge(component.size(), 1, Integer::sum);
+			}
+		}
+		assertEquals("component sizes", expected, processor.getComponentSizeDistribution());
+		assertEquals("component count", expected.values().stream().mapToInt(Integer::intValue).sum(),
+				processor.getComponentCount());
+
+		processor.shortestPathPrecomputation();
+		assertEquals("shortest path between components", Arrays.asList(), processor.getShortestPath("CAT", "KIT"));
+		assertEquals("shortest distance between components", Integer.valueOf(-1),
+				processor.getShortestDistance("KIT", "CAT"));
+		assertEquals("queries between components should not search", 0, processor.getPathCacheMisses());
+	}
+
+	@Test
+	public final void removalsShouldMatchBreadthFirstSearch() {
+		for (GraphProcessor.PathStrategy strategy : GraphProcessor.PathStrategy.values()) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setBuildMode(GraphProcessor.BuildMode.INDEXED);
+			processor.setPathStrategy(strategy);
+			processor.populateGraph(this.dictionary);
+			processor.populateGraph(this.delta);
+			processor.shortestPathPrecomputation();
+			assertShortestPaths(processor);
+			List<String> vertices = new ArrayList<>();
+			for (String itrVertex : processor.getGraph().getAllVertices())
+				vertices.add(itrVertex);
+			for (int i = 3; i < vertices.size(); i += 5)
+				assertEquals("removed word " + vertices.get(i), true, processor.removeWord(vertices.get(i)));
+			assertEquals("word removed twice", false, processor.removeWord(vertices.get(3)));
+			String word = vertices.get(1);
+			String neighbor = processor.getGraph().getNeighbors(word).iterator().next();
+			assertEquals("removed edge", true, processor.removeEdge(word, neighbor));
+			assertEquals("edge removed twice", false, processor.removeEdge(neighbor, word));
+			String message = strategy + " after removals";
+			assertEquals(message, componentSizes(processor.getGraph()), processor.getComponentSizeDistribution());
+			assertShortestPaths(processor);
+
+			// removed words are found again as neighbours when added back
+			processor.addWords(Arrays.asList(vertices.get(3)).iterator());
+			processor.shortestPathPrecomputation();
+			assertEquals(message, componentSizes(processor.getGraph()), processor.getComponentSizeDistribution());
+			TreeSet<String> expected = pairwiseEdges(processor);
+			expected.remove(word + "-" + neighbor);
+			expected.remove(neighbor + "-" + word);
+			assertEquals(message, expected, edges(processor));
+			assertShortestPaths(processor);
+		}
+	}
+
+	@Test
+	public final void mappedAllPairsShouldBeRewrittenAfterRemovals() throws Exception {
+		String file = new File(this.folder.getRoot(), "distances.bin").getPath();
+		GraphProcessor writer = new GraphProcessor();
+		writer.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		writer.setDistanceFile(file);
+		writer.populateGraph(this.dictionary);
+		writer.shortestPathPrecomputation();
+		FileTime written = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(Paths.get(file), written);
+		writer.removeWord("HEAT");
+		writer.removeEdge("CAT", "HAT");
+		writer.shortestPathPrecomputation();
+		assertTrue("file should be replaced after removals",
+				Files.getLastModifiedTime(Paths.get(file)).compareTo(written) > 0);
+		assertShortestPaths(writer);
+
+		written = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(Paths.get(file), written);
+		GraphProcessor reader = new GraphProcessor();
+		reader.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		reader.setDistanceFile(file);
+		reader.populateGraph(this.dictionary);
+		reader.removeWord("HEAT");
+		reader.removeEdge("CAT", "HAT");
+		reader.shortestPathPrecomputation();
+		assertEquals("file written after the same removals should be reused", written,
+				Files.getLastModifiedTime(Paths.get(file)));
+		assertShortestPaths(reader);
+
+		GraphProcessor other = new GraphProcessor();
+		other.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		other.setDistanceFile(file);
+		other.populateGraph(this.dictionary);
+		other.shortestPathPrecomputation();
+		assertTrue("file written after removals should not be reused without them",
+				Files.getLastModifiedTime(Paths.get(file)).compareTo(written) > 0);
+		assertShortestPaths(other);
+		assertEquals("no temporary file should be left", 1,
+				this.folder.getRoot().listFiles((dir, name) -> name.startsWith("distances")).length);
+	}
+
+	@Test
+	public final void directGraphChangesShouldDropPathData() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(GraphProcessor.PathStrategy.ALL_PAIRS);
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		assertShortestPaths(processor);
+		GraphADT<String> graph = processor.getGraph();
+		assertEquals("edge removed from the graph", true, graph.removeEdge("HAT", "HEAT"));
+		graph.removeVertex("CAT");
+		assertEquals("component sizes", componentSizes(graph), processor.getComponentSizeDistribution());
+		assertShortestPaths(processor);
+	}
+
+	@Test
+	public final void batchDistancesShouldMatchSingleQueries() {
+		GraphProcessor processor = new GraphProcessor();
+		processor.populateGraph(this.dictionary);
+		processor.populateGraph(this.delta);
+		List<String> vertices = new ArrayList<>();
+		for (String itrVertex : processor.getGraph().getAllVertices())
+			vertices.add(itrVertex);
+		// few distinct sources, repeated pairs, missing and equal words
+		Random random = new Random(16);
+		List<WordPair> pairs = new ArrayList<>();
+		for (int i = 0; i < 3000; i++)
+			pairs.add(new WordPair(vertices.get(random.nextInt(40)), vertices.get(random.nextInt(vertices.size()))));
+		pairs.add(new WordPair("CAT", "CAT"));
+		pairs.add(new WordPair("CAT", "DOG"));
+		pairs.add(new WordPair(null, "CAT"));
+		pairs.add(pairs.get(0));
+
+		Map<WordPair, Integer> distances = new ConcurrentHashMap<>();
+		AtomicInteger count = new AtomicInteger();
+		processor.getShortestDistances(pairs, (pair, distance) -> {
+			count.incrementAndGet();
+			distances.put(pair, distance);
+		});
+		assertEquals("number of distances passed", pairs.size(), count.get());
+		assertEquals("batch queries should not fill the cache", 0, processor.getPathCacheMisses());
+		for (WordPair pair : pairs)
+			assertEquals(String.format("shortest distance of %s", pair),
+					processor.getShortestDistance(pair.word1(), pair.word2()), distances.get(pair));
+	}
+
+	@Test
+	public final void metricsShouldCountBuildAndQueries() throws Exception {
+		GraphProcessor processor = new GraphProcessor();
+		assertEquals("metrics are off by default", null, processor.getMetrics());
+		processor.setMetricsEnabled(true);
+		processor.setBuildMode(GraphProcessor.BuildMode.PAIRWISE);
+		processor.populateGraph(this.dictionary);
+		processor.shortestPathPrecomputation();
+		List<String> vertices = new ArrayList<>();
+		for (String itrVertex : processor.getGraph().getAllVertices())
+			vertices.add(itrVertex);
+		for (int i = 0; i < 50; i++) {
+			processor.getShortestPath(vertices.get(i), vertices.get(vertices.size() - 1 - i));
+			processor.getShortestDistance(vertices.get(i), vertices.get(i + 1));
+		}
+
+		GraphMetrics.Snapshot snapshot = processor.getMetrics().snapshot();
+		assertEquals("vertices added", countVertices(processor), snapshot.verticesAdded());
+		assertEquals("edges added", edges(processor).size() / 2, snapshot.edgesAdded());
+		assertEquals("pairs compared by the pairwise build",
+				(long) vertices.size() * vertices.size(), snapshot.adjacencyTests());
+		assertEquals("files read", 1, snapshot.phaseCount(GraphMetrics.Phase.READ));
+		assertEquals("builds", 1, snapshot.phaseCount(GraphMetrics.Phase.BUILD));
+		assertEquals("precomputations", 1, snapshot.phaseCount(GraphMetrics.Phase.PRECOMPUTE));
+		assertEquals("path queries", 50, snapshot.pathQueries().count());
+		assertEquals("distance queries", 50, snapshot.distanceQueries().count());
+		assertTrue("percentiles are ordered", snapshot.pathQueries().percentile(50)
+				<= snapshot.pathQueries().percentile(99)
+				&& snapshot.pathQueries().percentile(99) <= snapshot.pathQueries().max());
+		assertTrue("nodes visited by the searches", snapshot.nodesVisited() > 0);
+
+		ObjectName name = processor.getMetrics().registerMBean("metricsShouldCountBuildAndQueries");
+		try {
+			assertEquals("vertices added read through JMX", snapshot.verticesAdded(),
+					ManagementFactory.getPlatformMBeanServer().getAttribute(name, "VerticesAdded"));
+		} finally {
+			processor.getMetrics().unregisterMBean();
+		}
+		processor.setMetricsEnabled(false);
+		assertEquals("metrics switched off", null, processor.getMetrics());
+	}
+
+	/**
+	 * Checks the shortest paths from a sample of sources against a breadth first search over the @see GraphADT
+	 * interface, including the tie break documented in @see GraphProcessor#getShortestPath(String, String)
+	 */
+	private static void assertShortestPaths(GraphProcessor processor) {
+		CompactGraph<String> graph = (CompactGraph<String>) processor.getGraph();
+		List<String> vertices = new ArrayList<>();
+		for (String itrVertex : graph.getAllVertices())
+			vertices.add(itrVertex);
+		for (int i = 0; i < vertices.size(); i += 7) {
+			String source = vertices.get(i);
+			Map<String, Integer> distances = breadthFirstSearch(graph, source);
+			for (String target : vertices) {
+				Integer distance = distances.get(target);
+				List<String> expected = new ArrayList<>();
+				if (distance != null && distance > 0) {
+					// walk back from the target through the first neighbor one step closer to the source
+					expected.add(target);
+					for (String itrVertex = target; !itrVertex.equals(source);) {
+						String parent = null;
+						for (String itrNeighbor : graph.getNeighbors(itrVertex))
+							if (distances.get(itrNeighbor) == distances.get(itrVertex) - 1
+									&& (parent == null || graph.idOf(itrNeighbor) < graph.idOf(parent)))
+								parent = itrNeighbor;
+						expected.add(0, parent);
+						itrVertex = parent;
+					}
+				}
+				String message = String.format("shortest path between %s and %s", source, target);
+				assertEquals(message, expected, processor.getShortestPath(source, target));
+				assertEquals(message, Integer.valueOf(distance == null || distance == 0 ? -1 : distance),
+						processor.getShortestDistance(source, target));
+			}
+		}
+	}
+
+	private static Map<String, Integer> breadthFirstSearch(GraphADT<String> graph, String source) {
+		Map<String, Integer> distances = new HashMap<>();
+		LinkedList<String> queue = new LinkedList<>();
+		distances.put(source, 0);
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			String itrVertex = queue.poll();
+			for (String itrNeighbor : graph.getNeighbors(itrVertex)) {
+				if (!distances.containsKey(itrNeighbor)) {
+					distances.put(itrNeighbor, distances.get(itrVertex) + 1);
+					queue.add(itrNeighbor);
+				}
+			}
+		}
+		return distances;
+	}
+
+	private static Map<Integer, Integer> componentSizes(GraphADT<String> graph) {
+		Map<Integer, Integer> sizes = new TreeMap<>();
+		Set<String> visited = new HashSet<>();
+		for (String itrVertex : graph.getAllVertices()) {
+			if (visited.add(itrVertex)) {
+				Set<String> component = breadthFirstSearch(graph, itrVertex).keySet();
+				visited.addAll(component);
+				sizes.merge(component.size(), 1, Integer::sum);
+			}
+		}
+		return sizes;
+	}
+
+	private String writeDictionary(String name, List<String> words) throws IOException {
+		File file = this.folder.newFile(name);
+		Files.write(file.toPath(), words);
+		return file.getPath();
+	}
+
+	private static String randomWord(Random random, int length, String alphabet) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++)
+			word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		return word.toString();
+	}
+
+	private static int countVertices(GraphProcessor processor) {
+		int verticesCount = 0;
+		for (String itrVertex : processor.getGraph().getAllVertices())
+			verticesCount++;
+		return verticesCount;
+	}
+
+	private static TreeSet<String> edges(GraphProcessor processor) {
+		TreeSet<String> edges = new TreeSet<>();
+		for (String itrVertex : processor.getGraph().getAllVertices())
+			for (String itrNeighbor : processor.getGraph().getNeighbors(itrVertex))
+				edges.add(itrVertex + "-" + itrNeighbor);
+		return edges;
+	}
+
+	private static TreeSet<String> pairwiseEdges(GraphProcessor processor) {
+		return pairwiseEdges(processor, 1);
+	}
+
+	private static TreeSet<String> pairwiseEdges(GraphProcessor processor, int maxEdits) {
+		TreeSet<String> edges = new TreeSet<>();
+		for (String itrVertex1 : processor.getGraph().getAllVertices())
+			for (String itrVertex2 : processor.getGraph().getAllVertices())
+				if (WordProcessor.isAdjacent(itrVertex1, itrVertex2, maxEdits))
+					edges.add(itrVertex1 + "-" + itrVertex2);
+		return edges;
+	}
+}
@@ -0,0 +1,479 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a word graph and of its precomputed distances, so that a process can start serving queries
+ * without reading the dictionaries or searching the graph again
+ *
+ * The file starts with a header: a magic number, the format version, the number of sections, a CRC32 of the rest
+ * of the header and of the section table, and the largest number of edits between adjacent words, see
+ * {@link GraphProcessor#setMaxEdits(int)}. The section table follows, with the kind, the CRC32, the position and the
+ * length of every section. All numbers are big endian. The sections are:
+ *  - {@link #WORDS}: the number of ids, the offsets of the words in id order and their UTF-8 bytes,
+ *    removed vertices being empty words
+ *  - {@link #ADJACENCY}: the compressed sparse row arrays of the frozen graph, see {@link CompactGraph#offsets()}
+ *  - {@link #DISTANCES}, if a {@link DistanceMatrix} was computed: its width, its number of ids, the CRC32 of every
+ *    row and the rows, in the layout of {@link MappedDistanceStore}; the checksum of the section only covers what
+ *    comes before the rows
+ *
+ * Loading maps the file and checks the words and the adjacency against their checksums, and copies them out of the
+ * mapping in bulk. The distances stay in the mapping and are read from the page cache, see
+ * {@link MappedDistanceStore#map(FileChannel, long, int, int)}; every row is checked the first time it is read, see
+ * {@link CheckedDistanceStore}, so loading takes time linear in the size of the graph, not of the distances.
+ * Snapshots are written to a temporary file which is moved into place once complete.
+ */
+public class GraphSnapshot {
+
+    /**
+     * Kind of the section of the words
+     */
+    public static final int WORDS = 1;
+
+    /**
+     * Kind of the section of the adjacency
+     */
+    public static final int ADJACENCY = 2;
+
+    /**
+     * Kind of the section of the distances
+     */
+    public static final int DISTANCES = 3;
+
+    /**
+     * "WLGS", first bytes of every snapshot
+     */
+    private static final int MAGIC = 0x574C4753;
+
+    /**
+     * Version of the file format
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Number of bytes of the header before the section table
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * Position of the first byte of the header covered by its checksum
+     */
+    private static final int CHECKED_HEADER = 16;
+
+    /**
+     * Number of bytes of an entry of the section table
+     */
+    private static final int ENTRY_SIZE = 24;
+
+    /**
+     * Number of bytes written or checked at once
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The graph, frozen
+     */
+    private final CompactGraph<String> graph;
+
+    /**
+     * Largest number of edits between adjacent words of the graph
+     */
+    private final int maxEdits;
+
+    /**
+     * The distances, null if the snapshot has none
+     */
+    private final DistanceMatrix distanceMatrix;
+
+    /**
+     * Constructs a loaded snapshot
+     *
+     * @param graph the graph
+     * @param maxEdits largest number of edits between adjacent words
+     * @param distanceMatrix the distances, null if none
+     */
+    private GraphSnapshot(CompactGraph<String> graph, int maxEdits, DistanceMatrix distanceMatrix) {
+        this.graph = graph;
+        this.maxEdits = maxEdits;
+        this.distanceMatrix = distanceMatrix;
+    }
+
+    /**
+     * Gets the graph of the snapshot
+     *
+     * @return the graph, frozen
+     */
+    public CompactGraph<String> graph() {
+        return this.graph;
+    }
+
+    /**
+     * Gets the largest number of edits between adjacent words of the graph of the snapshot
+     *
+     * @return number of edits, see {@link GraphProcessor#setMaxEdits(int)}
+     */
+    public int maxEdits() {
+        return this.maxEdits;
+    }
+
+    /**
+     * Gets the distances of the snapshot
+     *
+     * @return the distances, mapped from the snapshot file, null if the snapshot has none
+     */
+    public DistanceMatrix distanceMatrix() {
+        return this.distanceMatrix;
+    }
+
+    /**
+     * Writes a snapshot, replacing the file atomically once complete
+     *
+     * @param file path of the snapshot
+     * @param graph the graph, frozen by this call
+     * @param maxEdits largest number of edits between adjacent words of the graph
+     * @param distanceMatrix distances between all the vertices of the graph, null if none
+     * @throws IOException if the file can not be written
+     */
+    public static void write(Path file, CompactGraph<String> graph, int maxEdits, DistanceMatrix distanceMatrix)
+            throws IOException {
+        int sectionCount = distanceMatrix == null ? 2 : 3;
+        long[] table = new long[sectionCount * 3];
+        Path temporary = MappedDistanceStore.createTemporaryFile(file);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            long position = HEADER_SIZE + (long) sectionCount * ENTRY_SIZE;
+            position = writeWords(channel, position, graph, table, 0);
+            position = writeAdjacency(channel, position, graph, table, 3);
+            if (distanceMatrix != null)
+                writeDistances(channel, position, distanceMatrix.store(), table, 6);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + sectionCount * ENTRY_SIZE);
+            header.position(HEADER_SIZE);
+            for (int i = 0; i < sectionCount; i++)
+                header.putInt(i + 1).putInt((int) table[3 * i]).putLong(table[3 * i + 1]).putLong(table[3 * i + 2]);
+            header.putInt(CHECKED_HEADER, maxEdits);
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), CHECKED_HEADER, HEADER_SIZE - CHECKED_HEADER + sectionCount * ENTRY_SIZE);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, sectionCount).putInt(12, (int) crc.getValue());
+            header.clear();
+            write(channel, header, 0);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot, checking the header, the words and the adjacency against their checksums; the rows of the
+     * distances are checked as they are read
+     *
+     * @param file path of the snapshot
+     * @return the snapshot
+     * @throws IOException if the file can not be read, is not a snapshot of this version or is corrupt
+     */
+    public static GraphSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            read(channel, header, 0);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException(file + " is not a graph snapshot");
+            if (header.getInt(4) != VERSION)
+                throw new IOException(file + " has snapshot version " + header.getInt(4) + ", expected " + VERSION);
+            int sectionCount = header.getInt(8);
+            if (sectionCount < 2 || sectionCount > 3)
+                throw new IOException(file + " has " + sectionCount + " sections");
+            ByteBuffer table = ByteBuffer.allocate(sectionCount * ENTRY_SIZE);
+            read(channel, table, HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), CHECKED_HEADER, HEADER_SIZE - CHECKED_HEADER);
+            crc.update(table.array());
+            int maxEdits = header.getInt(CHECKED_HEADER);
+            if ((int) crc.getValue() != header.getInt(12) || maxEdits < 1)
+                throw new IOException(file + " has a corrupt section table");
+
+            long[][] sections = new long[4][];
+            for (int i = 0; i < sectionCount; i++) {
+                int kind = table.getInt(i * ENTRY_SIZE);
+                long position = table.getLong(i * ENTRY_SIZE + 8);
+                long length = table.getLong(i * ENTRY_SIZE + 16);
+                if (kind < WORDS || kind > DISTANCES || position < 0 || length < 0
+                        || position + length > channel.size())
+                    throw new IOException(file + " has a corrupt section table");
+                long checked = length;
+                if (kind == DISTANCES) {
+                    // only the header of the distances and the checksums of the rows
+                    ByteBuffer distances = ByteBuffer.allocate(8);
+                    read(channel, distances, position);
+                    checked = Math.min(length, 8 + 4L * Math.max(distances.getInt(4), 0));
+                }
+                if (checksum(channel, position, checked) != table.getInt(i * ENTRY_SIZE + 4))
+                    throw new IOException(file + " has a corrupt section " + kind);
+                sections[kind] = new long[] { position, length };
+            }
+            if (sections[WORDS] == null || sections[ADJACENCY] == null)
+                throw new IOException(file + " has no graph");
+
+            String[] words = readWords(channel, sections[WORDS]);
+            MappedByteBuffer adjacency = channel.map(FileChannel.MapMode.READ_ONLY, sections[ADJACENCY][0],
+                    sections[ADJACENCY][1]);
+            int idCount = adjacency.getInt();
+            int targetCount = adjacency.getInt();
+            if (idCount != words.length || sections[ADJACENCY][1] != 8 + 4L * (idCount + 1 + targetCount))
+                throw new IOException(file + " has a corrupt adjacency");
+            int[] offsets = new int[idCount + 1];
+            int[] targets = new int[targetCount];
+            adjacency.asIntBuffer().get(offsets).get(targets);
+            CompactGraph<String> graph = CompactGraph.frozen(words, offsets, targets);
+
+            DistanceMatrix distanceMatrix = null;
+            if (sections[DISTANCES] != null) {
+                ByteBuffer distances = ByteBuffer.allocate(8 + 4 * idCount);
+                read(channel, distances, sections[DISTANCES][0]);
+                int width = distances.getInt(0);
+                if (distances.getInt(4) != idCount || (width != 1 && width != 2)
+                        || sections[DISTANCES][1] != 8 + 4L * idCount + (long) idCount * idCount * width)
+                    throw new IOException(file + " has corrupt distances");
+                int[] checksums = new int[idCount];
+                distances.position(8);
+                distances.asIntBuffer().get(checksums);
+                MappedDistanceStore rows = MappedDistanceStore.map(channel, sections[DISTANCES][0] + 8 + 4L * idCount,
+                        idCount, width);
+                distanceMatrix = DistanceMatrix.of(new CheckedDistanceStore(rows, checksums, offsets, targets));
+            }
+            return new GraphSnapshot(graph, maxEdits, distanceMatrix);
+        }
+    }
+
+    /**
+     * Writes the words section
+     *
+     * @param channel channel of the file
+     * @param position position of the section
+     * @param graph the graph
+     * @param table section table, filled with the checksum, position and length of the section
+     * @param entry index of the entry of the section in table
+     * @return position after the section
+     * @throws IOException if the file can not be written
+     */
+    private static long writeWords(FileChannel channel, long position, CompactGraph<String> graph, long[] table,
+            int entry) throws IOException {
+        int idCount = graph.idCount();
+        byte[][] words = new byte[idCount][];
+        ByteBuffer offsets = ByteBuffer.allocate(4 * (idCount + 2));
+        offsets.putInt(idCount);
+        int offset = 0;
+        for (int id = 0; id < idCount; id++) {
+            String word = graph.vertexAt(id);
+            words[id] = word == null ? new byte[0] : word.getBytes(StandardCharsets.UTF_8);
+            offsets.putInt(offset);
+            offset += words[id].length;
+        }
+        offsets.putInt(offset);
+        ByteBuffer bytes = ByteBuffer.allocate(offset);
+        for (byte[] word : words)
+            bytes.put(word);
+        return writeSection(channel, position, table, entry, offsets, bytes);
+    }
+
+    /**
+     * Writes the adjacency section
+     *
+     * @param channel channel of the file
+     * @param position position of the section
+     * @param graph the graph
+     * @param table section table, filled with the checksum, position and length of the section
+     * @param entry index of the entry of the section in table
+     * @return position after the section
+     * @throws IOException if the file can not be written
+     */
+    private static long writeAdjacency(FileChannel channel, long position, CompactGraph<String> graph, long[] table,
+            int entry) throws IOException {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 4 * (offsets.length + targets.length));
+        buffer.putInt(offsets.length - 1).putInt(targets.length);
+        buffer.asIntBuffer().put(offsets).put(targets);
+        buffer.position(buffer.limit());
+        return writeSection(channel, position, table, entry, buffer);
+    }
+
+    /**
+     * Writes the distances section, one row at a time, then the checksums of the rows before them
+     *
+     * @param channel channel of the file
+     * @param position position of the section
+     * @param store the distances
+     * @param table section table, filled with the checksum, position and length of the section
+     * @param entry index of the entry of the section in table
+     * @return position after the section
+     * @throws IOException if the file can not be written
+     */
+    private static long writeDistances(FileChannel channel, long position, DistanceStore store, long[] table,
+            int entry) throws IOException {
+        int idCount = store.idCount();
+        int width = store.width();
+        ByteBuffer checksums = ByteBuffer.allocate(8 + 4 * idCount);
+        checksums.putInt(width).putInt(idCount);
+        long next = position + checksums.capacity();
+        int[] row = new int[idCount];
+        CRC32 rowCrc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(CHUNK_SIZE, idCount * width));
+        for (int source = 0; source < idCount; source++) {
+            if (buffer.remaining() < idCount * width) {
+                next = flush(channel, buffer, next, null);
+            }
+            int start = buffer.position();
+            store.readRow(source, row);
+            for (int target = 0; target < idCount; target++) {
+                // unreachable is all ones in either width
+                if (width == 1)
+                    buffer.put((byte) row[target]);
+                else
+                    buffer.putChar((char) row[target]);
+            }
+            rowCrc.reset();
+            rowCrc.update(buffer.array(), start, idCount * width);
+            checksums.putInt((int) rowCrc.getValue());
+        }
+        next = flush(channel, buffer, next, null);
+        CRC32 crc = new CRC32();
+        flush(channel, checksums, position, crc);
+        table[entry] = crc.getValue();
+        table[entry + 1] = position;
+        table[entry + 2] = next - position;
+        return next;
+    }
+
+    /**
+     * Writes a whole section from buffers filled up to their position
+     *
+     * @param channel channel of the file
+     * @param position position of the section
+     * @param table section table, filled with the checksum, position and length of the section
+     * @param entry index of the entry of the section in table
+     * @param buffers contents of the section
+     * @return position after the section
+     * @throws IOException if the file can not be written
+     */
+    private static long writeSection(FileChannel channel, long position, long[] table, int entry,
+            ByteBuffer... buffers) throws IOException {
+        CRC32 crc = new CRC32();
+        long next = position;
+        for (ByteBuffer buffer : buffers)
+            next = flush(channel, buffer, next, crc);
+        table[entry] = crc.getValue();
+        table[entry + 1] = position;
+        table[entry + 2] = next - position;
+        return next;
+    }
+
+    /**
+     * Writes a buffer filled up to its position and clears it, updating a checksum
+     *
+     * @param channel channel of the file
+     * @param buffer the buffer
+     * @param position position in the file
+     * @param crc the checksum, null if none
+     * @return position after the written bytes
+     * @throws IOException if the file can not be written
+     */
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position, CRC32 crc) throws IOException {
+        buffer.flip();
+        if (crc != null)
+            crc.update(buffer.array(), buffer.arrayOffset(), buffer.limit());
+        long next = write(channel, buffer, position);
+        buffer.clear();
+        return next;
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer
+     *
+     * @param channel channel of the file
+     * @param buffer the buffer
+     * @param position position in the file
+     * @return position after the written bytes
+     * @throws IOException if the file can not be written
+     */
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining())
+            next += channel.write(buffer, next);
+        return next;
+    }
+
+    /**
+     * Reads bytes until a buffer is full
+     *
+     * @param channel channel of the file
+     * @param buffer the buffer
+     * @param position position in the file
+     * @throws IOException if the file ends before the buffer is full
+     */
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, next);
+            if (read < 0)
+                throw new IOException("unexpected end of snapshot");
+            next += read;
+        }
+    }
+
+    /**
+     * Computes the CRC32 of a range of the file through a mapping, one chunk at a time
+     *
+     * @param channel channel of the file
+     * @param position start of the range
+     * @param length length of the range
+     * @return the checksum
+     * @throws IOException if the file can not be mapped
+     */
+    private static int checksum(FileChannel channel, long position, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long done = 0; done < length;) {
+            long size = Math.min(length - done, 1L << 30);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position + done, size));
+            done += size;
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads the words section
+     *
+     * @param channel channel of the file
+     * @param section position and length of the section
+     * @return words indexed by id, null for removed vertices
+     * @throws IOException if the file can not be read or the section is corrupt
+     */
+    private static String[] readWords(FileChannel channel, long[] section) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, section[0], section[1]);
+        int idCount = buffer.getInt();
+        if (idCount < 0 || section[1] < 4 * (idCount + 2L))
+            throw new IOException("corrupt words in snapshot");
+        int[] offsets = new int[idCount + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(4 * (idCount + 2));
+        if (section[1] != 4 * (idCount + 2L) + offsets[idCount])
+            throw new IOException("corrupt words in snapshot");
+        byte[] bytes = new byte[offsets[idCount]];
+        buffer.get(bytes);
+        String[] words = new String[idCount];
+        for (int id = 0; id < idCount; id++) {
+            int length = offsets[id + 1] - offsets[id];
+            if (length < 0)
+                throw new IOException("corrupt words in snapshot");
+            words[id] = length == 0 ? null : new String(bytes, offsets[id], length, StandardCharsets.UTF_8);
+        }
+        return words;
+    }
+}
@@ -49,7 +49,16 @@ public class GraphTest {
 
 	@Before
 	public void setUp() throws Exception {
-		this.graph = new Graph<>();
+		this.graph = createGraph();
+	}
+
+	/**
+	 * Creates the graph under test, tests of other implementations of @see GraphADT override this
+	 *
+	 * @return an empty graph
+	 */
+	protected GraphADT<String> createGraph() {
+		return new Graph<>();
 	}
 
 	@After
@@ -0,0 +1,129 @@
+import java.util.Arrays;
+
+/**
+ * {@link WritableDistanceStore} in a flat array on the heap: a byte[] with one byte per pair, or a char[] with two
+ *
+ * Rows are allocated with room for more ids than needed, so that a few more words can be added without
+ * moving the rows, see {@link #setIdCount(int)}.
+ */
+public class HeapDistanceStore implements WritableDistanceStore {
+
+    /**
+     * Largest number of ids the store can hold, so that every distance has an int index
+     */
+    public static final int MAX_IDS = 46340;
+
+    /**
+     * Number of vertex ids
+     */
+    private int idCount;
+
+    /**
+     * Distance between row i and column j is at index i * stride + j
+     */
+    private final int stride;
+
+    /**
+     * Distances with one byte per pair, null with two
+     */
+    private final byte[] narrow;
+
+    /**
+     * Distances with two bytes per pair, null with one
+     */
+    private final char[] wide;
+
+    /**
+     * Constructs a store where every pair is unreachable
+     *
+     * @param idCount number of vertex ids
+     * @param capacity largest number of ids, at least idCount and at most {@link #MAX_IDS}
+     * @param width number of bytes of every distance, 1 or 2
+     */
+    public HeapDistanceStore(int idCount, int capacity, int width) {
+        if (capacity > MAX_IDS)
+            throw new IllegalArgumentException("too many vertices for a distance matrix on the heap: " + capacity);
+        this.idCount = idCount;
+        this.stride = capacity;
+        if (width == 1) {
+            this.narrow = new byte[capacity * capacity];
+            this.wide = null;
+            Arrays.fill(this.narrow, (byte) 0xFF);
+        } else {
+            this.narrow = null;
+            this.wide = new char[capacity * capacity];
+            Arrays.fill(this.wide, (char) 0xFFFF);
+        }
+    }
+
+    /**
+     * Gets the largest number of ids
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.stride;
+    }
+
+    /**
+     * Changes the number of ids, the distances to and from the new ids being unreachable
+     *
+     * @param idCount number of ids, not more than the capacity nor less than the current number
+     */
+    public void setIdCount(int idCount) {
+        this.idCount = idCount;
+    }
+
+    @Override
+    public int idCount() {
+        return this.idCount;
+    }
+
+    @Override
+    public int width() {
+        return this.narrow != null ? 1 : 2;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return this.narrow != null ? this.narrow.length : 2L * this.wide.length;
+    }
+
+    @Override
+    public int distance(int source, int target) {
+        int index = source * this.stride + target;
+        if (this.narrow != null) {
+            int distance = this.narrow[index] & 0xFF;
+            return distance == 0xFF ? UNREACHABLE : distance;
+        }
+        int distance = this.wide[index];
+        return distance == 0xFFFF ? UNREACHABLE : distance;
+    }
+
+    @Override
+    public void readRow(int source, int[] row) {
+        for (int target = 0; target < this.idCount; target++)
+            row[target] = distance(source, target);
+    }
+
+    @Override
+    public boolean writeRow(int source, int[] row) {
+        int offset = source * this.stride;
+        if (this.narrow != null) {
+            for (int target = 0; target < this.idCount; target++) {
+                int distance = row[target];
+                if (distance >= 0xFF)
+                    return false;
+                this.narrow[offset + target] = (byte) distance;
+            }
+        } else {
+            for (int target = 0; target < this.idCount; target++) {
+                int distance = row[target];
+                if (distance >= 0xFFFF)
+                    return false;
+                this.wide[offset + target] = (char) distance;
+            }
+        }
+        return true;
+    }
+}
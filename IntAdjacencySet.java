@@ -0,0 +1,279 @@
+import java.util.Arrays;
+
+/**
+ * Set of neighbour ids of one vertex, stored without boxing
+ *
+ * Small sets are a sorted int array searched with a binary search. Once a set grows past {@link #MAX_SORTED} ids
+ * it switches to an open addressing hash table with linear probing, which it keeps until it shrinks to a quarter
+ * of that. Adding, removing and finding an id never allocates, apart from growing the array.
+ *
+ * The ids are exposed as slots for iteration: {@link #slot(int)} for every index below {@link #slotCount()}
+ * returns an id, or a negative value for an unused slot of the hash table.
+ */
+public class IntAdjacencySet {
+
+    /**
+     * Largest number of ids kept in a sorted array
+     */
+    static final int MAX_SORTED = 32;
+
+    /**
+     * Unused slot of the hash table, ids are never negative
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Sorted ids in the first {@link #size} entries, or a hash table whose length is a power of two
+     * larger than {@link #MAX_SORTED}
+     */
+    private int[] values;
+
+    /**
+     * Number of ids in the set
+     */
+    private int size;
+
+    /**
+     * Constructs an empty set
+     */
+    public IntAdjacencySet() {
+        this.values = new int[2];
+        this.size = 0;
+    }
+
+    /**
+     * Constructs a set of sorted, distinct ids
+     *
+     * @param sorted the ids
+     * @param from index of the first id
+     * @param to index after the last id
+     */
+    public IntAdjacencySet(int[] sorted, int from, int to) {
+        this.size = to - from;
+        if (this.size <= MAX_SORTED) {
+            this.values = new int[Math.max(Math.min(this.size * 2, MAX_SORTED), 2)];
+            System.arraycopy(sorted, from, this.values, 0, this.size);
+            return;
+        }
+        this.values = newTable(this.size);
+        for (int i = from; i < to; i++)
+            insert(this.values, sorted[i]);
+    }
+
+    /**
+     * Adds an id
+     *
+     * @param id the id, not negative
+     * @return true if the id was added, false if already in the set
+     */
+    public boolean add(int id) {
+        if (isHashed()) {
+            if (indexOf(id) >= 0)
+                return false;
+            if ((this.size + 1) * 2 > this.values.length)
+                rehash(this.values.length * 2);
+            insert(this.values, id);
+            this.size++;
+            return true;
+        }
+
+        int index = Arrays.binarySearch(this.values, 0, this.size, id);
+        if (index >= 0)
+            return false;
+        if (this.size == MAX_SORTED) {
+            rehash(MAX_SORTED * 4);
+            insert(this.values, id);
+            this.size++;
+            return true;
+        }
+        index = -index - 1;
+        if (this.size == this.values.length)
+            this.values = Arrays.copyOf(this.values, Math.min(this.size * 2, MAX_SORTED));
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+        this.values[index] = id;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Removes an id
+     *
+     * @param id the id
+     * @return true if the id was removed, false if not in the set
+     */
+    public boolean remove(int id) {
+        if (!isHashed()) {
+            int index = Arrays.binarySearch(this.values, 0, this.size, id);
+            if (index < 0)
+                return false;
+            System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+            this.size--;
+            return true;
+        }
+
+        int index = indexOf(id);
+        if (index < 0)
+            return false;
+        // shift back the following entries of the probe sequence, so that no tombstone is needed
+        int mask = this.values.length - 1;
+        int hole = index;
+        for (int next = (hole + 1) & mask; this.values[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(this.values[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+        }
+        this.values[hole] = EMPTY;
+        this.size--;
+        if (this.size < MAX_SORTED / 4)
+            unhash();
+        return true;
+    }
+
+    /**
+     * Checks whether an id is in the set
+     *
+     * @param id the id
+     * @return true if the id is in the set
+     */
+    public boolean contains(int id) {
+        if (isHashed())
+            return indexOf(id) >= 0;
+        return Arrays.binarySearch(this.values, 0, this.size, id) >= 0;
+    }
+
+    /**
+     * Gets the number of ids in the set
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of slots to iterate over
+     *
+     * @return the number of slots
+     */
+    public int slotCount() {
+        return isHashed() ? this.values.length : this.size;
+    }
+
+    /**
+     * Gets the id in a slot
+     *
+     * @param slot the slot, less than {@link #slotCount()}
+     * @return the id, or a negative value for an unused slot
+     */
+    public int slot(int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Copies the ids, in ascending order, into an array
+     *
+     * @param destination the array
+     * @param offset index of the first copied id
+     */
+    public void copySortedTo(int[] destination, int offset) {
+        if (!isHashed()) {
+            System.arraycopy(this.values, 0, destination, offset, this.size);
+            return;
+        }
+        int next = offset;
+        for (int value : this.values) {
+            if (value != EMPTY)
+                destination[next++] = value;
+        }
+        Arrays.sort(destination, offset, next);
+    }
+
+    /**
+     * Checks whether the ids are in a hash table
+     *
+     * @return true if hashed, false if sorted
+     */
+    private boolean isHashed() {
+        return this.values.length > MAX_SORTED;
+    }
+
+    /**
+     * Finds the slot of an id in the hash table
+     *
+     * @param id the id
+     * @return the slot, -1 if the id is not in the set
+     */
+    private int indexOf(int id) {
+        int mask = this.values.length - 1;
+        for (int index = hash(id) & mask; this.values[index] != EMPTY; index = (index + 1) & mask) {
+            if (this.values[index] == id)
+                return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the ids into a hash table of the given capacity
+     *
+     * @param capacity power of two larger than {@link #MAX_SORTED}
+     */
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (this.values[slot] != EMPTY)
+                insert(table, this.values[slot]);
+        }
+        this.values = table;
+    }
+
+    /**
+     * Moves the ids from the hash table back into a sorted array
+     */
+    private void unhash() {
+        int[] sorted = new int[MAX_SORTED];
+        copySortedTo(sorted, 0);
+        this.values = sorted;
+    }
+
+    /**
+     * Creates a hash table for the given number of ids
+     *
+     * @param size number of ids
+     * @return an empty table
+     */
+    private static int[] newTable(int size) {
+        int capacity = MAX_SORTED * 2;
+        while (capacity < size * 2)
+            capacity *= 2;
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /**
+     * Inserts an id, which is not in the table, into a hash table with a free slot
+     *
+     * @param table the hash table
+     * @param id the id
+     */
+    private static void insert(int[] table, int id) {
+        int mask = table.length - 1;
+        int index = hash(id) & mask;
+        while (table[index] != EMPTY)
+            index = (index + 1) & mask;
+        table[index] = id;
+    }
+
+    /**
+     * Spreads consecutive ids over the hash table
+     *
+     * @param id the id
+     * @return the hash
+     */
+    private static int hash(int id) {
+        return id * 0x9E3779B9 >>> 7;
+    }
+}
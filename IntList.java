@@ -0,0 +1,92 @@
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used instead of a {@code List<Integer>} on hot paths to avoid boxing
+ */
+public class IntList {
+
+    /**
+     * Backing array, only the first {@link #size} ints are used
+     */
+    private int[] values;
+
+    /**
+     * Number of ints in the list
+     */
+    private int size;
+
+    /**
+     * Constructs an empty list
+     */
+    public IntList() {
+        this(8);
+    }
+
+    /**
+     * Constructs an empty list with room for the given number of ints
+     *
+     * @param capacity initial capacity
+     */
+    public IntList(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * Appends an int
+     *
+     * @param value the int
+     */
+    public void add(int value) {
+        if (this.size == this.values.length)
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+        this.values[this.size++] = value;
+    }
+
+    /**
+     * Appends all the ints of another list
+     *
+     * @param other the other list
+     */
+    public void addAll(IntList other) {
+        if (this.size + other.size > this.values.length)
+            this.values = Arrays.copyOf(this.values, Math.max(this.size + other.size, this.size * 2));
+        System.arraycopy(other.values, 0, this.values, this.size, other.size);
+        this.size += other.size;
+    }
+
+    /**
+     * Gets the int at an index
+     *
+     * @param index the index, must be less than {@link #size()}
+     * @return the int
+     */
+    public int get(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Gets the number of ints in the list
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all the ints, keeping the capacity
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Copies the ints into a new array of exactly {@link #size()} ints
+     *
+     * @return the array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
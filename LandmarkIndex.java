@@ -0,0 +1,433 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Distances from a few landmark vertices of a frozen {@link CompactGraph} to every vertex, which bound the distance
+ * between any two vertices in O(landmarks) by the triangle inequality (ALT: A*, landmarks, triangle inequality)
+ *
+ * For a landmark L and vertices s and t:
+ *  - |d(L, s) - d(L, t)| is at most d(s, t), a lower bound which is also a consistent heuristic for an A* search
+ *    towards t, see {@link AStarSearch#setLandmarks(LandmarkIndex)}.
+ *  - d(L, s) + d(L, t) is at least d(s, t), the length of a path through L.
+ * Every landmark costs one breadth first search to build and 2 bytes per vertex, a short per vertex; distances
+ * beyond {@link Short#MAX_VALUE} are stored as unreachable, which only loosens the bounds.
+ */
+public class LandmarkIndex {
+
+    /**
+     * Distance of an unreachable vertex, and bound of vertices no landmark reaches
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Ways to pick the landmarks
+     */
+    public enum Selection {
+        /**
+         * the vertices of highest degree, searched in parallel
+         */
+        DEGREE,
+        /**
+         * the vertex of highest degree, then repeatedly the vertex farthest from all the landmarks picked so far,
+         * which spreads the landmarks to the ends of the graph where the bounds are tightest; a vertex of highest
+         * degree in a component without landmark once every reachable vertex is a landmark
+         */
+        FARTHEST
+    }
+
+    /**
+     * Number of ids of the graph the index was built for
+     */
+    private final int idCount;
+
+    /**
+     * Ids of the landmarks
+     */
+    private final int[] landmarks;
+
+    /**
+     * Distance from every landmark to every vertex, {@link #UNREACHABLE} if there is no path
+     */
+    private final short[][] distances;
+
+    private LandmarkIndex(int idCount, int[] landmarks, short[][] distances) {
+        this.idCount = idCount;
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    /**
+     * Picks the landmarks and searches from every one of them
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param count number of landmarks, fewer if fewer vertices have a neighbour
+     * @param selection way to pick the landmarks
+     * @param pool pool which runs the searches of {@link Selection#DEGREE}
+     * @return the index
+     */
+    public static LandmarkIndex build(int[] offsets, int[] targets, int count, Selection selection,
+            ForkJoinPool pool) {
+        int idCount = offsets.length - 1;
+        if (selection == Selection.DEGREE) {
+            int[] landmarks = highestDegrees(offsets, count);
+            short[][] distances = new short[landmarks.length][];
+            if (landmarks.length > 0)
+                pool.invoke(new SearchTask(offsets, targets, landmarks, distances, 0, landmarks.length));
+            return new LandmarkIndex(idCount, landmarks, distances);
+        }
+
+        IntList landmarks = new IntList();
+        short[][] distances = new short[count][];
+        // distance to the closest landmark, MAX_VALUE if no landmark reaches the vertex
+        int[] closest = new int[idCount];
+        Arrays.fill(closest, Integer.MAX_VALUE);
+        int[] queue = new int[idCount];
+        int[] first = highestDegrees(offsets, 1);
+        int next = first.length == 0 ? UNREACHABLE : first[0];
+        while (next != UNREACHABLE && landmarks.size() < count) {
+            short[] row = search(offsets, targets, next, queue);
+            distances[landmarks.size()] = row;
+            landmarks.add(next);
+            int farthest = UNREACHABLE;
+            int unreached = UNREACHABLE;
+            for (int id = 0; id < idCount; id++) {
+                if (row[id] != UNREACHABLE)
+                    closest[id] = Math.min(closest[id], row[id]);
+                if (closest[id] == Integer.MAX_VALUE) {
+                    if (offsets[id + 1] > offsets[id] && (unreached == UNREACHABLE
+                            || offsets[id + 1] - offsets[id] > offsets[unreached + 1] - offsets[unreached]))
+                        unreached = id;
+                } else if (closest[id] > 0 && (farthest == UNREACHABLE || closest[id] > closest[farthest])) {
+                    farthest = id;
+                }
+            }
+            next = farthest != UNREACHABLE ? farthest : unreached;
+        }
+        return new LandmarkIndex(idCount, landmarks.toArray(), Arrays.copyOf(distances, landmarks.size()));
+    }
+
+    /**
+     * Updates the index after edges, and possibly vertices, were added to the graph and edges removed from it.
+     * The distances from a landmark only lengthen if a removed edge joined two vertices one step apart from it:
+     * those landmarks are searched from again. Added edges only shorten distances, so the rows of the other
+     * landmarks are relaxed outwards from the endpoints of the new edges which they reach, in increasing order of
+     * distance, and new vertices are only reached through their new edges.
+     *
+     * @param offsets offsets of the compressed rows of the updated graph, with at least the ids of this index
+     * @param targets neighbours of the compressed rows of the updated graph
+     * @param addedEdges ids of the endpoints of the added edges, two per edge, including every edge of a new vertex
+     * @param removedEdges ids of the endpoints of the removed edges, two per edge
+     * @return the updated index, this index if no landmark is affected
+     */
+    public LandmarkIndex update(int[] offsets, int[] targets, IntList addedEdges, IntList removedEdges) {
+        int idCount = offsets.length - 1;
+        short[][] distances = this.distances;
+        int[] queue = null;
+        for (int landmark = 0; landmark < this.landmarks.length; landmark++) {
+            short[] row = this.distances[landmark];
+            short[] updated;
+            if (crossesRemovedEdge(row, removedEdges)) {
+                if (queue == null)
+                    queue = new int[idCount];
+                updated = search(offsets, targets, this.landmarks[landmark], queue);
+            } else {
+                updated = relax(offsets, targets, row, addedEdges);
+            }
+            if (updated == row)
+                continue;
+            if (distances == this.distances)
+                distances = this.distances.clone();
+            distances[landmark] = updated;
+        }
+        return distances == this.distances && idCount == this.idCount ? this
+                : new LandmarkIndex(idCount, this.landmarks, distances);
+    }
+
+    /**
+     * Gets the number of ids of the graph the index was built for
+     *
+     * @return number of ids
+     */
+    public int idCount() {
+        return this.idCount;
+    }
+
+    /**
+     * Gets the number of landmarks
+     *
+     * @return number of landmarks
+     */
+    public int landmarkCount() {
+        return this.landmarks.length;
+    }
+
+    /**
+     * Gets the id of a landmark
+     *
+     * @param landmark index of the landmark
+     * @return id of the landmark vertex
+     */
+    public int landmark(int landmark) {
+        return this.landmarks[landmark];
+    }
+
+    /**
+     * Gets the distance from a landmark to a vertex
+     *
+     * @param landmark index of the landmark
+     * @param id id of the vertex
+     * @return the distance, {@link #UNREACHABLE} if there is no path
+     */
+    public int distance(int landmark, int id) {
+        return this.distances[landmark][id];
+    }
+
+    /**
+     * Gets the largest lower bound of the distance between two vertices given by the landmarks
+     *
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return a lower bound of the distance, 0 if no landmark reaches both
+     */
+    public int lowerBound(int source, int target) {
+        int bound = 0;
+        for (short[] row : this.distances) {
+            int distance1 = row[source];
+            int distance2 = row[target];
+            if (distance1 != UNREACHABLE && distance2 != UNREACHABLE)
+                bound = Math.max(bound, Math.abs(distance1 - distance2));
+        }
+        return bound;
+    }
+
+    /**
+     * Gets the smallest upper bound of the distance between two vertices given by the landmarks
+     *
+     * @param source id of the first vertex
+     * @param target id of the second vertex
+     * @return the length of the shortest path through a landmark, {@link #UNREACHABLE} if no landmark reaches both
+     */
+    public int upperBound(int source, int target) {
+        int bound = Integer.MAX_VALUE;
+        for (short[] row : this.distances) {
+            int distance1 = row[source];
+            int distance2 = row[target];
+            if (distance1 != UNREACHABLE && distance2 != UNREACHABLE)
+                bound = Math.min(bound, distance1 + distance2);
+        }
+        return bound == Integer.MAX_VALUE ? UNREACHABLE : bound;
+    }
+
+    /**
+     * Gets the distances from every landmark to a vertex, to compute many bounds towards that vertex
+     *
+     * @param id id of the vertex
+     * @param distances receives the distance from every landmark, at least {@link #landmarkCount()} long
+     */
+    public void readDistances(int id, int[] distances) {
+        for (int landmark = 0; landmark < this.distances.length; landmark++)
+            distances[landmark] = this.distances[landmark][id];
+    }
+
+    /**
+     * Gets the largest lower bound of the distance between a vertex and the vertex of some distances
+     *
+     * @param id id of the vertex
+     * @param distances distances from every landmark to the other vertex, see {@link #readDistances(int, int[])}
+     * @return a lower bound of the distance, 0 if no landmark reaches both
+     */
+    public int lowerBound(int id, int[] distances) {
+        int bound = 0;
+        for (int landmark = 0; landmark < this.distances.length; landmark++) {
+            int distance1 = this.distances[landmark][id];
+            int distance2 = distances[landmark];
+            if (distance1 != UNREACHABLE && distance2 != UNREACHABLE)
+                bound = Math.max(bound, Math.abs(distance1 - distance2));
+        }
+        return bound;
+    }
+
+    /**
+     * Gets the vertices of highest degree, lowest id first among equal degrees, skipping vertices without neighbour
+     */
+    private static int[] highestDegrees(int[] offsets, int count) {
+        int idCount = offsets.length - 1;
+        IntList candidates = new IntList();
+        for (int id = 0; id < idCount; id++) {
+            if (offsets[id + 1] > offsets[id])
+                candidates.add(id);
+        }
+        Integer[] ids = new Integer[candidates.size()];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = candidates.get(i);
+        Arrays.sort(ids, (id1, id2) -> offsets[id2 + 1] - offsets[id2] != offsets[id1 + 1] - offsets[id1]
+                ? (offsets[id2 + 1] - offsets[id2]) - (offsets[id1 + 1] - offsets[id1])
+                : Integer.compare(id1, id2));
+        int[] highest = new int[Math.min(count, ids.length)];
+        for (int i = 0; i < highest.length; i++)
+            highest[i] = ids[i];
+        return highest;
+    }
+
+    /**
+     * Searches from a landmark
+     *
+     * @param offsets offsets of the compressed rows
+     * @param targets neighbours of the compressed rows
+     * @param landmark id of the landmark
+     * @param queue scratch queue, at least as long as the number of ids
+     * @return distance to every vertex
+     */
+    private static short[] search(int[] offsets, int[] targets, int landmark, int[] queue) {
+        short[] row = new short[offsets.length - 1];
+        Arrays.fill(row, (short) UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        row[landmark] = 0;
+        queue[tail++] = landmark;
+        while (head < tail) {
+            int vertex = queue[head++];
+            int next = row[vertex] + 1;
+            if (next > Short.MAX_VALUE)
+                break;
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                int neighbor = targets[i];
+                if (row[neighbor] == UNREACHABLE) {
+                    row[neighbor] = (short) next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Checks whether a removed edge joins two vertices one step apart in the row of a landmark, so that it may have
+     * been on a shortest path from the landmark
+     *
+     * @param row distances from the landmark before the update
+     * @param edges ids of the endpoints of the removed edges, two per edge
+     * @return true if the landmark must be searched from again
+     */
+    private static boolean crossesRemovedEdge(short[] row, IntList edges) {
+        for (int i = 0; i < edges.size(); i += 2) {
+            // an edge of a vertex newer than the row was never on a path from the landmark
+            if (edges.get(i) >= row.length || edges.get(i + 1) >= row.length)
+                continue;
+            int distance1 = row[edges.get(i)];
+            int distance2 = row[edges.get(i + 1)];
+            if (distance1 != UNREACHABLE && distance2 != UNREACHABLE && Math.abs(distance1 - distance2) == 1)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Shortens the distances of a row through added edges
+     *
+     * @param offsets offsets of the compressed rows of the updated graph
+     * @param targets neighbours of the compressed rows of the updated graph
+     * @param row distances from the landmark before the update
+     * @param edges ids of the endpoints of the added edges, two per edge
+     * @return the updated copy of the row, the row itself if it is unchanged
+     */
+    private static short[] relax(int[] offsets, int[] targets, short[] row, IntList edges) {
+        int idCount = offsets.length - 1;
+        boolean touched = false;
+        for (int i = 0; i < edges.size() && !touched; i++) {
+            int endpoint = edges.get(i);
+            touched = endpoint < row.length && row[endpoint] != UNREACHABLE;
+        }
+        if (!touched && row.length == idCount)
+            return row;
+
+        short[] updated = Arrays.copyOf(row, idCount);
+        Arrays.fill(updated, row.length, idCount, (short) UNREACHABLE);
+        if (!touched)
+            return updated;
+        List<IntList> layers = new ArrayList<>();
+        for (int i = 0; i < edges.size(); i += 2) {
+            relax(updated, edges.get(i), edges.get(i + 1), layers);
+            relax(updated, edges.get(i + 1), edges.get(i), layers);
+        }
+        for (int layer = 0; layer < layers.size(); layer++) {
+            IntList vertices = layers.get(layer);
+            for (int i = 0; vertices != null && i < vertices.size(); i++) {
+                int vertex = vertices.get(i);
+                // a vertex is queued again every time its distance shrinks, only its last entry is current
+                if (updated[vertex] != layer)
+                    continue;
+                for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++)
+                    relax(updated, vertex, targets[j], layers);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Shortens the distance of a vertex through one of its neighbours if possible, queueing it by its new distance
+     *
+     * @param row the row
+     * @param from id of the neighbour
+     * @param to id of the vertex
+     * @param layers vertices queued by distance
+     */
+    private static void relax(short[] row, int from, int to, List<IntList> layers) {
+        int distance = row[from];
+        if (distance == UNREACHABLE || distance + 1 > Short.MAX_VALUE
+                || (row[to] != UNREACHABLE && row[to] <= distance + 1))
+            return;
+        row[to] = (short) (distance + 1);
+        while (layers.size() <= distance + 1)
+            layers.add(null);
+        if (layers.get(distance + 1) == null)
+            layers.set(distance + 1, new IntList());
+        layers.get(distance + 1).add(to);
+    }
+
+    /**
+     * Searches from a range of landmarks, splitting it in halves
+     */
+    private static class SearchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        private final int[] landmarks;
+
+        private final short[][] distances;
+
+        private final int from;
+
+        private final int to;
+
+        private SearchTask(int[] offsets, int[] targets, int[] landmarks, short[][] distances, int from, int to) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.landmarks = landmarks;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new SearchTask(this.offsets, this.targets, this.landmarks, this.distances, this.from, middle),
+                        new SearchTask(this.offsets, this.targets, this.landmarks, this.distances, middle, this.to));
+                return;
+            }
+            this.distances[this.from] = search(this.offsets, this.targets, this.landmarks[this.from],
+                    new int[this.offsets.length - 1]);
+        }
+    }
+}
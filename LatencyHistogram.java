@@ -0,0 +1,179 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, recorded by many threads without locks
+ *
+ * Like an HdrHistogram, the buckets are linear below {@link #SUB_BUCKETS} and then split every power of two into
+ * {@link #SUB_BUCKETS} equal sub buckets, so every recorded value is known within 1 / {@link #SUB_BUCKETS}
+ * (under 1.6%) of itself over the whole range of a long, in a fixed array of 3712 counts. Recording a value is an
+ * increment of one count of an {@link AtomicLongArray}, an add to a {@link LongAdder} and a max; nothing allocates.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of sub buckets of every power of two, and of linear buckets below it
+     */
+    private static final int SUB_BUCKETS = 64;
+
+    /**
+     * log2 of {@link #SUB_BUCKETS}
+     */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /**
+     * Number of buckets, enough for any non negative long
+     */
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Number of values recorded in every bucket
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Sum of the recorded values
+     */
+    private final LongAdder sum;
+
+    /**
+     * Largest recorded value
+     */
+    private final LongAccumulator max;
+
+    /**
+     * Constructs an empty histogram
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records a value
+     *
+     * @param nanos the value, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        this.counts.incrementAndGet(bucketOf(value));
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Removes all the recorded values. Values recorded concurrently may or may not be kept.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            this.counts.set(bucket, 0);
+        this.sum.reset();
+        this.max.reset();
+    }
+
+    /**
+     * Copies the recorded values. Values recorded concurrently may or may not be in the copy.
+     *
+     * @return the copy
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = this.counts.get(bucket);
+            count += counts[bucket];
+        }
+        return new Snapshot(counts, count, this.sum.sum(), this.max.get());
+    }
+
+    /**
+     * Gets the bucket of a value
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the largest value of a bucket
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Recorded values at one point in time
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Gets the number of recorded values
+         *
+         * @return the number of values
+         */
+        public long count() {
+            return this.count;
+        }
+
+        /**
+         * Gets the mean of the recorded values
+         *
+         * @return the mean in nanoseconds, 0 if there is none
+         */
+        public double mean() {
+            return this.count == 0 ? 0 : (double) this.sum / this.count;
+        }
+
+        /**
+         * Gets the largest recorded value
+         *
+         * @return the value in nanoseconds, 0 if there is none
+         */
+        public long max() {
+            return this.max;
+        }
+
+        /**
+         * Gets a percentile of the recorded values, within the precision of the buckets
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the largest value of the bucket which holds the percentile, at most {@link #max()},
+         *         0 if there is no value
+         */
+        public long percentile(double percentile) {
+            if (this.count == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * this.count));
+            long seen = 0;
+            for (int bucket = 0; bucket < this.counts.length; bucket++) {
+                seen += this.counts[bucket];
+                if (seen >= rank)
+                    return Math.min(highestValueOf(bucket), this.max);
+            }
+            return this.max;
+        }
+    }
+}
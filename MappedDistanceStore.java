@@ -0,0 +1,351 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * {@link WritableDistanceStore} in a memory mapped file, so that the distances live in the page cache of the operating
+ * system instead of the Java heap, and several processes on the same host can share them
+ *
+ * The file starts with a {@link #HEADER_SIZE} byte header: a magic number, the format version, the width,
+ * the number of ids and a fingerprint of the graph, all big endian. The rows follow, one after the other.
+ * A single mapping can not exceed 2GB, so the rows are mapped in segments of whole rows of up to
+ * {@link #SEGMENT_SIZE} bytes.
+ *
+ * A store is written to a temporary file next to its final path, see {@link #create(Path, int, int, long)}, and
+ * moved into place atomically once complete by {@link #commit()}. Readers therefore only ever see complete files,
+ * and a reader which mapped an older file keeps its data when the file is replaced.
+ *
+ * Rows can also be mapped read only from within another file, see {@link #map(FileChannel, long, int, int)}.
+ */
+public class MappedDistanceStore implements WritableDistanceStore {
+
+    /**
+     * Number of bytes before the first row
+     */
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * Largest number of bytes of one mapped segment
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * "WLDM", first bytes of every distance file
+     */
+    private static final int MAGIC = 0x574C444D;
+
+    /**
+     * Version of the file format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Final path of the file, null for rows mapped from within another file
+     */
+    private final Path file;
+
+    /**
+     * Position of the first row in the file
+     */
+    private final long base;
+
+    /**
+     * Temporary file being written, null once committed or for a store opened read only
+     */
+    private Path temporary;
+
+    /**
+     * Number of vertex ids
+     */
+    private final int idCount;
+
+    /**
+     * Number of bytes of every distance
+     */
+    private final int width;
+
+    /**
+     * Fingerprint of the graph, stored in the header
+     */
+    private final long fingerprint;
+
+    /**
+     * Number of rows of every segment but the last
+     */
+    private final int rowsPerSegment;
+
+    /**
+     * Mapped rows
+     */
+    private MappedByteBuffer[] segments;
+
+    /**
+     * Constructs a store over the rows of a file
+     *
+     * @param file the final path
+     * @param temporary the file being written, null if read only
+     * @param base position of the first row
+     * @param idCount number of vertex ids
+     * @param width number of bytes of every distance
+     * @param fingerprint fingerprint of the graph
+     */
+    private MappedDistanceStore(Path file, Path temporary, long base, int idCount, int width, long fingerprint) {
+        this.file = file;
+        this.temporary = temporary;
+        this.base = base;
+        this.idCount = idCount;
+        this.width = width;
+        this.fingerprint = fingerprint;
+        this.rowsPerSegment = (int) Math.max(1, SEGMENT_SIZE / Math.max(rowSize(), 1));
+    }
+
+    /**
+     * Creates a store to be written, in a temporary file next to the final path
+     *
+     * @param file the final path, replaced on {@link #commit()}
+     * @param idCount number of vertex ids
+     * @param width number of bytes of every distance, 1 or 2
+     * @param fingerprint fingerprint of the graph, to be checked by {@link #open(Path, int, long)}
+     * @return the writable store, whose distances are undefined until written
+     * @throws IOException if the file can not be created
+     */
+    public static MappedDistanceStore create(Path file, int idCount, int width, long fingerprint) throws IOException {
+        Path temporary = createTemporaryFile(file);
+        MappedDistanceStore store = new MappedDistanceStore(file, temporary, HEADER_SIZE, idCount, width, fingerprint);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            store.map(channel, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Opens the store of a file read only, if it was written for the same graph
+     *
+     * @param file the file
+     * @param idCount number of vertex ids of the graph
+     * @param fingerprint fingerprint of the graph
+     * @return the store, null if the file does not exist or was written for another graph
+     * @throws IOException if the file can not be read
+     */
+    public static MappedDistanceStore open(Path file, int idCount, long fingerprint) throws IOException {
+        if (!Files.isRegularFile(file))
+            return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                ;
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION)
+                return null;
+            int width = header.getInt();
+            if ((width != 1 && width != 2) || header.getInt() != idCount || header.getLong() != fingerprint)
+                return null;
+            MappedDistanceStore store = new MappedDistanceStore(file, null, HEADER_SIZE, idCount, width, fingerprint);
+            if (channel.size() != HEADER_SIZE + (long) idCount * store.rowSize())
+                return null;
+            store.map(channel, FileChannel.MapMode.READ_ONLY);
+            return store;
+        }
+    }
+
+    /**
+     * Maps rows stored within another file read only
+     *
+     * @param channel channel of the file, which may be closed once mapped
+     * @param position position of the first row
+     * @param idCount number of vertex ids
+     * @param width number of bytes of every distance, 1 or 2
+     * @return the store, whose {@link #file()} is null
+     * @throws IOException if the file can not be mapped
+     */
+    public static MappedDistanceStore map(FileChannel channel, long position, int idCount, int width)
+            throws IOException {
+        MappedDistanceStore store = new MappedDistanceStore(null, null, position, idCount, width, 0);
+        store.map(channel, FileChannel.MapMode.READ_ONLY);
+        return store;
+    }
+
+    /**
+     * Flushes a written store, stamps its header and moves it to its final path
+     *
+     * @return the same store, now backed by the final path
+     * @throws IOException if the file can not be written or moved
+     */
+    public MappedDistanceStore commit() throws IOException {
+        try {
+            for (MappedByteBuffer segment : this.segments)
+                segment.force();
+            try (FileChannel channel = FileChannel.open(this.temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(this.width).putInt(this.idCount).putLong(this.fingerprint);
+                header.clear();
+                while (header.hasRemaining())
+                    channel.write(header, header.position());
+                channel.force(true);
+            }
+            Files.move(this.temporary, this.file, StandardCopyOption.ATOMIC_MOVE);
+            this.temporary = null;
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+        return this;
+    }
+
+    /**
+     * Deletes the temporary file of a store which is not committed, does nothing otherwise
+     */
+    public void discard() {
+        if (this.temporary == null)
+            return;
+        try {
+            Files.deleteIfExists(this.temporary);
+        } catch (IOException e) {
+            // the file is left behind, it is never read as it has no valid header
+        }
+        this.temporary = null;
+    }
+
+    /**
+     * Creates an empty temporary file next to a file. Unlike {@link Files#createTempFile(Path, String, String,
+     * java.nio.file.attribute.FileAttribute...)} the file gets the default permissions of new files, so that other
+     * users can read it once it is moved into place.
+     *
+     * @param file the file
+     * @return path of the temporary file
+     * @throws IOException if the file can not be created
+     */
+    static Path createTemporaryFile(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        while (true) {
+            String name = file.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp";
+            try {
+                return Files.createFile(directory.resolve(name));
+            } catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    /**
+     * Gets the final path of the file
+     *
+     * @return the path, null for rows mapped from within another file
+     */
+    public Path file() {
+        return this.file;
+    }
+
+    @Override
+    public int idCount() {
+        return this.idCount;
+    }
+
+    @Override
+    public int width() {
+        return this.width;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return this.idCount * rowSize();
+    }
+
+    @Override
+    public int distance(int source, int target) {
+        MappedByteBuffer segment = this.segments[source / this.rowsPerSegment];
+        int index = (int) ((source % this.rowsPerSegment) * rowSize()) + target * this.width;
+        if (this.width == 1) {
+            int distance = segment.get(index) & 0xFF;
+            return distance == 0xFF ? UNREACHABLE : distance;
+        }
+        int distance = segment.getChar(index);
+        return distance == 0xFFFF ? UNREACHABLE : distance;
+    }
+
+    @Override
+    public void readRow(int source, int[] row) {
+        MappedByteBuffer segment = this.segments[source / this.rowsPerSegment];
+        int offset = (int) ((source % this.rowsPerSegment) * rowSize());
+        for (int target = 0; target < this.idCount; target++) {
+            if (this.width == 1) {
+                int distance = segment.get(offset + target) & 0xFF;
+                row[target] = distance == 0xFF ? UNREACHABLE : distance;
+            } else {
+                int distance = segment.getChar(offset + 2 * target);
+                row[target] = distance == 0xFFFF ? UNREACHABLE : distance;
+            }
+        }
+    }
+
+    @Override
+    public boolean writeRow(int source, int[] row) {
+        MappedByteBuffer segment = this.segments[source / this.rowsPerSegment];
+        int offset = (int) ((source % this.rowsPerSegment) * rowSize());
+        for (int target = 0; target < this.idCount; target++) {
+            int distance = row[target];
+            if (this.width == 1) {
+                if (distance >= 0xFF)
+                    return false;
+                segment.put(offset + target, (byte) distance);
+            } else {
+                if (distance >= 0xFFFF)
+                    return false;
+                segment.putChar(offset + 2 * target, (char) distance);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the CRC32 of the bytes of a row
+     *
+     * @param source the row
+     * @return the checksum
+     */
+    public int checksum(int source) {
+        ByteBuffer segment = this.segments[source / this.rowsPerSegment].duplicate();
+        int offset = (int) ((source % this.rowsPerSegment) * rowSize());
+        segment.limit(offset + (int) rowSize()).position(offset);
+        CRC32 crc = new CRC32();
+        crc.update(segment);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Gets the number of bytes of a row
+     *
+     * @return the row size
+     */
+    private long rowSize() {
+        return (long) this.idCount * this.width;
+    }
+
+    /**
+     * Maps the rows of the file in segments
+     *
+     * @param channel channel of the file
+     * @param mode READ_ONLY or READ_WRITE, which also sizes the file
+     * @throws IOException if the file can not be mapped
+     */
+    private void map(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        int segmentCount = (this.idCount + this.rowsPerSegment - 1) / this.rowsPerSegment;
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int rows = Math.min(this.rowsPerSegment, this.idCount - i * this.rowsPerSegment);
+            long position = this.base + (long) i * this.rowsPerSegment * rowSize();
+            this.segments[i] = channel.map(mode, position, rows * rowSize());
+        }
+    }
+}
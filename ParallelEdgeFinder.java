@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the edges between words on a {@link ForkJoinPool}.
+ *
+ * Two words can only be adjacent (as defined by {@link WordProcessor#isAdjacent(String, String)}) if their lengths
+ * differ by at most one, so the words are bucketed by length and every (L, L) and (L, L+1) pair of buckets is
+ * searched by its own task:
+ *  - (L, L): two words of length L are adjacent iff deleting the same position from both gives the same word,
+ *    so the bucket is grouped by the deletion at each position, one subtask per position.
+ *  - (L, L+1): a word of length L is adjacent to a word of length L+1 iff it is one of the longer word's deletions,
+ *    so the shorter bucket is hashed once and probed with the deletions of the longer bucket.
+ *
+ * Tasks only read the shared word array and return their edges as pairs of word indices, which are concatenated
+ * as the tasks join. Nothing is locked; the caller adds the edges to its graph from a single thread.
+ */
+public class ParallelEdgeFinder {
+
+    /**
+     * Words to search, old words first
+     */
+    private final String[] words;
+
+    /**
+     * Index of the first new word, pairs of two old words are not reported
+     */
+    private final int firstNew;
+
+    /**
+     * Constructs a finder over the given words
+     *
+     * @param words words to search, old words (whose edges are already known) first
+     * @param firstNew index of the first new word
+     */
+    private ParallelEdgeFinder(String[] words, int firstNew) {
+        this.words = words;
+        this.firstNew = firstNew;
+    }
+
+    /**
+     * Finds the adjacent pairs of words that involve at least one new word
+     *
+     * @param words words to search, old words (whose edges are already known) first
+     * @param firstNew index of the first new word, 0 if all words are new
+     * @param pool pool which runs the tasks
+     * @return the edges as consecutive pairs of indices into words
+     */
+    public static IntList findEdges(String[] words, int firstNew, ForkJoinPool pool) {
+        return pool.invoke(new ParallelEdgeFinder(words, firstNew).new RootTask());
+    }
+
+    /**
+     * Adds an edge if at least one of the words is new
+     *
+     * @param edges edges found so far
+     * @param word1 index of the first word
+     * @param word2 index of the second word
+     */
+    private void addEdge(IntList edges, int word1, int word2) {
+        if (word1 >= this.firstNew || word2 >= this.firstNew) {
+            edges.add(word1);
+            edges.add(word2);
+        }
+    }
+
+    /**
+     * Deletes the char at a position of a word
+     *
+     * @param word the word
+     * @param position the position
+     * @return the word without the char at position
+     */
+    private static String delete(String word, int position) {
+        return new StringBuilder(word.length() - 1).append(word, 0, position).append(word, position + 1, word.length())
+                .toString();
+    }
+
+    /**
+     * Joins tasks and concatenates their edges
+     *
+     * @param tasks forked tasks
+     * @return all the edges
+     */
+    private static IntList joinAll(List<RecursiveTask<IntList>> tasks) {
+        IntList edges = new IntList();
+        for (RecursiveTask<IntList> task : tasks)
+            edges.addAll(task.join());
+        return edges;
+    }
+
+    /**
+     * Buckets the words by length and forks one task per pair of buckets
+     */
+    private class RootTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected IntList compute() {
+            int maxLength = 0;
+            for (String word : words)
+                maxLength = Math.max(maxLength, word.length());
+            IntList[] buckets = new IntList[maxLength + 2];
+            for (int length = 0; length < buckets.length; length++)
+                buckets[length] = new IntList();
+            for (int i = 0; i < words.length; i++)
+                buckets[words[i].length()].add(i);
+
+            List<RecursiveTask<IntList>> tasks = new ArrayList<>();
+            for (int length = 1; length <= maxLength; length++) {
+                if (buckets[length].size() > 1)
+                    tasks.add(new SameLengthTask(buckets[length]));
+                if (buckets[length].size() > 0 && buckets[length + 1].size() > 0)
+                    tasks.add(new NextLengthTask(buckets[length], buckets[length + 1]));
+            }
+            // an empty word is adjacent to every word of length 1
+            if (buckets[0].size() > 0 && buckets[1].size() > 0)
+                tasks.add(new NextLengthTask(buckets[0], buckets[1]));
+            for (RecursiveTask<IntList> task : tasks)
+                task.fork();
+            return joinAll(tasks);
+        }
+    }
+
+    /**
+     * Finds the edges within a bucket of words of the same length, one subtask per position
+     */
+    private class SameLengthTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntList bucket;
+
+        private SameLengthTask(IntList bucket) {
+            this.bucket = bucket;
+        }
+
+        @Override
+        protected IntList compute() {
+            int length = words[this.bucket.get(0)].length();
+            List<RecursiveTask<IntList>> tasks = new ArrayList<>();
+            for (int position = 0; position < length; position++)
+                tasks.add(new PositionTask(this.bucket, position));
+            for (RecursiveTask<IntList> task : tasks)
+                task.fork();
+            return joinAll(tasks);
+        }
+    }
+
+    /**
+     * Finds the words of a bucket that differ only at one position
+     */
+    private class PositionTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntList bucket;
+
+        private final int position;
+
+        private PositionTask(IntList bucket, int position) {
+            this.bucket = bucket;
+            this.position = position;
+        }
+
+        @Override
+        protected IntList compute() {
+            HashMap<String, IntList> groups = new HashMap<>();
+            for (int i = 0; i < this.bucket.size(); i++) {
+                int word = this.bucket.get(i);
+                groups.computeIfAbsent(delete(words[word], this.position), key -> new IntList(2)).add(word);
+            }
+            IntList edges = new IntList();
+            for (IntList group : groups.values()) {
+                for (int i = 0; i < group.size(); i++)
+                    for (int j = i + 1; j < group.size(); j++)
+                        addEdge(edges, group.get(i), group.get(j));
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * Finds the edges between a bucket of words of length L and a bucket of words of length L+1
+     */
+    private class NextLengthTask extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntList shorter;
+
+        private final IntList longer;
+
+        private NextLengthTask(IntList shorter, IntList longer) {
+            this.shorter = shorter;
+            this.longer = longer;
+        }
+
+        @Override
+        protected IntList compute() {
+            HashMap<String, Integer> shorterWords = new HashMap<>();
+            for (int i = 0; i < this.shorter.size(); i++)
+                shorterWords.put(words[this.shorter.get(i)], this.shorter.get(i));
+
+            IntList edges = new IntList();
+            for (int i = 0; i < this.longer.size(); i++) {
+                int word = this.longer.get(i);
+                String longWord = words[word];
+                for (int position = 0; position < longWord.length(); position++) {
+                    // deleting any char of a run of equal chars gives the same word, keep only the first
+                    if (position > 0 && longWord.charAt(position) == longWord.charAt(position - 1))
+                        continue;
+                    Integer neighbor = shorterWords.get(delete(longWord, position));
+                    if (neighbor != null)
+                        addEdge(edges, neighbor, word);
+                }
+            }
+            return edges;
+        }
+    }
+}
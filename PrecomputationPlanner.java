@@ -0,0 +1,189 @@
+/**
+ * Picks the {@link GraphProcessor.PathStrategy} of {@link GraphProcessor.PathStrategy#AUTO} from the size of the
+ * graph, a memory budget and a build time budget, see {@link GraphProcessor#setMemoryBudget(long)}
+ *
+ * Every strategy is estimated in bytes held and in time to precompute, counted in vertices and edges visited:
+ *  - {@link GraphProcessor.PathStrategy#ALL_PAIRS} holds V^2 bytes and runs V breadth first searches, in parallel.
+ *  - {@link GraphProcessor.PathStrategy#LANDMARKS} holds 2 V bytes and runs one search per landmark.
+ *  - {@link GraphProcessor.PathStrategy#BIDIRECTIONAL} holds only its scratch arrays, 28 bytes per vertex, and
+ *    precomputes nothing.
+ * The strategies are tried in that order, fastest queries first, and the first one within both budgets is picked.
+ * Landmarks are dropped until they fit, down to {@link #MIN_LANDMARKS}. The estimates are rough by design: a search
+ * visits every vertex and both ends of every edge, at {@link #NANOS_PER_VISIT} each.
+ *
+ * {@link GraphProcessor.PathStrategy#TREE_CACHE} is never picked, since its worth depends on how many queries share
+ * their first word, which the size of the graph does not tell.
+ */
+public class PrecomputationPlanner {
+
+    /**
+     * The default memory budget is the largest heap of the JVM divided by this
+     */
+    public static final int DEFAULT_HEAP_DIVISOR = 4;
+
+    /**
+     * Longest estimated precomputation by default, in nanoseconds
+     */
+    public static final long DEFAULT_MAX_BUILD_NANOS = 30_000_000_000L;
+
+    /**
+     * Fewest landmarks worth building, fewer bound the searches too loosely to pay for themselves
+     */
+    public static final int MIN_LANDMARKS = 4;
+
+    /**
+     * Estimated time to visit a vertex or an edge in a breadth first search, in nanoseconds
+     */
+    public static final double NANOS_PER_VISIT = 4;
+
+    /**
+     * Bytes of scratch space per vertex of a {@link BidirectionalSearch}
+     */
+    private static final int SEARCH_BYTES_PER_ID = 28;
+
+    /**
+     * Strategy picked by a planner, with its estimated cost
+     */
+    public static final class Plan {
+
+        private final GraphProcessor.PathStrategy strategy;
+
+        private final int landmarkCount;
+
+        private final long bytes;
+
+        private final long buildNanos;
+
+        private final long memoryBudget;
+
+        private Plan(GraphProcessor.PathStrategy strategy, int landmarkCount, long bytes, long buildNanos,
+                long memoryBudget) {
+            this.strategy = strategy;
+            this.landmarkCount = landmarkCount;
+            this.bytes = bytes;
+            this.buildNanos = buildNanos;
+            this.memoryBudget = memoryBudget;
+        }
+
+        /**
+         * Gets the picked strategy
+         *
+         * @return the strategy, never {@link GraphProcessor.PathStrategy#AUTO}
+         */
+        public GraphProcessor.PathStrategy strategy() {
+            return this.strategy;
+        }
+
+        /**
+         * Gets the number of landmarks to build with {@link GraphProcessor.PathStrategy#LANDMARKS}
+         *
+         * @return the number of landmarks, 0 with other strategies
+         */
+        public int landmarkCount() {
+            return this.landmarkCount;
+        }
+
+        /**
+         * Gets the estimated memory held by the strategy
+         *
+         * @return number of bytes
+         */
+        public long bytes() {
+            return this.bytes;
+        }
+
+        /**
+         * Gets the estimated time of the precomputation
+         *
+         * @return number of nanoseconds
+         */
+        public long buildNanos() {
+            return this.buildNanos;
+        }
+
+        /**
+         * Gets the memory budget the strategy was picked within
+         *
+         * @return number of bytes
+         */
+        public long memoryBudget() {
+            return this.memoryBudget;
+        }
+
+        @Override
+        public String toString() {
+            String strategy = this.strategy == GraphProcessor.PathStrategy.LANDMARKS
+                    ? this.strategy + " (" + this.landmarkCount + ")" : this.strategy.toString();
+            return String.format("%s: about %d KB of %d KB, %d ms to precompute", strategy, this.bytes >> 10,
+                    this.memoryBudget >> 10, this.buildNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Largest number of bytes held by the picked strategy
+     */
+    private final long memoryBudget;
+
+    /**
+     * Longest estimated precomputation, in nanoseconds
+     */
+    private final long maxBuildNanos;
+
+    /**
+     * Number of threads of the parallel searches
+     */
+    private final int parallelism;
+
+    /**
+     * Constructs a planner
+     *
+     * @param memoryBudget largest number of bytes held by the picked strategy
+     * @param maxBuildNanos longest estimated precomputation, in nanoseconds
+     * @param parallelism number of threads of the parallel searches, at least 1
+     */
+    public PrecomputationPlanner(long memoryBudget, long maxBuildNanos, int parallelism) {
+        this.memoryBudget = memoryBudget;
+        this.maxBuildNanos = maxBuildNanos;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Gets the default memory budget, a quarter of the largest heap of the JVM
+     *
+     * @return number of bytes
+     */
+    public static long defaultMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / DEFAULT_HEAP_DIVISOR;
+    }
+
+    /**
+     * Picks the strategy with the fastest queries within the budgets
+     *
+     * @param idCount number of ids of the graph, see {@link CompactGraph#idCount()}
+     * @param arcCount number of neighbours of all the vertices, twice the number of edges
+     * @param maxLandmarks largest number of landmarks
+     * @return the plan
+     */
+    public Plan plan(int idCount, long arcCount, int maxLandmarks) {
+        long searchVisits = idCount + arcCount;
+
+        long allPairsBytes = (long) idCount * idCount;
+        long allPairsNanos = (long) (idCount * searchVisits * NANOS_PER_VISIT / this.parallelism);
+        if (idCount <= DistanceMatrix.MAX_IDS && allPairsBytes <= this.memoryBudget
+                && allPairsNanos <= this.maxBuildNanos)
+            return new Plan(GraphProcessor.PathStrategy.ALL_PAIRS, 0, allPairsBytes, allPairsNanos,
+                    this.memoryBudget);
+
+        // landmarks are searched from one at a time when they are picked by farthest distance
+        long landmarkBytes = 2L * Math.max(idCount, 1);
+        double landmarkNanos = Math.max(searchVisits, 1) * NANOS_PER_VISIT;
+        long landmarks = Math.min(maxLandmarks, Math.min(this.memoryBudget / landmarkBytes,
+                (long) (this.maxBuildNanos / landmarkNanos)));
+        if (landmarks >= Math.min(MIN_LANDMARKS, maxLandmarks) && landmarks > 0)
+            return new Plan(GraphProcessor.PathStrategy.LANDMARKS, (int) landmarks, landmarks * landmarkBytes,
+                    (long) (landmarks * landmarkNanos), this.memoryBudget);
+
+        return new Plan(GraphProcessor.PathStrategy.BIDIRECTIONAL, 0, (long) SEARCH_BYTES_PER_ID * idCount, 0,
+                this.memoryBudget);
+    }
+}
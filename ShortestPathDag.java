@@ -0,0 +1,246 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * All the shortest paths between two vertices of a frozen {@link CompactGraph}, held as the layers of a breadth first
+ * search instead of as a list of paths
+ *
+ * An edge is on a shortest path from the source to the target exactly if it joins a vertex at distance k from the
+ * source to one at distance k + 1 and the second one is on a shortest path to the target; walking back from the
+ * target through such edges therefore reaches the source along every shortest path, and along nothing else. This
+ * directed acyclic graph is never built: the distances from the source and the rows of the graph are enough to walk
+ * it. The number of paths can grow exponentially with their length, so they are counted with one pass over the
+ * graph, see {@link #count()}, and enumerated one at a time, see {@link #paths()}, with memory linear in the number
+ * of vertices whatever the number of paths.
+ */
+public class ShortestPathDag {
+
+    /**
+     * Distance of a vertex not reached by the search
+     */
+    private static final int UNREACHED = -1;
+
+    /**
+     * Offsets and neighbours of the compressed rows of the graph
+     */
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    /**
+     * Ids of the source and target vertices
+     */
+    private final int source;
+
+    private final int target;
+
+    /**
+     * Number of edges from the source to every vertex no farther than the target, {@link #UNREACHED} for the others
+     */
+    private final int[] distances;
+
+    /**
+     * Constructs the paths from the distances of the search
+     */
+    private ShortestPathDag(int[] offsets, int[] targets, int source, int target, int[] distances) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.source = source;
+        this.target = target;
+        this.distances = distances;
+    }
+
+    /**
+     * Runs a breadth first search from the source, which stops once every vertex as close as the target is reached
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param source id of the source vertex
+     * @param target id of the target vertex
+     * @return the paths, none if the target is not reachable from the source
+     */
+    public static ShortestPathDag compute(int[] offsets, int[] targets, int source, int target) {
+        int idCount = offsets.length - 1;
+        int[] distances = new int[idCount];
+        Arrays.fill(distances, UNREACHED);
+        int[] queue = new int[idCount];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int vertex = queue[head++];
+            // the vertices one step closer than the target are all labelled once the target is
+            if (distances[target] != UNREACHED && distances[vertex] >= distances[target] - 1)
+                break;
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                int neighbor = targets[i];
+                if (distances[neighbor] == UNREACHED) {
+                    distances[neighbor] = distances[vertex] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return new ShortestPathDag(offsets, targets, source, target, distances);
+    }
+
+    /**
+     * Gets the number of edges of the shortest paths
+     *
+     * @return the distance, -1 if there is no path
+     */
+    public int distance() {
+        return this.distances[this.target];
+    }
+
+    /**
+     * Counts the shortest paths without enumerating them. The vertices of the paths are collected by walking back
+     * from the target, layer by layer, and the number of paths from the source to each of them is then the sum of
+     * the numbers of its predecessors, taken in increasing order of distance: every vertex and edge is visited twice.
+     *
+     * @return the number of shortest paths, 0 if there is none
+     */
+    public BigInteger count() {
+        int distance = distance();
+        if (distance == UNREACHED)
+            return BigInteger.ZERO;
+        boolean[] onPath = new boolean[this.distances.length];
+        IntList vertices = new IntList();
+        onPath[this.target] = true;
+        vertices.add(this.target);
+        for (int i = 0; i < vertices.size(); i++) {
+            int vertex = vertices.get(i);
+            for (int j = this.offsets[vertex]; j < this.offsets[vertex + 1]; j++) {
+                int neighbor = this.targets[j];
+                if (!onPath[neighbor] && isPredecessor(neighbor, vertex)) {
+                    onPath[neighbor] = true;
+                    vertices.add(neighbor);
+                }
+            }
+        }
+
+        // vertices were collected by decreasing distance, so the last one is the source
+        BigInteger[] counts = new BigInteger[this.distances.length];
+        counts[this.source] = BigInteger.ONE;
+        for (int i = vertices.size() - 2; i >= 0; i--) {
+            int vertex = vertices.get(i);
+            BigInteger count = BigInteger.ZERO;
+            for (int j = this.offsets[vertex]; j < this.offsets[vertex + 1]; j++) {
+                int neighbor = this.targets[j];
+                if (onPath[neighbor] && isPredecessor(neighbor, vertex))
+                    count = count.add(counts[neighbor]);
+            }
+            counts[vertex] = count;
+        }
+        return counts[this.target];
+    }
+
+    /**
+     * Enumerates the shortest paths lazily, by a depth first walk back from the target which holds one path and the
+     * position reached in the row of each of its vertices. Predecessors are taken in increasing order of id, so the
+     * first path is the one of {@link ShortestPathTree}, with the lowest id parent at every step.
+     *
+     * Every path costs at most one pass over the rows of its vertices, and nothing is kept once it is returned.
+     *
+     * @return iterator over the ids of the vertices of every path, from the source to the target
+     */
+    public Iterator<int[]> paths() {
+        int distance = distance();
+        return new Iterator<int[]>() {
+
+            /**
+             * Vertices of the current path, by distance from the source
+             */
+            private final int[] path = new int[distance + 1];
+
+            /**
+             * Position in the row of path[k + 1] of the edge to path[k]
+             */
+            private final int[] cursors = new int[Math.max(distance, 0)];
+
+            /**
+             * Whether {@link #path} holds a path not returned yet
+             */
+            private boolean ready = distance != UNREACHED && descend(distance);
+
+            @Override
+            public boolean hasNext() {
+                if (!this.ready)
+                    this.ready = advance();
+                return this.ready;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                this.ready = false;
+                return this.path.clone();
+            }
+
+            /**
+             * Completes the path from a vertex down to the source through the first predecessor of every vertex
+             *
+             * @param level distance of the vertex, whose cursor is already set unless it is the target
+             * @return true
+             */
+            private boolean descend(int level) {
+                if (level == distance)
+                    this.path[level] = target;
+                for (int k = level - 1; k >= 0; k--) {
+                    this.cursors[k] = offsets[this.path[k + 1]] - 1;
+                    this.path[k] = nextPredecessor(k);
+                }
+                return true;
+            }
+
+            /**
+             * Moves to the next path: the closest vertex to the source which has another predecessor to try is
+             * replaced by it, and the path below it is completed again
+             *
+             * @return true if there was another path
+             */
+            private boolean advance() {
+                if (this.path.length == 0)
+                    return false;
+                for (int k = 0; k < distance; k++) {
+                    int vertex = nextPredecessor(k);
+                    if (vertex != UNREACHED) {
+                        this.path[k] = vertex;
+                        return descend(k);
+                    }
+                }
+                this.path[distance] = UNREACHED;
+                return false;
+            }
+
+            /**
+             * Moves the cursor of a level to the next neighbour of path[k + 1] at distance k
+             *
+             * @return the neighbour, {@link #UNREACHED} if there is none left
+             */
+            private int nextPredecessor(int k) {
+                int vertex = this.path[k + 1];
+                if (vertex == UNREACHED)
+                    return UNREACHED;
+                for (int i = this.cursors[k] + 1; i < offsets[vertex + 1]; i++) {
+                    if (isPredecessor(targets[i], vertex)) {
+                        this.cursors[k] = i;
+                        return targets[i];
+                    }
+                }
+                this.cursors[k] = offsets[vertex + 1];
+                return UNREACHED;
+            }
+        };
+    }
+
+    /**
+     * Checks whether a neighbour of a vertex is one step closer to the source
+     */
+    private boolean isPredecessor(int neighbor, int vertex) {
+        return this.distances[neighbor] != UNREACHED && this.distances[neighbor] == this.distances[vertex] - 1;
+    }
+}
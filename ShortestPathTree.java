@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shortest paths from one source vertex of a frozen {@link CompactGraph} to every other vertex, found by a
+ * breadth first search over the compressed sparse row arrays of the graph
+ *
+ * The parent of every vertex is its neighbour with the lowest id among those one edge closer to the source.
+ * Paths are therefore well defined even when several shortest paths exist, and every other way of computing
+ * them from the distances alone gives the same paths.
+ *
+ * A tree can be brought up to date after edges are added to the graph, see {@link #addEdges(int[], int[], IntList)},
+ * instead of being computed again. Removing an edge which is not the edge of a vertex to its parent changes neither
+ * distances nor parents, see {@link #usesEdge(int, int)}; any other removal needs the tree to be computed again.
+ */
+public class ShortestPathTree {
+
+    /**
+     * Distance and parent of an unreachable vertex
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Id of the source vertex
+     */
+    private final int source;
+
+    /**
+     * Number of edges from the source to every vertex, {@link #UNREACHABLE} if there is no path
+     */
+    private int[] distances;
+
+    /**
+     * Id of the parent of every vertex, {@link #UNREACHABLE} for the source and unreachable vertices
+     */
+    private int[] parents;
+
+    /**
+     * Constructs a tree from its arrays
+     *
+     * @param source id of the source vertex
+     * @param distances distance of every vertex
+     * @param parents parent of every vertex
+     */
+    private ShortestPathTree(int source, int[] distances, int[] parents) {
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * Runs a breadth first search from a source vertex
+     *
+     * @param offsets offsets of the compressed rows, see {@link CompactGraph#offsets()}
+     * @param targets neighbours of the compressed rows, see {@link CompactGraph#targets()}
+     * @param source id of the source vertex
+     * @return the tree
+     */
+    public static ShortestPathTree compute(int[] offsets, int[] targets, int source) {
+        int idCount = offsets.length - 1;
+        int[] distances = new int[idCount];
+        int[] parents = new int[idCount];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(parents, UNREACHABLE);
+        int[] queue = new int[idCount];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int vertex = queue[head++];
+            int next = distances[vertex] + 1;
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                int neighbor = targets[i];
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = next;
+                    parents[neighbor] = vertex;
+                    queue[tail++] = neighbor;
+                } else if (distances[neighbor] == next && vertex < parents[neighbor]) {
+                    parents[neighbor] = vertex;
+                }
+            }
+        }
+        return new ShortestPathTree(source, distances, parents);
+    }
+
+    /**
+     * Updates the tree after edges, and possibly vertices, were added to the graph. Adding edges only shortens
+     * distances, so the new distances are relaxed outwards from the endpoints of the new edges, in increasing order
+     * of distance, and stop wherever a distance does not shrink. The parent is then chosen again for every vertex
+     * whose distance shrank, for their neighbours and for the endpoints of the new edges: no other vertex gained a
+     * neighbour one step closer to the source.
+     *
+     * Edges whose endpoints are both unreachable from the source are skipped, and a tree which no new edge reaches
+     * is left as it is.
+     *
+     * @param offsets offsets of the compressed rows of the graph with the new edges
+     * @param targets neighbours of the compressed rows of the graph with the new edges
+     * @param edges ids of the endpoints of the new edges, two per edge
+     * @return true if the tree changed
+     */
+    public boolean addEdges(int[] offsets, int[] targets, IntList edges) {
+        int idCount = offsets.length - 1;
+        List<IntList> layers = new ArrayList<>();
+        IntList endpoints = new IntList();
+        for (int i = 0; i < edges.size(); i += 2) {
+            int vertex1 = edges.get(i);
+            int vertex2 = edges.get(i + 1);
+            if (distance(vertex1) == UNREACHABLE && distance(vertex2) == UNREACHABLE)
+                continue;
+            if (endpoints.size() == 0 && this.distances.length < idCount) {
+                int length = this.distances.length;
+                this.distances = Arrays.copyOf(this.distances, idCount);
+                this.parents = Arrays.copyOf(this.parents, idCount);
+                Arrays.fill(this.distances, length, idCount, UNREACHABLE);
+                Arrays.fill(this.parents, length, idCount, UNREACHABLE);
+            }
+            endpoints.add(vertex1);
+            endpoints.add(vertex2);
+            relax(vertex1, vertex2, layers);
+            relax(vertex2, vertex1, layers);
+        }
+        if (endpoints.size() == 0)
+            return false;
+
+        boolean[] stale = new boolean[idCount];
+        IntList staleVertices = new IntList();
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (!stale[endpoints.get(i)]) {
+                stale[endpoints.get(i)] = true;
+                staleVertices.add(endpoints.get(i));
+            }
+        }
+        for (int layer = 0; layer < layers.size(); layer++) {
+            IntList vertices = layers.get(layer);
+            for (int i = 0; vertices != null && i < vertices.size(); i++) {
+                int vertex = vertices.get(i);
+                // a vertex is queued again every time its distance shrinks, only its last entry is current
+                if (this.distances[vertex] != layer)
+                    continue;
+                for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                    int neighbor = targets[j];
+                    relax(vertex, neighbor, layers);
+                    if (!stale[neighbor]) {
+                        stale[neighbor] = true;
+                        staleVertices.add(neighbor);
+                    }
+                }
+                if (!stale[vertex]) {
+                    stale[vertex] = true;
+                    staleVertices.add(vertex);
+                }
+            }
+        }
+
+        for (int i = 0; i < staleVertices.size(); i++) {
+            int vertex = staleVertices.get(i);
+            int distance = this.distances[vertex];
+            if (distance <= 0)
+                continue;
+            // rows are sorted, so the first neighbour one step closer is the one with the lowest id
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                if (this.distances[targets[j]] == distance - 1) {
+                    this.parents[vertex] = targets[j];
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shortens the distance of a vertex through one of its neighbours if possible, queueing it by its new distance
+     *
+     * @param from id of the neighbour
+     * @param to id of the vertex
+     * @param layers vertices queued by distance
+     */
+    private void relax(int from, int to, List<IntList> layers) {
+        int distance = this.distances[from];
+        if (distance == UNREACHABLE || (this.distances[to] != UNREACHABLE && this.distances[to] <= distance + 1))
+            return;
+        this.distances[to] = distance + 1;
+        while (layers.size() <= distance + 1)
+            layers.add(null);
+        if (layers.get(distance + 1) == null)
+            layers.set(distance + 1, new IntList());
+        layers.get(distance + 1).add(to);
+    }
+
+    /**
+     * Checks whether an edge joins a vertex of the tree to its parent, that is whether removing it may change the tree
+     *
+     * @param id1 id of the first endpoint
+     * @param id2 id of the second endpoint
+     * @return true if one endpoint is the parent of the other
+     */
+    public boolean usesEdge(int id1, int id2) {
+        return (id2 < this.parents.length && this.parents[id2] == id1)
+                || (id1 < this.parents.length && this.parents[id1] == id2);
+    }
+
+    /**
+     * Gets the id of the source vertex
+     *
+     * @return the source
+     */
+    public int source() {
+        return this.source;
+    }
+
+    /**
+     * Gets the number of edges of the shortest path from the source to a vertex
+     *
+     * @param target id of the vertex
+     * @return the distance, {@link #UNREACHABLE} if there is no path
+     */
+    public int distance(int target) {
+        return target < this.distances.length ? this.distances[target] : UNREACHABLE;
+    }
+
+    /**
+     * Gets the shortest path from the source to a vertex
+     *
+     * @param target id of the vertex
+     * @return ids of the vertices of the path, starting with the source and ending with the target,
+     *         null if there is no path
+     */
+    public int[] path(int target) {
+        int distance = distance(target);
+        if (distance == UNREACHABLE)
+            return null;
+        int[] path = new int[distance + 1];
+        for (int i = distance, vertex = target; i >= 0; i--, vertex = this.parents[vertex])
+            path[i] = vertex;
+        return path;
+    }
+}
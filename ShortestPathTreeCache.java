@@ -0,0 +1,165 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least recently used cache of {@link ShortestPathTree}s keyed by the id of their source vertex
+ *
+ * A query from a source which is not cached runs a breadth first search and caches the tree, evicting the tree
+ * of the least recently queried source if the cache is full. Hits and misses are counted.
+ *
+ * When edges are added to the graph the cached trees are updated in place rather than dropped. When edges are
+ * removed only the trees which used them are dropped.
+ */
+public class ShortestPathTreeCache {
+
+    /**
+     * Trees keyed by source, in access order
+     */
+    private final LinkedHashMap<Integer, ShortestPathTree> trees;
+
+    /**
+     * Largest number of trees kept
+     */
+    private int capacity;
+
+    /**
+     * Number of queries answered from a cached tree
+     */
+    private long hits;
+
+    /**
+     * Number of queries which had to compute a tree
+     */
+    private long misses;
+
+    /**
+     * Constructs an empty cache
+     *
+     * @param capacity largest number of trees kept, at least 1
+     */
+    public ShortestPathTreeCache(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                return size() > ShortestPathTreeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the tree of a source, computing it if it is not cached
+     *
+     * @param graph the frozen graph
+     * @param source id of the source vertex
+     * @return the tree
+     */
+    public ShortestPathTree get(CompactGraph<?> graph, int source) {
+        ShortestPathTree tree = this.trees.get(source);
+        if (tree != null) {
+            this.hits++;
+            return tree;
+        }
+        this.misses++;
+        tree = ShortestPathTree.compute(graph.offsets(), graph.targets(), source);
+        this.trees.put(source, tree);
+        return tree;
+    }
+
+    /**
+     * Updates the cached trees after edges were added to the graph, see
+     * {@link ShortestPathTree#addEdges(int[], int[], IntList)}. Does not count as an access of the trees.
+     *
+     * @param graph the graph with the new edges, frozen by this call
+     * @param edges ids of the endpoints of the new edges, two per edge
+     * @return number of trees which changed
+     */
+    public int addEdges(CompactGraph<?> graph, IntList edges) {
+        int changed = 0;
+        for (ShortestPathTree tree : this.trees.values()) {
+            if (tree.addEdges(graph.offsets(), graph.targets(), edges))
+                changed++;
+        }
+        return changed;
+    }
+
+    /**
+     * Drops the cached trees which used edges removed from the graph, see {@link ShortestPathTree#usesEdge(int, int)}.
+     * The other trees are still up to date. Does not count as an access of the trees.
+     *
+     * @param edges ids of the endpoints of the removed edges, two per edge
+     * @return number of trees dropped
+     */
+    public int removeEdges(IntList edges) {
+        int dropped = 0;
+        for (Iterator<ShortestPathTree> trees = this.trees.values().iterator(); trees.hasNext();) {
+            ShortestPathTree tree = trees.next();
+            for (int i = 0; i < edges.size(); i += 2) {
+                if (tree.usesEdge(edges.get(i), edges.get(i + 1))) {
+                    trees.remove();
+                    dropped++;
+                    break;
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Removes all the trees, keeping the counters
+     */
+    public void clear() {
+        this.trees.clear();
+    }
+
+    /**
+     * Changes the largest number of trees kept, evicting the least recently used trees if needed
+     *
+     * @param capacity largest number of trees kept, at least 1
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        while (this.trees.size() > this.capacity)
+            this.trees.remove(this.trees.keySet().iterator().next());
+    }
+
+    /**
+     * Gets the largest number of trees kept
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of trees cached
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.trees.size();
+    }
+
+    /**
+     * Gets the number of queries answered from a cached tree
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of queries which had to compute a tree
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return this.misses;
+    }
+}
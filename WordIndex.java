@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Index of words by their one-edit neighbourhood, used to find adjacent words
+ * (as defined by {@link WordProcessor#isAdjacent(String, String)}) without comparing every pair.
+ *
+ * Every word is keyed by:
+ *  - its wildcard patterns, one per position, where the char at that position is masked out.
+ *    Two words of the same length are adjacent iff they share a wildcard pattern (1 char replacement).
+ *  - its deletions, one per position, where the char at that position is removed.
+ *    A word is adjacent to a word one char longer iff it is one of the longer word's deletions
+ *    (1 char addition / 1 char deletion).
+ *
+ * The index is built incrementally: {@link #add(String)} returns the neighbours of the new word among the
+ * words already indexed, so adding every word once yields every edge exactly once.
+ */
+public class WordIndex {
+
+    /**
+     * Char that replaces the masked position of a wildcard pattern
+     */
+    private static final char WILDCARD = '*';
+
+    /**
+     * Words keyed by wildcard pattern; the masked position is appended to the key
+     * so that patterns masked at different positions never collide
+     */
+    private HashMap<String, List<String>> replacementBuckets;
+
+    /**
+     * Words keyed by each of their distinct deletions
+     */
+    private HashMap<String, List<String>> deletionBuckets;
+
+    /**
+     * All the indexed words
+     */
+    private HashSet<String> words;
+
+    /**
+     * Constructs an empty index
+     */
+    public WordIndex() {
+        this.replacementBuckets = new HashMap<>();
+        this.deletionBuckets = new HashMap<>();
+        this.words = new HashSet<>();
+    }
+
+    /**
+     * Adds a word to the index and returns the words already in the index that are adjacent to it.
+     *
+     * @param word the word to be added
+     * @return list of adjacent words already indexed, empty if the word is null or already indexed
+     */
+    public List<String> add(String word) {
+        List<String> neighbors = new ArrayList<>();
+        if (word == null || !this.words.add(word))
+            return neighbors;
+
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            List<String> bucket = this.replacementBuckets.computeIfAbsent(wildcardKey(chars, i),
+                    key -> new ArrayList<>());
+            neighbors.addAll(bucket);
+            bucket.add(word);
+        }
+        for (int i = 0; i < chars.length; i++) {
+            // deleting any char of a run of equal chars gives the same word, keep only the first
+            if (i > 0 && chars[i] == chars[i - 1])
+                continue;
+            String deletion = deletionKey(chars, i);
+            if (this.words.contains(deletion))
+                neighbors.add(deletion);
+            this.deletionBuckets.computeIfAbsent(deletion, key -> new ArrayList<>()).add(word);
+        }
+        List<String> longer = this.deletionBuckets.get(word);
+        if (longer != null)
+            neighbors.addAll(longer);
+        return neighbors;
+    }
+
+    /**
+     * Removes a word and all its keys from the index
+     *
+     * @param word the word to be removed
+     * @return true if the word was indexed, else false
+     */
+    public boolean remove(String word) {
+        if (word == null || !this.words.remove(word))
+            return false;
+
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            removeFromBucket(this.replacementBuckets, wildcardKey(chars, i), word);
+        for (int i = 0; i < chars.length; i++) {
+            if (i > 0 && chars[i] == chars[i - 1])
+                continue;
+            removeFromBucket(this.deletionBuckets, deletionKey(chars, i), word);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a word is indexed
+     *
+     * @param word the word
+     * @return true if the word is indexed
+     */
+    public boolean contains(String word) {
+        return this.words.contains(word);
+    }
+
+    /**
+     * Gets the number of indexed words
+     *
+     * @return number of words
+     */
+    public int size() {
+        return this.words.size();
+    }
+
+    /**
+     * Builds the wildcard key of a word masked at a position
+     *
+     * @param chars chars of the word
+     * @param position the masked position
+     * @return the key
+     */
+    private static String wildcardKey(char[] chars, int position) {
+        char[] key = new char[chars.length + 1];
+        System.arraycopy(chars, 0, key, 0, chars.length);
+        key[position] = WILDCARD;
+        key[chars.length] = (char) position;
+        return new String(key);
+    }
+
+    /**
+     * Builds the word obtained by deleting the char at a position
+     *
+     * @param chars chars of the word
+     * @param position the deleted position
+     * @return the deletion
+     */
+    private static String deletionKey(char[] chars, int position) {
+        char[] key = new char[chars.length - 1];
+        System.arraycopy(chars, 0, key, 0, position);
+        System.arraycopy(chars, position + 1, key, position, chars.length - position - 1);
+        return new String(key);
+    }
+
+    /**
+     * Removes a word from a bucket, dropping the bucket once it is empty
+     *
+     * @param buckets the buckets
+     * @param key key of the bucket
+     * @param word the word to be removed
+     */
+    private static void removeFromBucket(HashMap<String, List<String>> buckets, String key, String word) {
+        List<String> bucket = buckets.get(key);
+        if (bucket == null)
+            return;
+        bucket.remove(word);
+        if (bucket.isEmpty())
+            buckets.remove(key);
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Objects;
+
+/**
+ * An ordered pair of words, the unit of a batch of distance queries,
+ * see {@link GraphProcessor#getShortestDistances(java.util.Collection, java.util.function.ObjIntConsumer)}
+ */
+public final class WordPair {
+
+    /**
+     * First word, the source of the path
+     */
+    private final String word1;
+
+    /**
+     * Second word, the target of the path
+     */
+    private final String word2;
+
+    /**
+     * Constructs a pair
+     *
+     * @param word1 first word
+     * @param word2 second word
+     */
+    public WordPair(String word1, String word2) {
+        this.word1 = word1;
+        this.word2 = word2;
+    }
+
+    /**
+     * Gets the first word
+     *
+     * @return the first word
+     */
+    public String word1() {
+        return this.word1;
+    }
+
+    /**
+     * Gets the second word
+     *
+     * @return the second word
+     */
+    public String word2() {
+        return this.word2;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof WordPair))
+            return false;
+        WordPair pair = (WordPair) other;
+        return Objects.equals(this.word1, pair.word1) && Objects.equals(this.word2, pair.word2);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(this.word1) + Objects.hashCode(this.word2);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + this.word1 + ", " + this.word2 + ")";
+    }
+}
@@ -1,6 +1,7 @@
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -65,7 +66,25 @@ public class WordProcessor {
 		 * 		streamOfLines.map(...).filter(a -> ...).map(...) and so on
 		 */
 		
-		return null;
+		return Files.lines(Paths.get(filepath))
+				.map(String::trim)
+				.filter(line -> !line.isEmpty())
+				.map(String::toUpperCase);
+	}
+	
+	/**
+	 * Gets a table of the distinct words of the filepath.
+	 * 
+	 * The table contains the same trimmed, non-empty and UPPERCASE words as {@link #getWordStream(String)},
+	 * without duplicates. Instead of decoding every line into a String on one thread, the file is memory mapped
+	 * and split at line boundaries into chunks which are parsed in parallel, see {@link WordTable}.
+	 * 
+	 * @param filepath file path to the dictionary file
+	 * @return WordTable table of the words read from the filepath
+	 * @throws IOException exception resulting from accessing the filepath
+	 */
+	public static WordTable getWordTable(String filepath) throws IOException {
+		return WordTable.load(filepath, ForkJoinPool.commonPool());
 	}
 	
 	/**
@@ -86,7 +105,102 @@ public class WordProcessor {
 	 * @return true if word1 and word2 are adjacent else false
 	 */
 	public static boolean isAdjacent(String word1, String word2) {
-		return false;	
+		int length1 = word1.length();
+		int length2 = word2.length();
+		if (length1 < length2)
+			return isAdjacent(word2, word1);
+		if (length1 - length2 > 1)
+			return false;
+		
+		// skip the common prefix, then the rest must match after exactly one edit
+		int index = 0;
+		while (index < length2 && word1.charAt(index) == word2.charAt(index))
+			index++;
+		if (index == length2)
+			return length1 != length2;
+		int skip = length1 == length2 ? 1 : 0;
+		return word1.regionMatches(index + 1, word2, index + skip, length2 - index - skip);
+	}
+	
+	/**
+	 * Adjacency between word1 and word2 when a step may be up to maxEdits edits:
+	 * word1 and word2 are adjacent if they differ and one can be turned into the other
+	 * by at most maxEdits char replacements, additions and deletions.
+	 * 
+	 * With 1 edit this is {@link #isAdjacent(String, String)}. Otherwise the words are compared with a
+	 * {@link BoundedEditDistance}, which should be reused to compare many words with the same word.
+	 * 
+	 * @param word1 first word
+	 * @param word2 second word
+	 * @param maxEdits largest number of edits, at least 1
+	 * @return true if word1 and word2 are adjacent else false
+	 */
+	public static boolean isAdjacent(String word1, String word2, int maxEdits) {
+		if (maxEdits == 1)
+			return isAdjacent(word1, word2);
+		BoundedEditDistance kernel = new BoundedEditDistance();
+		kernel.setPattern(word1);
+		int distance = kernel.distance(word2, maxEdits);
+		return distance > 0 && distance <= maxEdits;
+	}
+	
+	/**
+	 * Same as {@link #isAdjacent(String, String)} for words encoded with {@link #encode(String)}.
+	 * 
+	 * This is the inner loop of a pairwise graph build: words are rejected by their length difference first,
+	 * then compared in a single two pointer pass which stops at the second mismatch.
+	 * Nothing is allocated.
+	 * 
+	 * @param word1 first encoded word
+	 * @param word2 second encoded word
+	 * @return true if word1 and word2 are adjacent else false
+	 */
+	public static boolean isAdjacent(byte[] word1, byte[] word2) {
+		byte[] longer = word1;
+		byte[] shorter = word2;
+		if (longer.length < shorter.length) {
+			longer = word2;
+			shorter = word1;
+		}
+		int lengthDifference = longer.length - shorter.length;
+		if (lengthDifference > 1)
+			return false;
+		
+		boolean mismatched = false;
+		int i = 0;
+		int j = 0;
+		while (j < shorter.length) {
+			if (longer[i] == shorter[j]) {
+				i++;
+				j++;
+				continue;
+			}
+			if (mismatched)
+				return false;
+			mismatched = true;
+			// a replacement advances both words, an insertion only the longer one
+			i++;
+			j += 1 - lengthDifference;
+		}
+		// equal words are not adjacent, a longer word may end with its inserted char
+		return mismatched || lengthDifference == 1;
+	}
+	
+	/**
+	 * Encodes a word for {@link #isAdjacent(byte[], byte[])}, one byte per char.
+	 * 
+	 * @param word the word
+	 * @return the encoded word, or null if the word has a char outside of ASCII
+	 */
+	public static byte[] encode(String word) {
+		byte[] bytes = new byte[word.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			char c = word.charAt(i);
+			if (c >= 0x80)
+				return null;
+			bytes[i] = (byte) c;
+		}
+		return bytes;
 	}
 	
 }
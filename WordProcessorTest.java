@@ -0,0 +1,191 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Junit test class to test class @see WordProcessor
+ */
+public class WordProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public final void getWordStreamShouldTrimFilterAndUpperCase() throws Exception {
+		File file = this.folder.newFile("words.txt");
+		Files.write(file.toPath(), Arrays.asList("  cat", "", "Rat  ", "   ", "hat"));
+		try (Stream<String> words = WordProcessor.getWordStream(file.getPath())) {
+			assertEquals("words read from the file", Arrays.asList("CAT", "RAT", "HAT"),
+					words.collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public final void getWordTableShouldMatchDistinctWordStream() throws Exception {
+		File file = this.folder.newFile("words.txt");
+		String text = "  cat\r\nRat  \r\n\n   \rhat\rcat\n\tcaf\u00e9 \nCAT\nstra\u00dfe\nrat";
+		Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+		assertWordTableMatchesWordStream(file);
+	}
+
+	@Test
+	public final void getWordTableShouldMatchDistinctWordStreamAcrossChunks() throws Exception {
+		// several MB of lines, so that the file is split into chunks parsed by separate tasks
+		File file = this.folder.newFile("large.txt");
+		Random random = new Random(6);
+		StringBuilder text = new StringBuilder();
+		while (text.length() < 5 << 20) {
+			text.append(random.nextBoolean() ? " " : "");
+			text.append(randomWord(random).toLowerCase());
+			text.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+		}
+		Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+		assertWordTableMatchesWordStream(file);
+	}
+
+	@Test
+	public final void getWordTableShouldReadAnEmptyFile() throws Exception {
+		File file = this.folder.newFile("empty.txt");
+		assertEquals("number of words in an empty file", 0, WordProcessor.getWordTable(file.getPath()).size());
+	}
+
+	@Test
+	public final void isAdjacentShouldFollowTheAdjacencyDefinition() {
+		assertEquals("1 char replacement", true, WordProcessor.isAdjacent("CAT", "HAT"));
+		assertEquals("1 char addition", true, WordProcessor.isAdjacent("HEAT", "WHEAT"));
+		assertEquals("1 char deletion", true, WordProcessor.isAdjacent("WHEAT", "HEAT"));
+		assertEquals("1 char addition at the end", true, WordProcessor.isAdjacent("AT", "ATE"));
+		assertEquals("equal words", false, WordProcessor.isAdjacent("CAT", "CAT"));
+		assertEquals("2 char replacements", false, WordProcessor.isAdjacent("CAT", "HOT"));
+		assertEquals("transposition", false, WordProcessor.isAdjacent("CAT", "CTA"));
+		assertEquals("2 char additions", false, WordProcessor.isAdjacent("AT", "HEAT"));
+	}
+
+	@Test
+	public final void byteKernelShouldMatchStringVersionOnAllShortWords() {
+		// every word of up to 4 chars over a 3 letter alphabet, compared with every other
+		List<String> words = new ArrayList<>();
+		words.add("");
+		for (int i = 0; i < words.size(); i++) {
+			if (words.get(i).length() < 4)
+				for (char c = 'A'; c <= 'C'; c++)
+					words.add(words.get(i) + c);
+		}
+		for (String word1 : words)
+			for (String word2 : words)
+				assertKernelsAgree(word1, word2);
+	}
+
+	@Test
+	public final void byteKernelShouldMatchStringVersionOnRandomWords() {
+		Random random = new Random(3);
+		for (int i = 0; i < 100000; i++) {
+			String word1 = randomWord(random);
+			// derive the second word by random edits so that adjacent pairs are common
+			StringBuilder word2 = new StringBuilder(word1);
+			for (int edits = random.nextInt(3); edits > 0; edits--) {
+				int position = random.nextInt(word2.length() + 1);
+				char c = (char) ('A' + random.nextInt(26));
+				int edit = random.nextInt(3);
+				if (edit == 0 || word2.length() == 0)
+					word2.insert(position, c);
+				else if (edit == 1)
+					word2.deleteCharAt(Math.min(position, word2.length() - 1));
+				else
+					word2.setCharAt(Math.min(position, word2.length() - 1), c);
+			}
+			assertKernelsAgree(word1, word2.toString());
+		}
+	}
+
+	@Test
+	public final void boundedEditDistanceShouldMatchTheTable() {
+		// words of up to 80 chars, so that patterns longer than 64 chars fall back to the table
+		Random random = new Random(22);
+		BoundedEditDistance kernel = new BoundedEditDistance();
+		for (int i = 0; i < 20000; i++) {
+			String alphabet = i % 3 == 0 ? "AB\u00C9\u00DF" : "ABCD";
+			String word1 = randomWord(random, random.nextInt(i % 10 == 0 ? 80 : 12), alphabet);
+			String word2 = randomWord(random, Math.max(0, word1.length() + random.nextInt(7) - 3), alphabet);
+			int maxEdits = random.nextInt(5);
+			int distance = editDistance(word1, word2);
+			kernel.setPattern(word1);
+			String message = String.format("distance between %s and %s within %d edits", word1, word2, maxEdits);
+			assertEquals(message, Math.min(distance, maxEdits + 1), kernel.distance(word2, maxEdits));
+			assertEquals(message, distance, kernel.distance(word2, Integer.MAX_VALUE));
+		}
+	}
+
+	@Test
+	public final void isAdjacentWithinOneEditShouldMatchIsAdjacent() {
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			String word1 = randomWord(random, random.nextInt(6), "ABC");
+			String word2 = randomWord(random, random.nextInt(6), "ABC");
+			assertEquals(String.format("isAdjacent(%s, %s)", word1, word2), WordProcessor.isAdjacent(word1, word2),
+					WordProcessor.isAdjacent(word1, word2, 1));
+		}
+		assertEquals("2 char replacements within 2 edits", true, WordProcessor.isAdjacent("CAT", "HOT", 2));
+		assertEquals("transposition within 2 edits", true, WordProcessor.isAdjacent("CAT", "CTA", 2));
+		assertEquals("equal words within 2 edits", false, WordProcessor.isAdjacent("CAT", "CAT", 2));
+		assertEquals("3 char additions within 2 edits", false, WordProcessor.isAdjacent("AT", "WHEAT", 2));
+	}
+
+	@Test
+	public final void encodeShouldRejectNonAsciiWords() {
+		assertEquals("encoded ASCII word", "CAT", new String(WordProcessor.encode("CAT")));
+		assertEquals("encoded non ASCII word", null, WordProcessor.encode("CAF\u00C9"));
+	}
+
+	private static void assertWordTableMatchesWordStream(File file) throws Exception {
+		List<String> expected;
+		try (Stream<String> words = WordProcessor.getWordStream(file.getPath())) {
+			expected = words.distinct().collect(Collectors.toList());
+		}
+		WordTable table = WordProcessor.getWordTable(file.getPath());
+		assertEquals("words of the table", expected, table.words());
+		for (int i = 0; i < table.size(); i++)
+			assertEquals("bytes of a word", expected.get(i), new String(table.encoded(i), StandardCharsets.UTF_8));
+	}
+
+	private static void assertKernelsAgree(String word1, String word2) {
+		assertEquals(String.format("isAdjacent(%s, %s)", word1, word2), WordProcessor.isAdjacent(word1, word2),
+				WordProcessor.isAdjacent(WordProcessor.encode(word1), WordProcessor.encode(word2)));
+	}
+
+	private static String randomWord(Random random, int length, String alphabet) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++)
+			word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		return word.toString();
+	}
+
+	private static int editDistance(String word1, String word2) {
+		int[][] distances = new int[word1.length() + 1][word2.length() + 1];
+		for (int i = 0; i <= word1.length(); i++)
+			for (int j = 0; j <= word2.length(); j++)
+				distances[i][j] = i == 0 || j == 0 ? i + j
+						: Math.min(distances[i - 1][j - 1] + (word1.charAt(i - 1) == word2.charAt(j - 1) ? 0 : 1),
+								Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+		return distances[word1.length()][word2.length()];
+	}
+
+	private static String randomWord(Random random) {
+		StringBuilder word = new StringBuilder();
+		for (int length = random.nextInt(12); length > 0; length--)
+			word.append((char) ('A' + random.nextInt(26)));
+		return word.toString();
+	}
+}
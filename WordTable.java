@@ -0,0 +1,403 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Deduplicated table of the words of a dictionary file, stored as UTF-8 bytes in a single array
+ *
+ * {@link #load(String, ForkJoinPool)} reads a dictionary without decoding it line by line:
+ *  - the file is split into chunks at line boundaries, and every chunk is memory mapped and parsed by its own task.
+ *  - a task trims every line and copies it into the chunk's byte array, ASCII upper-casing it in the same pass,
+ *    and drops empty lines and lines it has already seen.
+ *  - the chunks are then merged in file order into one table, dropping words seen in earlier chunks.
+ * The words are the same as those of {@link WordProcessor#getWordStream(String)}, without duplicates and in the
+ * order of their first occurrence. Lines with non-ASCII chars are decoded and upper-cased as Strings.
+ */
+public class WordTable {
+
+    /**
+     * Smallest chunk of the file parsed by a task
+     */
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Largest chunk of the file parsed by a task, well below the 2GB limit of a mapping
+     */
+    private static final long MAX_CHUNK_SIZE = 1 << 28;
+
+    /**
+     * Bytes of all the words
+     */
+    private final byte[] bytes;
+
+    /**
+     * Start of every word in {@link #bytes}, with one more trailing entry for the end of the last word
+     */
+    private final int[] offsets;
+
+    /**
+     * Number of words
+     */
+    private final int size;
+
+    /**
+     * Constructs a table over the first size words of the arrays
+     *
+     * @param bytes bytes of the words
+     * @param offsets start of every word, and the end of the last one
+     * @param size number of words
+     */
+    private WordTable(byte[] bytes, int[] offsets, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Loads the words of a dictionary file
+     *
+     * @param filepath file path to the dictionary file
+     * @param pool pool which parses the chunks of the file
+     * @return table of the trimmed, non-empty, UPPERCASE and distinct words of the file
+     * @throws IOException exception resulting from accessing the filepath
+     */
+    public static WordTable load(String filepath, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel, pool.getParallelism());
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, boundaries[i],
+                        boundaries[i + 1] - boundaries[i]);
+                tasks.add(pool.submit(() -> new Chunk(mapping)));
+            }
+
+            Chunk table = new Chunk(64);
+            for (ForkJoinTask<Chunk> task : tasks) {
+                Chunk chunk = task.join();
+                for (int word = 0; word < chunk.size; word++)
+                    table.addIfAbsent(chunk.bytes, chunk.offsets[word], chunk.offsets[word + 1], chunk.hashes[word]);
+            }
+            return new WordTable(table.bytes, table.offsets, table.size);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the number of words
+     *
+     * @return number of words
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets a word
+     *
+     * @param index index of the word
+     * @return the word
+     */
+    public String word(int index) {
+        return new String(this.bytes, this.offsets[index], this.offsets[index + 1] - this.offsets[index],
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the bytes of a word, which are {@link WordProcessor#encode(String)} of the word if it is ASCII
+     *
+     * @param index index of the word
+     * @return a copy of the UTF-8 bytes of the word
+     */
+    public byte[] encoded(int index) {
+        return Arrays.copyOfRange(this.bytes, this.offsets[index], this.offsets[index + 1]);
+    }
+
+    /**
+     * Gets all the words
+     *
+     * @return list of the words
+     */
+    public List<String> words() {
+        List<String> words = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++)
+            words.add(word(i));
+        return words;
+    }
+
+    /**
+     * Splits a file into chunks which start right after a line separator
+     *
+     * @param channel channel of the file
+     * @param parallelism number of tasks which will parse the chunks
+     * @return offsets of the chunks, starting at 0 and ending at the size of the file
+     * @throws IOException exception resulting from reading the file
+     */
+    private static long[] chunkBoundaries(FileChannel channel, int parallelism) throws IOException {
+        long fileSize = channel.size();
+        long chunkSize = Math.min(Math.max(fileSize / (parallelism * 4L), MIN_CHUNK_SIZE), MAX_CHUNK_SIZE);
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long next = chunkSize;
+        while (next < fileSize) {
+            // move the boundary past the end of the line it falls in
+            long boundary = -1;
+            for (long position = next; boundary < 0 && position < fileSize; position += buffer.limit()) {
+                buffer.clear();
+                if (channel.read(buffer, position) <= 0)
+                    break;
+                buffer.flip();
+                for (int i = 0; i < buffer.limit(); i++) {
+                    if (isLineSeparator(buffer.get(i))) {
+                        boundary = position + i + 1;
+                        break;
+                    }
+                }
+            }
+            if (boundary < 0 || boundary >= fileSize)
+                break;
+            if (boundary - boundaries.get(boundaries.size() - 1) > MAX_CHUNK_SIZE)
+                throw new IOException("line longer than " + MAX_CHUNK_SIZE + " bytes");
+            boundaries.add(boundary);
+            next = boundary + chunkSize;
+        }
+        boundaries.add(fileSize);
+        long[] array = new long[boundaries.size()];
+        for (int i = 0; i < array.length; i++)
+            array[i] = boundaries.get(i);
+        return array;
+    }
+
+    /**
+     * Checks whether a byte ends a line, as any of "\n", "\r" and "\r\n" does for {@link java.nio.file.Files#lines}
+     *
+     * @param b the byte
+     * @return true if the byte is a line separator
+     */
+    private static boolean isLineSeparator(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Hashes a word
+     *
+     * @param bytes bytes of the word
+     * @param from index of the first byte
+     * @param to index after the last byte
+     * @return the hash
+     */
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++)
+            hash = 31 * hash + bytes[i];
+        // words differing in their last byte have close polynomial hashes, which would cluster in a linear probing
+        // table, so the bits are mixed as in the finalizer of MurmurHash3
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Distinct words of a chunk of the file, or of the whole table while merging
+     */
+    private static class Chunk {
+
+        /**
+         * Bytes of the words
+         */
+        private byte[] bytes;
+
+        /**
+         * Number of bytes used
+         */
+        private int length;
+
+        /**
+         * Start of every word, and the end of the last one
+         */
+        private int[] offsets;
+
+        /**
+         * Hash of every word
+         */
+        private int[] hashes;
+
+        /**
+         * Number of words
+         */
+        private int size;
+
+        /**
+         * Open addressing hash table of word indices, -1 for an unused slot
+         */
+        private int[] table;
+
+        /**
+         * Constructs an empty chunk
+         *
+         * @param capacity expected number of bytes
+         */
+        private Chunk(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+            this.length = 0;
+            this.offsets = new int[16];
+            this.hashes = new int[16];
+            this.size = 0;
+            this.table = new int[32];
+            Arrays.fill(this.table, -1);
+        }
+
+        /**
+         * Parses the lines of a mapped chunk of the file
+         *
+         * @param mapping the chunk
+         */
+        private Chunk(MappedByteBuffer mapping) {
+            this(mapping.limit());
+            int limit = mapping.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = start;
+                while (end < limit && !isLineSeparator(mapping.get(end)))
+                    end++;
+                addLine(mapping, start, end);
+                start = end + 1;
+            }
+        }
+
+        /**
+         * Trims a line, upper-cases it and adds it if it is not empty and not already added
+         *
+         * @param mapping the chunk of the file
+         * @param from index of the first byte of the line
+         * @param to index after the last byte of the line
+         */
+        private void addLine(MappedByteBuffer mapping, int from, int to) {
+            // same as String.trim, which removes the chars up to ' ' at both ends
+            while (from < to && (mapping.get(from) & 0xFF) <= ' ')
+                from++;
+            while (to > from && (mapping.get(to - 1) & 0xFF) <= ' ')
+                to--;
+            if (from == to)
+                return;
+
+            ensureBytes(to - from);
+            int start = this.length;
+            boolean ascii = true;
+            for (int i = from; i < to; i++) {
+                byte b = mapping.get(i);
+                ascii &= b >= 0;
+                this.bytes[this.length++] = b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+            }
+            if (!ascii) {
+                String word = new String(this.bytes, start, this.length - start, StandardCharsets.UTF_8).toUpperCase();
+                byte[] encoded = word.getBytes(StandardCharsets.UTF_8);
+                this.length = start;
+                ensureBytes(encoded.length);
+                System.arraycopy(encoded, 0, this.bytes, start, encoded.length);
+                this.length += encoded.length;
+            }
+            int end = this.length;
+            this.length = start;
+            addIfAbsent(this.bytes, start, end, hash(this.bytes, start, end));
+        }
+
+        /**
+         * Adds a word if it is not already in the chunk. The word may already sit at the end of {@link #bytes}.
+         *
+         * @param source bytes of the word
+         * @param from index of the first byte
+         * @param to index after the last byte
+         * @param hash hash of the word
+         */
+        private void addIfAbsent(byte[] source, int from, int to, int hash) {
+            int mask = this.table.length - 1;
+            int slot = hash & mask;
+            for (; this.table[slot] >= 0; slot = (slot + 1) & mask) {
+                int word = this.table[slot];
+                if (this.hashes[word] == hash && equals(word, source, from, to))
+                    return;
+            }
+
+            if (source != this.bytes || from != this.length) {
+                ensureBytes(to - from);
+                System.arraycopy(source, from, this.bytes, this.length, to - from);
+            }
+            if (this.size + 1 == this.offsets.length) {
+                this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+                this.hashes = Arrays.copyOf(this.hashes, this.hashes.length * 2);
+            }
+            this.offsets[this.size] = this.length;
+            this.hashes[this.size] = hash;
+            this.length += to - from;
+            this.table[slot] = this.size++;
+            this.offsets[this.size] = this.length;
+            if (this.size * 2 > this.table.length)
+                rehash();
+        }
+
+        /**
+         * Compares a word of the chunk with a range of bytes
+         *
+         * @param word index of the word
+         * @param source bytes to compare with
+         * @param from index of the first byte
+         * @param to index after the last byte
+         * @return true if equal
+         */
+        private boolean equals(int word, byte[] source, int from, int to) {
+            int start = this.offsets[word];
+            int end = this.offsets[word + 1];
+            if (end - start != to - from)
+                return false;
+            for (int i = 0; i < end - start; i++) {
+                if (this.bytes[start + i] != source[from + i])
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Makes room for more bytes after {@link #length}
+         *
+         * @param count number of bytes
+         */
+        private void ensureBytes(int count) {
+            long needed = (long) this.length + count;
+            if (needed <= this.bytes.length)
+                return;
+            if (needed > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("words larger than 2GB");
+            this.bytes = Arrays.copyOf(this.bytes, (int) Math.min(Math.max(needed, this.bytes.length * 2L),
+                    Integer.MAX_VALUE - 8));
+        }
+
+        /**
+         * Doubles the hash table
+         */
+        private void rehash() {
+            int[] table = new int[this.table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int word = 0; word < this.size; word++) {
+                int slot = this.hashes[word] & mask;
+                while (table[slot] >= 0)
+                    slot = (slot + 1) & mask;
+                table[slot] = word;
+            }
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trie of words in flat arrays, used to find adjacent words (as defined by
+ * {@link WordProcessor#isAdjacent(String, String)}) by walking the trie with a budget of one edit
+ *
+ * Every node is an int: its first child, next sibling and word are entries of parallel arrays, and the child of a
+ * node for a char is looked up in an open addressing table keyed by both. The neighbours of a word are found in
+ * one walk down the path of the word: at every depth the walk branches off into every other child, spending its edit
+ * on a replacement (skipping the char of the word) or an insertion (keeping it), or skips the char of the word as a
+ * deletion; once the edit is spent, the rest of the word is followed exactly. A word costs about
+ * O(length * alphabet) lookups whatever the size of the dictionary, and nothing but the returned list is allocated.
+ *
+ * Like {@link WordIndex}, {@link #add(String)} returns the neighbours of the new word among the words already in the
+ * trie, so adding every word once yields every edge exactly once.
+ */
+public class WordTrie {
+
+    /**
+     * Node of the empty word
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * Unused entry of {@link #words} and of the child table
+     */
+    private static final int NONE = -1;
+
+    /**
+     * First child of every node
+     */
+    private int[] firstChildren;
+
+    /**
+     * Next child of the parent of every node
+     */
+    private int[] nextSiblings;
+
+    /**
+     * Word which ends at every node, null if none
+     */
+    private String[] words;
+
+    /**
+     * Query stamp of every node, so that a neighbour reached by two edits is returned once
+     */
+    private int[] stamps;
+
+    private int stamp;
+
+    /**
+     * Number of nodes
+     */
+    private int nodeCount;
+
+    /**
+     * Number of words
+     */
+    private int size;
+
+    /**
+     * Open addressing table of (parent, char) keys, {@link #NONE} for an unused slot
+     */
+    private long[] childKeys;
+
+    /**
+     * Child of every key of {@link #childKeys}
+     */
+    private int[] children;
+
+    /**
+     * Number of used slots of the child table
+     */
+    private int childCount;
+
+    /**
+     * Constructs an empty trie
+     */
+    public WordTrie() {
+        this.firstChildren = new int[16];
+        this.nextSiblings = new int[16];
+        this.words = new String[16];
+        this.stamps = new int[16];
+        this.childKeys = new long[32];
+        this.children = new int[32];
+        Arrays.fill(this.childKeys, NONE);
+        this.nodeCount = 0;
+        newNode();
+    }
+
+    /**
+     * Adds a word to the trie and returns the words already in the trie that are adjacent to it.
+     *
+     * @param word the word to be added
+     * @return list of adjacent words already in the trie, empty if the word is null or already in the trie
+     */
+    public List<String> add(String word) {
+        List<String> neighbors = new ArrayList<>();
+        if (word == null || contains(word))
+            return neighbors;
+
+        if (++this.stamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamps, 0);
+            this.stamp = 1;
+        }
+        int node = ROOT;
+        for (int i = 0; i <= word.length(); i++) {
+            int next = i < word.length() ? child(node, word.charAt(i)) : NONE;
+            for (int other = this.firstChildren[node]; other != NONE; other = this.nextSiblings[other]) {
+                // insertion of the char of other before position i
+                followExactly(other, word, i, neighbors);
+                // replacement of the char at position i
+                if (other != next && i < word.length())
+                    followExactly(other, word, i + 1, neighbors);
+            }
+            // deletion of the char at position i
+            if (i < word.length())
+                followExactly(node, word, i + 1, neighbors);
+            if (next == NONE)
+                break;
+            node = next;
+        }
+
+        node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            int next = child(node, word.charAt(i));
+            node = next != NONE ? next : addChild(node, word.charAt(i));
+        }
+        this.words[node] = word;
+        this.size++;
+        return neighbors;
+    }
+
+    /**
+     * Removes a word from the trie. Its nodes are kept for later words.
+     *
+     * @param word the word to be removed
+     * @return true if the word was in the trie, else false
+     */
+    public boolean remove(String word) {
+        int node = word == null ? NONE : find(word);
+        if (node == NONE || this.words[node] == null)
+            return false;
+        this.words[node] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Checks whether a word is in the trie
+     *
+     * @param word the word
+     * @return true if the word is in the trie
+     */
+    public boolean contains(String word) {
+        int node = word == null ? NONE : find(word);
+        return node != NONE && this.words[node] != null;
+    }
+
+    /**
+     * Gets the number of words in the trie
+     *
+     * @return number of words
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Follows the rest of a word from a node, and adds the word it ends at if not already added by this query
+     *
+     * @param node the node
+     * @param word the word
+     * @param from index of the first char to follow
+     * @param neighbors receives the word
+     */
+    private void followExactly(int node, String word, int from, List<String> neighbors) {
+        for (int i = from; i < word.length() && node != NONE; i++)
+            node = child(node, word.charAt(i));
+        if (node != NONE && this.words[node] != null && this.stamps[node] != this.stamp) {
+            this.stamps[node] = this.stamp;
+            neighbors.add(this.words[node]);
+        }
+    }
+
+    /**
+     * Finds the node of a word
+     *
+     * @return the node, {@link #NONE} if no word starts with it
+     */
+    private int find(String word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NONE; i++)
+            node = child(node, word.charAt(i));
+        return node;
+    }
+
+    /**
+     * Looks up the child of a node
+     *
+     * @return the child, {@link #NONE} if there is none
+     */
+    private int child(int node, char c) {
+        long key = key(node, c);
+        int mask = this.childKeys.length - 1;
+        for (int slot = hash(key) & mask; this.childKeys[slot] != NONE; slot = (slot + 1) & mask) {
+            if (this.childKeys[slot] == key)
+                return this.children[slot];
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds a child to a node, which has none for the char
+     *
+     * @return the child
+     */
+    private int addChild(int node, char c) {
+        int child = newNode();
+        this.nextSiblings[child] = this.firstChildren[node];
+        this.firstChildren[node] = child;
+
+        if ((this.childCount + 1) * 2 > this.childKeys.length)
+            rehash();
+        long key = key(node, c);
+        int mask = this.childKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.childKeys[slot] != NONE)
+            slot = (slot + 1) & mask;
+        this.childKeys[slot] = key;
+        this.children[slot] = child;
+        this.childCount++;
+        return child;
+    }
+
+    /**
+     * Adds a node without child nor word
+     *
+     * @return the node
+     */
+    private int newNode() {
+        if (this.nodeCount == this.firstChildren.length) {
+            int capacity = this.nodeCount * 2;
+            this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+            this.nextSiblings = Arrays.copyOf(this.nextSiblings, capacity);
+            this.words = Arrays.copyOf(this.words, capacity);
+            this.stamps = Arrays.copyOf(this.stamps, capacity);
+        }
+        int node = this.nodeCount++;
+        this.firstChildren[node] = NONE;
+        this.nextSiblings[node] = NONE;
+        return node;
+    }
+
+    /**
+     * Doubles the child table
+     */
+    private void rehash() {
+        long[] keys = new long[this.childKeys.length * 2];
+        int[] children = new int[keys.length];
+        Arrays.fill(keys, NONE);
+        int mask = keys.length - 1;
+        for (int i = 0; i < this.childKeys.length; i++) {
+            long key = this.childKeys[i];
+            if (key == NONE)
+                continue;
+            int slot = hash(key) & mask;
+            while (keys[slot] != NONE)
+                slot = (slot + 1) & mask;
+            keys[slot] = key;
+            children[slot] = this.children[i];
+        }
+        this.childKeys = keys;
+        this.children = children;
+    }
+
+    /**
+     * Gets the key of the child of a node for a char
+     */
+    private static long key(int node, char c) {
+        return (long) node << 16 | c;
+    }
+
+    /**
+     * Hashes a key, mixing the bits as in the finalizer of MurmurHash3
+     */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * {@link DistanceStore} whose rows can be written, in which a {@link DistanceMatrix} is computed and updated
+ *
+ * Rows are written by whole rows, and distinct rows may be written concurrently.
+ */
+public interface WritableDistanceStore extends DistanceStore {
+
+    /**
+     * Writes a whole row
+     *
+     * @param source the row
+     * @param row the first {@link #idCount()} distances of the row, {@link #UNREACHABLE} if there is no path
+     * @return false if a distance is too large for the width, in which case the row is only partly written
+     */
+    boolean writeRow(int source, int[] row);
+}
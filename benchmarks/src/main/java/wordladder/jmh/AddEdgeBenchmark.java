@@ -0,0 +1,162 @@
+package wordladder.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@code GraphADT#addEdge(Object, Object)} on {@code Graph} and on the mutable phase of
+ * {@code CompactGraph}, per added edge
+ *
+ * Every invocation adds the same random edges between numbered vertices:
+ *  - build: to a graph with no edges, which includes growing the adjacency arrays.
+ *  - steady: to a graph from which they were all removed, which is the cost of addEdge itself once the arrays have
+ *    their final size. The bytes allocated per operation (gc.alloc.rate.norm) should be close to zero for
+ *    CompactGraph.
+ * The graph is prepared before every invocation, which is not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AddEdgeBenchmark {
+
+    /**
+     * Number of vertices
+     */
+    private static final int VERTICES = 100000;
+
+    /**
+     * Number of edges added per invocation
+     */
+    private static final int EDGES = 1000000;
+
+    /**
+     * Graph implementation, a class of the repository implementing {@code GraphADT}
+     */
+    @Param({ "Graph", "CompactGraph" })
+    public String graphType;
+
+    private Object[] vertices;
+
+    /**
+     * Consecutive pairs of vertex indices, drawn up front so that only the graph methods are measured
+     */
+    private int[] edges;
+
+    @Setup(Level.Trial)
+    public void drawEdges() {
+        this.vertices = new Object[VERTICES];
+        for (int i = 0; i < VERTICES; i++)
+            this.vertices[i] = "W" + i;
+        Random random = new Random(42);
+        this.edges = new int[EDGES * 2];
+        for (int i = 0; i < this.edges.length; i++)
+            this.edges[i] = random.nextInt(VERTICES);
+    }
+
+    /**
+     * A graph with every vertex and no edge
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+
+        Object graph;
+
+        @Setup(Level.Invocation)
+        public void createGraph(AddEdgeBenchmark benchmark) throws Throwable {
+            this.graph = benchmark.newGraph();
+        }
+    }
+
+    /**
+     * A graph with every vertex, to which every edge was added and from which it was removed again
+     */
+    @State(Scope.Thread)
+    public static class Emptied {
+
+        Object graph;
+
+        @Setup(Level.Invocation)
+        public void emptyGraph(AddEdgeBenchmark benchmark) throws Throwable {
+            if (this.graph == null) {
+                this.graph = benchmark.newGraph();
+                benchmark.addEdges(this.graph);
+            }
+            benchmark.removeEdges(this.graph);
+        }
+    }
+
+    /**
+     * Adds every edge to a graph without edges
+     */
+    @Benchmark
+    @OperationsPerInvocation(EDGES)
+    public int build(Empty empty) throws Throwable {
+        return addEdges(empty.graph);
+    }
+
+    /**
+     * Adds every edge to a graph from which they were removed
+     */
+    @Benchmark
+    @OperationsPerInvocation(EDGES)
+    public int steady(Emptied emptied) throws Throwable {
+        return addEdges(emptied.graph);
+    }
+
+    /**
+     * Constructs a graph with every vertex
+     */
+    private Object newGraph() throws Throwable {
+        Object graph = Repository.newGraph(this.graphType);
+        for (Object vertex : this.vertices)
+            Repository.ADD_VERTEX.invokeExact(graph, vertex);
+        return graph;
+    }
+
+    /**
+     * Adds every edge to a graph
+     *
+     * @return number of edges which were not in the graph yet
+     */
+    private int addEdges(Object graph) throws Throwable {
+        int added = 0;
+        for (int i = 0; i < this.edges.length; i += 2) {
+            if ((boolean) Repository.ADD_EDGE.invokeExact(graph, this.vertices[this.edges[i]],
+                    this.vertices[this.edges[i + 1]]))
+                added++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes every edge from a graph
+     *
+     * @return number of edges which were in the graph
+     */
+    private int removeEdges(Object graph) throws Throwable {
+        int removed = 0;
+        for (int i = 0; i < this.edges.length; i += 2) {
+            if ((boolean) Repository.REMOVE_EDGE.invokeExact(graph, this.vertices[this.edges[i]],
+                    this.vertices[this.edges[i + 1]]))
+                removed++;
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,106 @@
+package wordladder.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reproducible random dictionaries for the benchmarks
+ *
+ * Words are drawn over a small alphabet so that, as in a real dictionary, most words have a few neighbours and
+ * the graph has long ladders. Their lengths follow one of the {@link LengthDistribution}s.
+ */
+final class Dictionaries {
+
+    /**
+     * Letters of the generated words
+     */
+    private static final String ALPHABET = "ETAOINSHRDLU";
+
+    /**
+     * Distributions of the word lengths
+     */
+    enum LengthDistribution {
+        /**
+         * 3 to 5 letters, uniformly: short words, the densest graphs
+         */
+        SHORT(new int[] { 0, 0, 0, 1, 1, 1 }),
+        /**
+         * 2 to 12 letters, weighted like an English word list, which peaks at 7 to 8 letters
+         */
+        ENGLISH(new int[] { 0, 0, 1, 4, 8, 12, 14, 15, 14, 11, 8, 6, 4 }),
+        /**
+         * 8 to 12 letters, uniformly: long words, sparse graphs
+         */
+        LONG(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1 });
+
+        /**
+         * Weight of every length
+         */
+        private final int[] weights;
+
+        LengthDistribution(int[] weights) {
+            this.weights = weights;
+        }
+
+        /**
+         * Draws a length
+         *
+         * @param random source of randomness
+         * @return the length
+         */
+        int next(Random random) {
+            int total = 0;
+            for (int weight : this.weights)
+                total += weight;
+            int draw = random.nextInt(total);
+            int length = 0;
+            while (draw >= this.weights[length])
+                draw -= this.weights[length++];
+            return length;
+        }
+    }
+
+    private Dictionaries() {
+    }
+
+    /**
+     * Draws distinct uppercase words, as {@code WordProcessor} normalizes them
+     *
+     * @param size number of words
+     * @param distribution distribution of their lengths
+     * @param seed seed of the generator
+     * @return the words
+     */
+    static List<String> words(int size, LengthDistribution distribution, long seed) {
+        Random random = new Random(seed);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < size) {
+            int length = distribution.next(random);
+            StringBuilder word = new StringBuilder(length);
+            for (int i = 0; i < length; i++)
+                word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Writes a dictionary file, one word per line
+     *
+     * @param words the words
+     * @return path of a temporary file, deleted on exit
+     * @throws IOException if the file can not be written
+     */
+    static Path write(List<String> words) throws IOException {
+        Path file = Files.createTempFile("dictionary", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, words);
+        return file;
+    }
+}
@@ -0,0 +1,59 @@
+package wordladder.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A generated dictionary file, parameterized by its number of words and the distribution of their lengths
+ */
+@State(Scope.Benchmark)
+public class DictionaryState {
+
+    /**
+     * Number of words
+     */
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    /**
+     * Distribution of the word lengths, a constant of {@link Dictionaries.LengthDistribution}
+     */
+    @Param({ "SHORT", "ENGLISH", "LONG" })
+    public String lengths;
+
+    /**
+     * The words, in the order of the file
+     */
+    List<String> words;
+
+    /**
+     * The dictionary file
+     */
+    Path file;
+
+    /**
+     * Path of the dictionary file
+     */
+    String filepath;
+
+    @Setup(Level.Trial)
+    public void writeDictionary() throws IOException {
+        this.words = Dictionaries.words(this.size, Dictionaries.LengthDistribution.valueOf(this.lengths), 42);
+        this.file = Dictionaries.write(this.words);
+        this.filepath = this.file.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDictionary() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+}
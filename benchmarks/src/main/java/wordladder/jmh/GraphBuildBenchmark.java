@@ -0,0 +1,92 @@
+package wordladder.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of building the graph from a dictionary file and of precomputing its shortest paths
+ *
+ * Every invocation starts from a new graph processor, so both are measured as single shots; the setup of every
+ * invocation is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GraphBuildBenchmark {
+
+    /**
+     * An empty graph processor per invocation
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+
+        /**
+         * Build mode, a constant of {@code GraphProcessor.BuildMode}. PAIRWISE is quadratic, give it explicitly
+         * with small sizes only.
+         */
+        @Param({ "INDEXED", "PARALLEL", "TRIE" })
+        public String buildMode;
+
+        Object processor;
+
+        @Setup(Level.Invocation)
+        public void createProcessor() {
+            this.processor = Repository.newGraphProcessor(this.buildMode, "TREE_CACHE");
+        }
+    }
+
+    /**
+     * A populated graph processor per invocation
+     */
+    @State(Scope.Thread)
+    public static class Populated {
+
+        /**
+         * Path strategy, a constant of {@code GraphProcessor.PathStrategy}. Only ALL_PAIRS precomputes every pair,
+         * the other strategies only pack the graph. ALL_PAIRS does not fit on the heap beyond about 46000 words,
+         * give it explicitly with small sizes only: -p pathStrategy=ALL_PAIRS -p size=1000,10000.
+         */
+        @Param({ "TREE_CACHE", "LANDMARKS" })
+        public String pathStrategy;
+
+        Object processor;
+
+        @Setup(Level.Invocation)
+        public void populateProcessor(DictionaryState dictionary) throws Throwable {
+            this.processor = Repository.newGraphProcessor("INDEXED", this.pathStrategy);
+            Integer vertices = (Integer) Repository.POPULATE_GRAPH.invokeExact(this.processor, dictionary.filepath);
+        }
+    }
+
+    /**
+     * Adds every word of the dictionary and finds all the edges
+     */
+    @Benchmark
+    public Integer populateGraph(DictionaryState dictionary, Empty empty) throws Throwable {
+        return (Integer) Repository.POPULATE_GRAPH.invokeExact(empty.processor, dictionary.filepath);
+    }
+
+    /**
+     * Packs the graph and, with LANDMARKS, searches from the landmarks or, with ALL_PAIRS, computes the distance
+     * matrix
+     */
+    @Benchmark
+    public Object shortestPathPrecomputation(Populated populated) throws Throwable {
+        Repository.SHORTEST_PATH_PRECOMPUTATION.invokeExact(populated.processor);
+        return populated.processor;
+    }
+}
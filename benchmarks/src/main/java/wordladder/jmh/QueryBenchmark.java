@@ -0,0 +1,101 @@
+package wordladder.jmh;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the latency of path and distance queries on a populated and precomputed graph
+ *
+ * Every invocation queries the next of a fixed sequence of random pairs of words, drawn among the words of
+ * equal length so that most pairs are connected. Sources repeat, as in real use, so the tree cache has hits.
+ */
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBenchmark {
+
+    /**
+     * Number of pairs in the sequence
+     */
+    private static final int PAIRS = 4096;
+
+    /**
+     * Number of distinct source words in the sequence
+     */
+    private static final int SOURCES = 64;
+
+    /**
+     * Path strategy, a constant of {@code GraphProcessor.PathStrategy}. ALL_PAIRS does not fit on the heap beyond
+     * about 46000 words, give it explicitly with small sizes only: -p pathStrategy=ALL_PAIRS -p size=1000,10000.
+     * AUTO picks a strategy which fits in a quarter of the heap.
+     */
+    @Param({ "TREE_CACHE", "BIDIRECTIONAL", "AUTO" })
+    public String pathStrategy;
+
+    private Object processor;
+
+    private String[] sources;
+
+    private String[] targets;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void precompute(DictionaryState dictionary) throws Throwable {
+        this.processor = Repository.newGraphProcessor("INDEXED", this.pathStrategy);
+        Integer vertices = (Integer) Repository.POPULATE_GRAPH.invokeExact(this.processor, dictionary.filepath);
+        Repository.SHORTEST_PATH_PRECOMPUTATION.invokeExact(this.processor);
+        Random random = new Random(11);
+        List<String> words = dictionary.words;
+        String[] sources = new String[SOURCES];
+        for (int i = 0; i < SOURCES; i++)
+            sources[i] = words.get(random.nextInt(words.size()));
+        this.sources = new String[PAIRS];
+        this.targets = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            this.sources[i] = sources[random.nextInt(SOURCES)];
+            String target;
+            int attempts = 0;
+            do
+                target = words.get(random.nextInt(words.size()));
+            while (target.length() != this.sources[i].length() && ++attempts < 1000);
+            this.targets[i] = target;
+        }
+    }
+
+    /**
+     * Finds the path between the next pair
+     */
+    @Benchmark
+    public List<?> getShortestPath() throws Throwable {
+        int i = this.next++ & (PAIRS - 1);
+        return (List<?>) Repository.GET_SHORTEST_PATH.invokeExact(this.processor, this.sources[i], this.targets[i]);
+    }
+
+    /**
+     * Finds the distance between the next pair
+     */
+    @Benchmark
+    public Integer getShortestDistance() throws Throwable {
+        int i = this.next++ & (PAIRS - 1);
+        return (Integer) Repository.GET_SHORTEST_DISTANCE.invokeExact(this.processor, this.sources[i],
+                this.targets[i]);
+    }
+}
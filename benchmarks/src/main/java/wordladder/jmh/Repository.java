@@ -0,0 +1,173 @@
+package wordladder.jmh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Method handles on the classes under test
+ *
+ * JMH does not accept benchmarks in the default package, and a class in a named package can not refer to the
+ * default package, where {@code GraphProcessor}, {@code WordProcessor} and the graphs live. The benchmarks therefore
+ * call them through constant method handles, adapted once to plain Object types so that every call is an
+ * invokeExact which the JIT compiles to a direct call.
+ */
+final class Repository {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Class<?> GRAPH_PROCESSOR = load("GraphProcessor");
+
+    private static final Class<?> WORD_PROCESSOR = load("WordProcessor");
+
+    private static final Class<?> GRAPH_ADT = load("GraphADT");
+
+    /**
+     * {@code new GraphProcessor()}: () -> Object
+     */
+    static final MethodHandle NEW_GRAPH_PROCESSOR = constructor(GRAPH_PROCESSOR);
+
+    /**
+     * {@code GraphProcessor#populateGraph(String)}: (Object, String) -> Integer
+     */
+    static final MethodHandle POPULATE_GRAPH = virtual(GRAPH_PROCESSOR, "populateGraph", Integer.class, String.class);
+
+    /**
+     * {@code GraphProcessor#shortestPathPrecomputation()}: (Object) -> void
+     */
+    static final MethodHandle SHORTEST_PATH_PRECOMPUTATION = virtual(GRAPH_PROCESSOR, "shortestPathPrecomputation",
+            void.class);
+
+    /**
+     * {@code GraphProcessor#getShortestPath(String, String)}: (Object, String, String) -> List
+     */
+    static final MethodHandle GET_SHORTEST_PATH = virtual(GRAPH_PROCESSOR, "getShortestPath", List.class,
+            String.class, String.class);
+
+    /**
+     * {@code GraphProcessor#getShortestDistance(String, String)}: (Object, String, String) -> Integer
+     */
+    static final MethodHandle GET_SHORTEST_DISTANCE = virtual(GRAPH_PROCESSOR, "getShortestDistance", Integer.class,
+            String.class, String.class);
+
+    /**
+     * {@code WordProcessor#getWordStream(String)}: (String) -> Stream
+     */
+    static final MethodHandle GET_WORD_STREAM = function(WORD_PROCESSOR, "getWordStream", Stream.class,
+            String.class);
+
+    /**
+     * {@code WordProcessor#isAdjacent(String, String)}: (String, String) -> boolean
+     */
+    static final MethodHandle IS_ADJACENT = function(WORD_PROCESSOR, "isAdjacent", boolean.class, String.class,
+            String.class);
+
+    /**
+     * {@code WordProcessor#isAdjacent(byte[], byte[])}: (byte[], byte[]) -> boolean
+     */
+    static final MethodHandle IS_ADJACENT_ENCODED = function(WORD_PROCESSOR, "isAdjacent", boolean.class,
+            byte[].class, byte[].class);
+
+    /**
+     * {@code WordProcessor#encode(String)}: (String) -> byte[]
+     */
+    static final MethodHandle ENCODE = function(WORD_PROCESSOR, "encode", byte[].class, String.class);
+
+    /**
+     * {@code GraphADT#addVertex(Object)}: (Object, Object) -> void, the returned vertex is dropped
+     */
+    static final MethodHandle ADD_VERTEX = virtual(GRAPH_ADT, "addVertex", Object.class, Object.class)
+            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+    /**
+     * {@code GraphADT#addEdge(Object, Object)}: (Object, Object, Object) -> boolean
+     */
+    static final MethodHandle ADD_EDGE = virtual(GRAPH_ADT, "addEdge", boolean.class, Object.class, Object.class);
+
+    /**
+     * {@code GraphADT#removeEdge(Object, Object)}: (Object, Object, Object) -> boolean
+     */
+    static final MethodHandle REMOVE_EDGE = virtual(GRAPH_ADT, "removeEdge", boolean.class, Object.class,
+            Object.class);
+
+    private Repository() {
+    }
+
+    /**
+     * Constructs an empty graph
+     *
+     * @param graphType name of a class implementing {@code GraphADT}, with a constructor without parameters
+     * @return the graph
+     */
+    static Object newGraph(String graphType) {
+        try {
+            return (Object) constructor(load(graphType)).invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Constructs a graph processor with a build mode and a path strategy
+     *
+     * @param buildMode name of a constant of {@code GraphProcessor.BuildMode}
+     * @param pathStrategy name of a constant of {@code GraphProcessor.PathStrategy}
+     * @return the graph processor
+     */
+    static Object newGraphProcessor(String buildMode, String pathStrategy) {
+        try {
+            Object processor = (Object) NEW_GRAPH_PROCESSOR.invokeExact();
+            setEnum(processor, "setBuildMode", "BuildMode", buildMode);
+            setEnum(processor, "setPathStrategy", "PathStrategy", pathStrategy);
+            return processor;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Calls a setter of a graph processor which takes one of its nested enums
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void setEnum(Object processor, String setter, String type, String name) throws Throwable {
+        Class<? extends Enum> enumType = (Class<? extends Enum>) load("GraphProcessor$" + type);
+        LOOKUP.findVirtual(GRAPH_PROCESSOR, setter, MethodType.methodType(void.class, enumType))
+                .invoke(processor, Enum.valueOf(enumType, name));
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> type) {
+        try {
+            return LOOKUP.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle virtual(Class<?> type, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findVirtual(type, name, MethodType.methodType(returnType, parameters));
+            return handle.asType(handle.type().changeParameterType(0, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle function(Class<?> type, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return LOOKUP.findStatic(type, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
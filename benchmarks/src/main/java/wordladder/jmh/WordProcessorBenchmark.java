@@ -0,0 +1,100 @@
+package wordladder.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of loading a dictionary and of the adjacency test, both kernels of {@code populateGraph}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordProcessorBenchmark {
+
+    /**
+     * Number of word pairs tested per invocation of the adjacency benchmarks
+     */
+    private static final int PAIRS = 1024;
+
+    /**
+     * Random pairs of words of the dictionary, half of them of equal length
+     */
+    @State(Scope.Benchmark)
+    public static class Pairs {
+
+        String[] first;
+
+        String[] second;
+
+        byte[][] encodedFirst;
+
+        byte[][] encodedSecond;
+
+        @Setup(Level.Trial)
+        public void drawPairs(DictionaryState dictionary) throws Throwable {
+            Random random = new Random(7);
+            this.first = new String[PAIRS];
+            this.second = new String[PAIRS];
+            this.encodedFirst = new byte[PAIRS][];
+            this.encodedSecond = new byte[PAIRS][];
+            for (int i = 0; i < PAIRS; i++) {
+                this.first[i] = dictionary.words.get(random.nextInt(dictionary.words.size()));
+                do
+                    this.second[i] = dictionary.words.get(random.nextInt(dictionary.words.size()));
+                while (i % 2 == 0 && this.second[i].length() != this.first[i].length());
+                this.encodedFirst[i] = (byte[]) Repository.ENCODE.invokeExact(this.first[i]);
+                this.encodedSecond[i] = (byte[]) Repository.ENCODE.invokeExact(this.second[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads, trims and uppercases every line of the dictionary
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long getWordStream(DictionaryState dictionary) throws Throwable {
+        try (Stream<?> words = (Stream<?>) Repository.GET_WORD_STREAM.invokeExact(dictionary.filepath)) {
+            return words.count();
+        }
+    }
+
+    /**
+     * Tests pairs of words given as strings
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void isAdjacent(Pairs pairs, Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < PAIRS; i++)
+            blackhole.consume((boolean) Repository.IS_ADJACENT.invokeExact(pairs.first[i], pairs.second[i]));
+    }
+
+    /**
+     * Tests pairs of words given as encoded bytes, as the edge finders do
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void isAdjacentEncoded(Pairs pairs, Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < PAIRS; i++)
+            blackhole.consume((boolean) Repository.IS_ADJACENT_ENCODED.invokeExact(pairs.encodedFirst[i],
+                    pairs.encodedSecond[i]));
+    }
+}